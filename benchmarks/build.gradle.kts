@@ -0,0 +1,37 @@
+plugins {
+    id("java")
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+group = "com.cleverthis.interview"
+version = "1.0-SNAPSHOT"
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    jmh(project(":"))
+    jmh(project(":padlock-impl"))
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    benchmarkMode.set(listOf("thrpt"))
+    timeUnit.set("s")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    // allocation rate next to the throughput of every benchmark
+    profilers.set(listOf("gc"))
+    // the padlock must not sleep on writes, the benchmarks measure the code, not the simulated device
+    jvmArgs.set(listOf("-Dfast=true"))
+    // one result file per version, to be compared across versions
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results-${project.version}.json"))
+}
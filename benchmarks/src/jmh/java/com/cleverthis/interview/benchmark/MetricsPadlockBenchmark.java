@@ -0,0 +1,55 @@
+package com.cleverthis.interview.benchmark;
+
+import com.cleverthis.interview.domain.IPadlock;
+import com.cleverthis.interview.domain.PadlockImplDelegate;
+import com.cleverthis.interview.metrics.MetricsPadlock;
+import com.cleverthis.interview.padlock.PadlockImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Overhead of the metrics decorator on the padlock hot paths, compared with the bare padlock.
+ */
+@State(Scope.Benchmark)
+public class MetricsPadlockBenchmark {
+
+    private static final int NUMPAD_SIZE = 8;
+
+    @Param({"false", "true"})
+    public boolean instrumented;
+
+    private IPadlock padlock;
+    private int address;
+
+    @Setup
+    public void setUp() {
+        final IPadlock bare = new PadlockImplDelegate(new PadlockImpl(NUMPAD_SIZE));
+        this.padlock = this.instrumented ? new MetricsPadlock(bare, "benchmark") : bare;
+        for (int i = 0; i < NUMPAD_SIZE; i++) {
+            this.padlock.writeInputBuffer(i, i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (this.padlock instanceof MetricsPadlock metricsPadlock) {
+            metricsPadlock.close();
+        }
+    }
+
+    @Benchmark
+    public Integer writeInputBuffer() {
+        // rewrite the value already there, so the buffer stays a valid passcode
+        this.address = (this.address + 1) % NUMPAD_SIZE;
+        return this.padlock.writeInputBuffer(this.address, this.address);
+    }
+
+    @Benchmark
+    public boolean isPasscodeCorrect() {
+        return this.padlock.isPasscodeCorrect();
+    }
+}
@@ -0,0 +1,35 @@
+package com.cleverthis.interview.benchmark;
+
+import com.cleverthis.interview.configuration.PadlockAccessType;
+import com.cleverthis.interview.configuration.PadlockConfiguration;
+import com.cleverthis.interview.domain.IPadlock;
+import com.cleverthis.interview.domain.PadlockBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Throughput of building the padlock from the already parsed configuration.
+ */
+@State(Scope.Benchmark)
+public class PadlockBuilderBenchmark {
+
+    @Param({"JAVA", "CUSTOM"})
+    public PadlockAccessType accessType;
+
+    private PadlockConfiguration configuration;
+
+    @Setup
+    public void setUp() {
+        this.configuration = this.accessType == PadlockAccessType.CUSTOM
+                ? PadlockConfiguration.from("/padlock-configuration-custom.json")
+                : new PadlockConfiguration(PadlockAccessType.JAVA, 6, null);
+    }
+
+    @Benchmark
+    public IPadlock build() {
+        return PadlockBuilder.newBuilder().withPadlockConfiguration(this.configuration).build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.cleverthis.interview.benchmark;
+
+import com.cleverthis.interview.configuration.PadlockConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Throughput of reading the padlock configuration given on the command line.
+ */
+@State(Scope.Benchmark)
+public class PadlockConfigurationBenchmark {
+
+    @Param({"/padlock-configuration.json", "/padlock-configuration-custom.json", "/padlock-configuration-rest.json", "8"})
+    public String argument;
+
+    @Benchmark
+    public PadlockConfiguration fromArgv() {
+        return PadlockConfiguration.fromArgv(this.argument);
+    }
+}
@@ -0,0 +1,29 @@
+package com.cleverthis.interview.benchmark;
+
+import com.cleverthis.interview.domain.CrackerEngine;
+import com.cleverthis.interview.domain.PadlockCracker;
+import com.cleverthis.interview.domain.PadlockImplDelegate;
+import com.cleverthis.interview.padlock.PadlockImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Throughput of the whole crack of a fresh padlock by each cracker engine.
+ * The padlock is created inside the benchmark, its construction is negligible next to the crack.
+ */
+@State(Scope.Benchmark)
+public class PadlockCrackerBenchmark {
+
+    @Param({"4", "6", "8"})
+    public int numpadSize;
+
+    @Param({"BRUTE_FORCE", "MINIMAL_CHANGE"})
+    public CrackerEngine engine;
+
+    @Benchmark
+    public int[] execute() {
+        return new PadlockCracker(new PadlockImplDelegate(new PadlockImpl(this.numpadSize)), this.engine).execute();
+    }
+}
@@ -0,0 +1,34 @@
+package com.cleverthis.interview.benchmark;
+
+import com.cleverthis.interview.padlock.PadlockImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Throughput of the passcode check, the hot path of every cracker engine.
+ */
+@State(Scope.Benchmark)
+public class PadlockImplBenchmark {
+
+    @Param({"4", "8", "12"})
+    public int numpadSize;
+
+    private PadlockImpl padlock;
+
+    @Setup
+    public void setUp() {
+        this.padlock = new PadlockImpl(this.numpadSize);
+        // a full permutation in the buffer, so the check compares all addresses (the passcode is random, it mostly fails)
+        for (int address = 0; address < this.numpadSize; address++) {
+            this.padlock.writeInputBuffer(address, address);
+        }
+    }
+
+    @Benchmark
+    public boolean isPasscodeCorrect() {
+        return this.padlock.isPasscodeCorrect();
+    }
+}
@@ -36,7 +36,8 @@ java {
 
 tasks.test {
     useJUnitPlatform()
-    jvmArgs = listOf("-Dfast=true")
+    // the small responses of the JDK HTTP server must not wait for the delayed ACK, see PadlockHttpServer
+    jvmArgs = listOf("-Dfast=true", "-Dsun.net.httpserver.nodelay=true")
 }
 
 tasks.register<JavaExec>("runPerformanceAnalyze")
@@ -45,10 +46,69 @@ tasks.named<JavaExec>("runPerformanceAnalyze") {
     group = "verification"
     classpath = sourceSets.test.get().runtimeClasspath
     mainClass.set("com.cleverthis.interview.PerformanceAnalyze")
-    jvmArgs("-Dfast=true")
+    jvmArgs("-Dfast=true", "-Dsun.net.httpserver.nodelay=true")
     standardOutput = FileOutputStream("performance.txt")
 }
 
+// Fast startup distribution of the cracker, for the short-lived runs of a single lock.
+// The classpath is made of jars only, as required by the CDS archive.
+val applicationMainClass = "com.cleverthis.interview.PadlockCrackerApplication"
+val applicationClasspath = files(tasks.jar) + configurations.runtimeClasspath.get()
+// the training run parses the JSON configuration and builds the CUSTOM chain, so Jackson and the builder are archived
+val trainingArguments = listOf("/padlock-configuration-custom.json")
+val cdsArchive = layout.buildDirectory.file("cds/padlock.jsa")
+val nativeExecutable = layout.buildDirectory.file("native/padlock")
+
+tasks.register<JavaExec>("cdsArchive") {
+    group = "distribution"
+    description = "Creates the AppCDS archive of the classes loaded by a training run of the cracker."
+    classpath = applicationClasspath
+    mainClass.set(applicationMainClass)
+    args(trainingArguments)
+    jvmArgs("-Dfast=true", "-XX:ArchiveClassesAtExit=" + cdsArchive.get().asFile.path)
+    outputs.file(cdsArchive)
+    doFirst {
+        cdsArchive.get().asFile.parentFile.mkdirs()
+    }
+}
+
+tasks.register<JavaExec>("runWithCds") {
+    dependsOn("cdsArchive")
+    group = "application"
+    description = "Runs the cracker with the AppCDS archive, pass the cracker arguments with --args."
+    classpath = applicationClasspath
+    mainClass.set(applicationMainClass)
+    jvmArgs("-XX:SharedArchiveFile=" + cdsArchive.get().asFile.path)
+}
+
+tasks.register<Exec>("nativeImage") {
+    group = "distribution"
+    description = "Builds the GraalVM native executable of the cracker, native-image is taken from GRAALVM_HOME or PATH."
+    val graalHome = System.getenv("GRAALVM_HOME")
+    executable = if (graalHome != null) "$graalHome/bin/native-image" else "native-image"
+    inputs.files(applicationClasspath)
+    outputs.file(nativeExecutable)
+    // the reflection and resource metadata are picked from META-INF/native-image of the main jar
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf("--no-fallback", "-cp", applicationClasspath.asPath, "-o", nativeExecutable.get().asFile.path, applicationMainClass)
+    })
+    doFirst {
+        nativeExecutable.get().asFile.parentFile.mkdirs()
+    }
+}
+
+tasks.register<JavaExec>("runStartupBenchmark") {
+    dependsOn("testClasses", "cdsArchive")
+    group = "verification"
+    description = "Compares the startup of the plain JVM, the JVM with the AppCDS archive and the native executable if built."
+    classpath = sourceSets.test.get().runtimeClasspath
+    mainClass.set("com.cleverthis.interview.StartupBenchmark")
+    systemProperty("padlock.startup.classpath", applicationClasspath.asPath)
+    systemProperty("padlock.startup.cdsArchive", cdsArchive.get().asFile.path)
+    systemProperty("padlock.startup.nativeExecutable", nativeExecutable.get().asFile.path)
+    args(trainingArguments)
+}
+
 spotbugs {
     toolVersion = "4.8.6"
     effort.set(Effort.MAX)
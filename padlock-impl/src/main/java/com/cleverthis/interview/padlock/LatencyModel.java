@@ -0,0 +1,123 @@
+package com.cleverthis.interview.padlock;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * The time the padlock spends on its operations, see {@link PadlockImpl#PadlockImpl(int, LatencyModel, PadlockClock)}.
+ * The latency is only computed here, it is spent on the {@link PadlockClock} of the padlock.
+ */
+public interface LatencyModel {
+
+    /**
+     * The latency of the original hardware: one second per write.
+     */
+    LatencyModel DEFAULT = fixed(TimeUnit.SECONDS.toNanos(1));
+
+    /**
+     * @param address  The address being written.
+     * @param keyIndex The key/button index being written.
+     * @return The time of the write, in nanoseconds.
+     */
+    long writeNanos(int address, int keyIndex);
+
+    /**
+     * @return The time of the passcode check, in nanoseconds. The check is fast, zero by default.
+     */
+    default long checkNanos() {
+        return 0;
+    }
+
+    /**
+     * @param writeNanos The time of every write, in nanoseconds.
+     * @return Model with the same latency of every write.
+     */
+    static LatencyModel fixed(long writeNanos) {
+        return (address, keyIndex) -> writeNanos;
+    }
+
+    /**
+     * @param writeNanos The time of the write to each address, in nanoseconds.
+     *                   The writes to the addresses out of the array take no time (they are rejected anyway).
+     * @return Model with the latency depending on the address.
+     */
+    static LatencyModel perAddress(long... writeNanos) {
+        final long[] latencies = writeNanos.clone();
+        return (address, keyIndex) -> address >= 0 && address < latencies.length ? latencies[address] : 0;
+    }
+
+    /**
+     * @param sampler Supplies the time of each write, in nanoseconds. It must be thread-safe if the padlock is shared.
+     * @return Model with the latency sampled from a distribution.
+     */
+    static LatencyModel sampled(LongSupplier sampler) {
+        return (address, keyIndex) -> Math.max(0, sampler.getAsLong());
+    }
+
+    /**
+     * @param meanNanos The mean time of a write, in nanoseconds.
+     * @param seed      The seed of the random generator, the same seed gives the same latencies.
+     * @return Model with exponentially distributed latency.
+     */
+    static LatencyModel exponential(long meanNanos, long seed) {
+        final Random random = new Random(seed);
+        return sampled(() -> (long) (-meanNanos * Math.log(1 - random.nextDouble())));
+    }
+
+    /**
+     * @param meanNanos   The mean time of a write, in nanoseconds.
+     * @param stddevNanos The standard deviation of the time of a write, in nanoseconds. Negative samples are cut to zero.
+     * @param seed        The seed of the random generator, the same seed gives the same latencies.
+     * @return Model with normally distributed latency.
+     */
+    static LatencyModel normal(long meanNanos, long stddevNanos, long seed) {
+        final Random random = new Random(seed);
+        return sampled(() -> meanNanos + (long) (stddevNanos * random.nextGaussian()));
+    }
+
+    /**
+     * @param writeNanos The recorded times of the consecutive writes, in nanoseconds. Replayed from the start when exhausted.
+     * @return Model replaying the recorded latencies.
+     */
+    static LatencyModel replay(long... writeNanos) {
+        if (writeNanos.length == 0) throw new IllegalArgumentException("trace must contain at least one latency");
+        final long[] trace = writeNanos.clone();
+        final AtomicLong next = new AtomicLong(0);
+        return (address, keyIndex) -> trace[(int) (next.getAndIncrement() % trace.length)];
+    }
+
+    /**
+     * Read the latencies recorded on the device: one write latency in milliseconds (decimal fraction allowed) per line,
+     * empty lines and lines starting with # are skipped.
+     *
+     * @param trace The trace file.
+     * @return Model replaying the recorded latencies.
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a line is not a number or the trace is empty
+     */
+    static LatencyModel fromTrace(Path trace) throws IOException {
+        final List<Long> latencies = new ArrayList<>();
+        for (String line : Files.readAllLines(trace, StandardCharsets.UTF_8)) {
+            final String value = line.trim();
+            if (value.isEmpty() || value.startsWith("#")) continue;
+            try {
+                latencies.add((long) (Double.parseDouble(value) * TimeUnit.MILLISECONDS.toNanos(1)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid latency in trace " + trace + ": " + value, e);
+            }
+        }
+        final long[] writeNanos = new long[latencies.size()];
+        for (int i = 0; i < writeNanos.length; i++) {
+            writeNanos[i] = latencies.get(i);
+        }
+        return replay(writeNanos);
+    }
+}
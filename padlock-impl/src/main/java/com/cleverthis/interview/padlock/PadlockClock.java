@@ -0,0 +1,36 @@
+package com.cleverthis.interview.padlock;
+
+/**
+ * The clock the padlock spends its latency on.
+ * The real clock really waits, the {@link VirtualClock} only accounts the time, so a simulated run
+ * finishes as fast as the code runs and still reports the exact wall time the device would need.
+ */
+public interface PadlockClock {
+
+    /**
+     * Spend the given amount of time.
+     *
+     * @param nanos The time to spend, in nanoseconds. Non-positive values are ignored.
+     */
+    void advance(long nanos);
+
+    /**
+     * @return The total time spent on this clock, in nanoseconds.
+     */
+    long elapsedNanos();
+
+    /**
+     * @return New clock of the default padlock: the {@link VirtualClock} if the property `-Dfast=true` is set,
+     * otherwise the real one.
+     */
+    static PadlockClock standard() {
+        return Utils.shouldSkipSleep() ? new VirtualClock() : real();
+    }
+
+    /**
+     * @return New clock really sleeping the given time, even if interrupted.
+     */
+    static PadlockClock real() {
+        return new RealClock();
+    }
+}
@@ -5,8 +5,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
-
-import static com.cleverthis.interview.padlock.Utils.ensureSleep;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * This is a logical representation of a physical padlock with a numpad.
@@ -26,31 +26,103 @@ import static com.cleverthis.interview.padlock.Utils.ensureSleep;
  * </ul>
  * <br/>
  * After create, the input buffer is empty, you have to initialize.
+ * <br/>
+ * The time of the operations is given by the {@link LatencyModel} and spent on the {@link PadlockClock},
+ * with the {@link VirtualClock} a simulated run takes milliseconds and still reports the exact device time.
+ * <br/>
+ * By default the padlock is serial: one operation at a time, each holding the padlock for its whole latency.
+ * In the opt-in parallel lanes mode it simulates the hardware with independent address lines: writes to different
+ * addresses proceed concurrently, each holding only its own address lane while paying its latency, and a check
+ * waits only for the writes in flight (fair, so a stream of writes cannot starve it).
+ * A batch of writes occupies the lanes of its addresses at once, so it takes as long as its slowest lane.
+ * Note the {@link VirtualClock} sums the latencies of concurrent single writes, it is exact for batches only.
  */
 public final class PadlockImpl {
+    // marks the uninitialized address of the input buffer
+    private static final int UNSET = -1;
+
     private final int numpadSize;
-    private final Integer[] inputBuffer;
-    private final Integer[] correctPasscode;
+    private final int[] inputBuffer;
+    private final int[] correctPasscode;
+    // validity and match tallies, updated by every write so the check is O(1)
+    private final int[] keyUses;
+    private int uninitialized;
+    private int duplicates;
+    private int matches;
+    // parallel lanes mode only: per-address lanes, the writes share the read side, the check takes the write side
+    private final ReentrantLock[] lanes;
+    private final ReentrantReadWriteLock inFlight;
+    private final Object tallyLock = new Object();
     // performance counter
     private final AtomicLong writeCounter = new AtomicLong(0);
     private final AtomicLong checkCounter = new AtomicLong(0);
+    private final LatencyModel latencyModel;
+    private final PadlockClock clock;
 
     /**
-     * Create a padlock instance.
+     * Create a padlock instance taking one second per write.
+     * Property `-Dfast=true` makes the padlock account the time on a {@link VirtualClock} instead of sleeping.
      *
      * @param numpadSize The number of buttons on the numpad of this lock.
      */
     public PadlockImpl(int numpadSize) {
+        this(numpadSize, LatencyModel.DEFAULT, PadlockClock.standard());
+    }
+
+    /**
+     * Create a padlock instance with the given latency.
+     *
+     * @param numpadSize   The number of buttons on the numpad of this lock.
+     * @param latencyModel The time of the padlock operations.
+     * @param clock        The clock the time is spent on, e.g. {@link VirtualClock} for simulated runs.
+     */
+    public PadlockImpl(int numpadSize, LatencyModel latencyModel, PadlockClock clock) {
+        this(numpadSize, latencyModel, clock, false);
+    }
+
+    /**
+     * Create a padlock instance with the given latency, optionally with the parallel address lanes.
+     *
+     * @param numpadSize    The number of buttons on the numpad of this lock.
+     * @param latencyModel  The time of the padlock operations.
+     * @param clock         The clock the time is spent on, e.g. {@link VirtualClock} for simulated runs.
+     * @param parallelLanes true to write different addresses concurrently, false for the serial padlock.
+     */
+    public PadlockImpl(int numpadSize, LatencyModel latencyModel, PadlockClock clock, boolean parallelLanes) {
         if (numpadSize < 1) throw new IllegalArgumentException("numpadSize must be a positive number");
+        if (latencyModel == null || clock == null) throw new NullPointerException("latencyModel and clock are required");
         this.numpadSize = numpadSize;
-        this.inputBuffer = new Integer[numpadSize];
+        this.latencyModel = latencyModel;
+        this.clock = clock;
+        this.inputBuffer = new int[numpadSize];
+        Arrays.fill(inputBuffer, UNSET);
+        this.keyUses = new int[numpadSize];
+        this.uninitialized = numpadSize;
         List<Integer> answer = new ArrayList<>(numpadSize);
         for (int i = 0; i < numpadSize; i++)
             answer.add(i);
         for (int i = 0; i < numpadSize / 2; i++) {
             Collections.shuffle(answer);
         }
-        this.correctPasscode = answer.toArray(new Integer[0]);
+        this.correctPasscode = new int[numpadSize];
+        for (int i = 0; i < numpadSize; i++)
+            correctPasscode[i] = answer.get(i);
+        if (parallelLanes) {
+            this.lanes = new ReentrantLock[numpadSize];
+            for (int i = 0; i < numpadSize; i++)
+                lanes[i] = new ReentrantLock();
+            this.inFlight = new ReentrantReadWriteLock(true);
+        } else {
+            this.lanes = null;
+            this.inFlight = null;
+        }
+    }
+
+    /**
+     * @return true if the writes to different addresses proceed concurrently.
+     */
+    public boolean isParallelLanes() {
+        return lanes != null;
     }
 
     public int getNumpadSize() {
@@ -64,15 +136,117 @@ public final class PadlockImpl {
      * @param keyIndex The key/button index you want to put here. Range: [0, numpadSize)
      * @return The old value, null if not initialized.
      */
-    public synchronized Integer writeInputBuffer(int address, int keyIndex) {
-        ensureSleep(1000);
+    public Integer writeInputBuffer(int address, int keyIndex) {
+        if (lanes != null) return writeLane(address, keyIndex);
+        synchronized (this) {
+            clock.advance(latencyModel.writeNanos(address, keyIndex));
+            checkKeyIndex(keyIndex);
+            writeCounter.incrementAndGet();
+            return apply(address, keyIndex);
+        }
+    }
+
+    /**
+     * Write several digits into padlock's input buffer, in the given order.
+     * The serial padlock writes them one by one. With the parallel lanes, the whole batch is validated first,
+     * then the lanes of all its addresses are occupied at once, so the batch takes as long as its slowest lane
+     * (the sum of the latencies of its writes to that address).
+     *
+     * @param addresses  The digits you want to write. Range: [0, numpadSize)
+     * @param keyIndexes The key/button indexes you want to put there, same length as the addresses.
+     * @return The old values in the order of the addresses, null if not initialized.
+     */
+    public Integer[] writeInputBuffer(int[] addresses, int[] keyIndexes) {
+        if (addresses.length != keyIndexes.length)
+            throw new IllegalArgumentException(String.format("addresses and keyIndexes lengths differ: %d != %d",
+                    addresses.length, keyIndexes.length));
+        Integer[] oldValues = new Integer[addresses.length];
+        if (lanes == null) {
+            for (int i = 0; i < addresses.length; i++)
+                oldValues[i] = writeInputBuffer(addresses[i], keyIndexes[i]);
+            return oldValues;
+        }
+        // validate the whole batch before occupying the lanes, in the order of the single writes
+        long[] laneNanos = new long[numpadSize];
+        boolean[] occupied = new boolean[numpadSize];
+        for (int i = 0; i < addresses.length; i++) {
+            checkKeyIndex(keyIndexes[i]);
+            occupied[addresses[i]] = true;
+            laneNanos[addresses[i]] += latencyModel.writeNanos(addresses[i], keyIndexes[i]);
+        }
+        writeCounter.addAndGet(addresses.length);
+        inFlight.readLock().lock();
+        try {
+            // in the address order, so the concurrent batches cannot deadlock
+            long slowestLane = 0;
+            for (int address = 0; address < numpadSize; address++) {
+                if (occupied[address]) {
+                    lanes[address].lock();
+                    slowestLane = Math.max(slowestLane, laneNanos[address]);
+                }
+            }
+            try {
+                clock.advance(slowestLane);
+                synchronized (tallyLock) {
+                    for (int i = 0; i < addresses.length; i++)
+                        oldValues[i] = apply(addresses[i], keyIndexes[i]);
+                }
+            } finally {
+                for (int address = 0; address < numpadSize; address++) {
+                    if (occupied[address]) lanes[address].unlock();
+                }
+            }
+        } finally {
+            inFlight.readLock().unlock();
+        }
+        return oldValues;
+    }
+
+    /**
+     * The single write with the parallel lanes: the latency is paid holding only the lane of the address.
+     * The invalid writes are rejected without any latency.
+     */
+    private Integer writeLane(int address, int keyIndex) {
+        checkKeyIndex(keyIndex);
+        writeCounter.incrementAndGet();
+        ReentrantLock lane = lanes[address];
+        inFlight.readLock().lock();
+        try {
+            lane.lock();
+            try {
+                clock.advance(latencyModel.writeNanos(address, keyIndex));
+                synchronized (tallyLock) {
+                    return apply(address, keyIndex);
+                }
+            } finally {
+                lane.unlock();
+            }
+        } finally {
+            inFlight.readLock().unlock();
+        }
+    }
+
+    private void checkKeyIndex(int keyIndex) {
         if (keyIndex < 0 || keyIndex >= numpadSize)
             throw new IllegalArgumentException(
                     "keyIndex out of range. Keypad size: " + numpadSize + ", keyIndex: " + keyIndex);
-        writeCounter.incrementAndGet();
-        Integer oldValue = inputBuffer[address];
+    }
+
+    /**
+     * Store the digit and update the tallies, the caller holds the padlock monitor or the tally lock.
+     */
+    private Integer apply(int address, int keyIndex) {
+        int oldValue = inputBuffer[address];
         inputBuffer[address] = keyIndex;
-        return oldValue;
+        if (oldValue == UNSET) {
+            uninitialized--;
+        } else {
+            if (--keyUses[oldValue] > 0) duplicates--;
+            if (oldValue == correctPasscode[address]) matches--;
+        }
+        if (keyUses[keyIndex]++ > 0) duplicates++;
+        if (keyIndex == correctPasscode[address]) matches++;
+        return oldValue == UNSET ? null : oldValue;
     }
 
     /**
@@ -81,22 +255,57 @@ public final class PadlockImpl {
      * @return true if the passcode is correct; false if passcode is wrong.
      * @throws IllegalStateException if the input buffer is not a valid passcode
      */
-    public synchronized boolean isPasscodeCorrect() {
-        // first check if the input is legal
-        boolean[] uniqueTestArr = new boolean[numpadSize];
-        for (Integer i : inputBuffer) {
-            if (i == null) throw new IllegalStateException(
-                    "Passcode invalid: contain uninitialized value. " + Arrays.toString(inputBuffer));
-            if (uniqueTestArr[i]) throw new IllegalStateException(
-                    "Passcode invalid: contain duplicated value. " + Arrays.toString(inputBuffer));
-            uniqueTestArr[i] = true;
+    public boolean isPasscodeCorrect() {
+        if (lanes == null) {
+            synchronized (this) {
+                return check();
+            }
         }
+        // the exclusive side waits for the writes in flight and holds the new ones off
+        inFlight.writeLock().lock();
+        try {
+            return check();
+        } finally {
+            inFlight.writeLock().unlock();
+        }
+    }
+
+    private boolean check() {
+        clock.advance(latencyModel.checkNanos());
+        // first check if the input is legal, the tallies tell it without walking the buffer
+        if (uninitialized > 0 || duplicates > 0) rejectInvalidPasscode();
         checkCounter.incrementAndGet();
         // if no exception, means:
         //     every digit is unique, and every digit is initialized
         // aka this is a valid code
-        // now compare with our answer
-        return Arrays.equals(correctPasscode, inputBuffer);
+        // now compare with our answer: all addresses match
+        return matches == numpadSize;
+    }
+
+    /**
+     * Walk the invalid buffer to report the first problem in the address order.
+     */
+    private void rejectInvalidPasscode() {
+        boolean[] uniqueTestArr = new boolean[numpadSize];
+        for (int i : inputBuffer) {
+            if (i == UNSET) throw new IllegalStateException(
+                    "Passcode invalid: contain uninitialized value. " + describeInputBuffer());
+            if (uniqueTestArr[i]) throw new IllegalStateException(
+                    "Passcode invalid: contain duplicated value. " + describeInputBuffer());
+            uniqueTestArr[i] = true;
+        }
+    }
+
+    /**
+     * @return The input buffer as printed before, uninitialized values as null.
+     */
+    private String describeInputBuffer() {
+        StringBuilder description = new StringBuilder("[");
+        for (int i = 0; i < numpadSize; i++) {
+            if (i > 0) description.append(", ");
+            description.append(inputBuffer[i] == UNSET ? "null" : String.valueOf(inputBuffer[i]));
+        }
+        return description.append(']').toString();
     }
 
     public long getWriteCounter() {
@@ -107,6 +316,13 @@ public final class PadlockImpl {
         return checkCounter.get();
     }
 
+    /**
+     * @return The clock of this padlock, its elapsed time is the (simulated) time spent by the padlock operations.
+     */
+    public PadlockClock getClock() {
+        return clock;
+    }
+
     public void resetCounter() {
         writeCounter.set(0);
         checkCounter.set(0);
@@ -0,0 +1,22 @@
+package com.cleverthis.interview.padlock;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The clock sleeping the calling thread for the whole requested time.
+ */
+final class RealClock implements PadlockClock {
+    private final AtomicLong elapsed = new AtomicLong(0);
+
+    @Override
+    public void advance(long nanos) {
+        if (nanos <= 0) return;
+        Utils.ensureSleepNanos(nanos);
+        elapsed.addAndGet(nanos);
+    }
+
+    @Override
+    public long elapsedNanos() {
+        return elapsed.get();
+    }
+}
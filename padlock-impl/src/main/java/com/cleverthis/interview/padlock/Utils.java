@@ -3,32 +3,29 @@ package com.cleverthis.interview.padlock;
 class Utils {
     /**
      * Check if the sleep is disabled.
-     * User can use `-Dfast=true` in the jvm args,
-     * or change it on the fly.
-     * Might waste sometime on checking this flag, but the effect should be minor.
+     * User can use `-Dfast=true` in the jvm args.
+     * Read when the padlock is created, the padlocks created with the flag account their time on the {@link VirtualClock}.
      * */
-    private static boolean shouldSkipSleep() {
+    static boolean shouldSkipSleep() {
         return Boolean.parseBoolean(System.getProperty("fast"));
     }
 
     /**
      * Ensure we will wait a given amount of time even if there are interruptions.
-     * Property `-Dfast=true` can disable the sleep.
      *
-     * @param millis The time you want to sleep, measure in millisecond.
+     * @param nanos The time you want to sleep, measure in nanoseconds.
      */
-    public static void ensureSleep(long millis) {
-        if (shouldSkipSleep()) return;
-        long endTime = System.currentTimeMillis() + millis;
-        while (endTime > System.currentTimeMillis()) {
+    static void ensureSleepNanos(long nanos) {
+        long endTime = System.nanoTime() + nanos;
+        long remaining = nanos;
+        while (remaining > 0) {
             try {
                 //noinspection BusyWait
-                Thread.sleep(endTime - System.currentTimeMillis());
+                Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
             } catch (InterruptedException e) {
                 // do nothing when interrupted, will re-sleep in next loop
-            } catch (IllegalArgumentException e) {
-                break;
             }
+            remaining = endTime - System.nanoTime();
         }
     }
 }
@@ -0,0 +1,29 @@
+package com.cleverthis.interview.padlock;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The clock accounting the time without waiting.
+ * A clock owned by one padlock reports the exact simulated wall time of its serial operations.
+ * A clock shared by several padlocks reports the sum of their device time.
+ */
+public final class VirtualClock implements PadlockClock {
+    private final AtomicLong elapsed = new AtomicLong(0);
+
+    @Override
+    public void advance(long nanos) {
+        if (nanos > 0) elapsed.addAndGet(nanos);
+    }
+
+    @Override
+    public long elapsedNanos() {
+        return elapsed.get();
+    }
+
+    /**
+     * Set the elapsed time back to zero.
+     */
+    public void reset() {
+        elapsed.set(0);
+    }
+}
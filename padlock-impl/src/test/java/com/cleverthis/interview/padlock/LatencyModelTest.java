@@ -0,0 +1,70 @@
+package com.cleverthis.interview.padlock;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyModelTest {
+
+    @Test
+    void testDefaultIsOneSecondPerWrite() {
+        assertEquals(1_000_000_000L, LatencyModel.DEFAULT.writeNanos(0, 0));
+        assertEquals(0, LatencyModel.DEFAULT.checkNanos());
+    }
+
+    @Test
+    void testPerAddress() {
+        LatencyModel model = LatencyModel.perAddress(5, 7);
+        assertEquals(5, model.writeNanos(0, 1));
+        assertEquals(7, model.writeNanos(1, 0));
+        // rejected writes out of the buffer take no time
+        assertEquals(0, model.writeNanos(2, 0));
+        assertEquals(0, model.writeNanos(-1, 0));
+    }
+
+    @Test
+    void testSampledIsReproducibleAndNonNegative() {
+        LatencyModel first = LatencyModel.normal(100, 1000, 42);
+        LatencyModel second = LatencyModel.normal(100, 1000, 42);
+        for (int i = 0; i < 1000; i++) {
+            long latency = first.writeNanos(0, 0);
+            assertEquals(latency, second.writeNanos(0, 0));
+            assertTrue(latency >= 0);
+        }
+    }
+
+    @Test
+    void testExponentialMean() {
+        LatencyModel model = LatencyModel.exponential(1_000_000, 7);
+        long sum = 0;
+        for (int i = 0; i < 100_000; i++) {
+            sum += model.writeNanos(0, 0);
+        }
+        assertEquals(1_000_000, sum / 100_000, 20_000);
+    }
+
+    @Test
+    void testTraceReplayedCyclically() throws IOException {
+        Path trace = Files.createTempFile("latency", ".trace");
+        try {
+            Files.write(trace, Arrays.asList("# write latency ms", "1", "", "2.5"), StandardCharsets.UTF_8);
+            LatencyModel model = LatencyModel.fromTrace(trace);
+            assertEquals(1_000_000, model.writeNanos(0, 0));
+            assertEquals(2_500_000, model.writeNanos(1, 0));
+            assertEquals(1_000_000, model.writeNanos(2, 0));
+        } finally {
+            Files.delete(trace);
+        }
+    }
+
+    @Test
+    void testRejectEmptyTrace() {
+        assertThrows(IllegalArgumentException.class, LatencyModel::replay);
+    }
+}
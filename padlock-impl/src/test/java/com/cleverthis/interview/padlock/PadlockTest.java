@@ -2,6 +2,12 @@ package com.cleverthis.interview.padlock;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class PadlockTest {
@@ -72,4 +78,192 @@ class PadlockTest {
         assertThrows(IllegalArgumentException.class, () -> padlock.writeInputBuffer(-1, 50));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testVirtualClockAccountsWriteLatency() {
+        VirtualClock clock = new VirtualClock();
+        PadlockImpl padlock = new PadlockImpl(5, LatencyModel.perAddress(10, 20, 30, 40, 50), clock);
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            padlock.writeInputBuffer(i, i);
+        }
+        padlock.isPasscodeCorrect();
+        // every write is accounted, the check is free
+        assertEquals(150, clock.elapsedNanos());
+        assertSame(clock, padlock.getClock());
+        // nothing really waited
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+    }
+
+    @Test
+    void testRejectMissingLatencyModelOrClock() {
+        assertThrows(NullPointerException.class, () -> new PadlockImpl(5, null, new VirtualClock()));
+        assertThrows(NullPointerException.class, () -> new PadlockImpl(5, LatencyModel.DEFAULT, null));
+    }
+
+    @Test
+    void testIncrementalCheckMatchesFullValidation() {
+        PadlockImpl padlock = new PadlockImpl(4, LatencyModel.fixed(0), new VirtualClock());
+        // find the passcode by trying all permutations
+        int[] passcode = null;
+        int[][] permutations = {{0, 1, 2, 3}, {0, 1, 3, 2}, {0, 2, 1, 3}, {0, 2, 3, 1}, {0, 3, 1, 2}, {0, 3, 2, 1},
+                {1, 0, 2, 3}, {1, 0, 3, 2}, {1, 2, 0, 3}, {1, 2, 3, 0}, {1, 3, 0, 2}, {1, 3, 2, 0},
+                {2, 0, 1, 3}, {2, 0, 3, 1}, {2, 1, 0, 3}, {2, 1, 3, 0}, {2, 3, 0, 1}, {2, 3, 1, 0},
+                {3, 0, 1, 2}, {3, 0, 2, 1}, {3, 1, 0, 2}, {3, 1, 2, 0}, {3, 2, 0, 1}, {3, 2, 1, 0}};
+        for (int[] permutation : permutations) {
+            for (int i = 0; i < 4; i++) {
+                padlock.writeInputBuffer(i, permutation[i]);
+            }
+            if (padlock.isPasscodeCorrect()) passcode = permutation;
+        }
+        assertNotNull(passcode);
+        // random writes, the padlock must behave as the full validation of the written buffer
+        Integer[] buffer = new Integer[4];
+        for (int i = 0; i < 4; i++) {
+            buffer[i] = permutations[23][i];
+        }
+        Random random = new Random(7);
+        for (int step = 0; step < 10_000; step++) {
+            int address = random.nextInt(4);
+            int keyIndex = random.nextInt(4);
+            assertEquals(buffer[address], padlock.writeInputBuffer(address, keyIndex));
+            buffer[address] = keyIndex;
+            String expectedError = null;
+            boolean[] seen = new boolean[4];
+            for (Integer value : buffer) {
+                if (seen[value]) {
+                    expectedError = "Passcode invalid: contain duplicated value. " + Arrays.toString(buffer);
+                    break;
+                }
+                seen[value] = true;
+            }
+            if (expectedError != null) {
+                IllegalStateException thrown = assertThrows(IllegalStateException.class, padlock::isPasscodeCorrect);
+                assertEquals(expectedError, thrown.getMessage());
+            } else {
+                boolean expected = true;
+                for (int i = 0; i < 4; i++) {
+                    expected &= buffer[i] == passcode[i];
+                }
+                assertEquals(expected, padlock.isPasscodeCorrect());
+            }
+        }
+    }
+
+    @Test
+    void testUninitializedMessage() {
+        PadlockImpl padlock = new PadlockImpl(3, LatencyModel.fixed(0), new VirtualClock());
+        padlock.writeInputBuffer(0, 2);
+        padlock.writeInputBuffer(2, 2);
+        // uninitialized address comes before the duplicate one
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, padlock::isPasscodeCorrect);
+        assertEquals("Passcode invalid: contain uninitialized value. [2, null, 2]", thrown.getMessage());
+        assertEquals(0, padlock.getCheckCounter());
+    }
+
+    @Test
+    void testParallelLanesWriteDifferentAddressesConcurrently() throws InterruptedException {
+        LatchClock clock = new LatchClock(4);
+        PadlockImpl padlock = new PadlockImpl(4, LatencyModel.fixed(1), clock, true);
+        Thread[] writers = new Thread[4];
+        for (int i = 0; i < 4; i++) {
+            final int address = i;
+            writers[i] = new Thread(() -> padlock.writeInputBuffer(address, address));
+        }
+        for (Thread writer : writers) writer.start();
+        // the serial padlock lets one write at a time into its latency
+        assertTrue(clock.entered.await(10, TimeUnit.SECONDS), "all four writes should be in flight at once");
+        clock.released.countDown();
+        for (Thread writer : writers) writer.join();
+        assertEquals(4, padlock.getWriteCounter());
+        assertDoesNotThrow(padlock::isPasscodeCorrect);
+    }
+
+    @Test
+    void testParallelLanesCheckWaitsForWriteInFlight() throws InterruptedException {
+        LatchClock clock = new LatchClock(1);
+        PadlockImpl padlock = new PadlockImpl(3, LatencyModel.perAddress(0, 0, 1), clock, true);
+        padlock.writeInputBuffer(new int[]{0, 1}, new int[]{0, 1});
+        Thread writer = new Thread(() -> padlock.writeInputBuffer(2, 2));
+        writer.start();
+        assertTrue(clock.entered.await(10, TimeUnit.SECONDS), "write should occupy its lane");
+        AtomicReference<RuntimeException> checkFailure = new AtomicReference<>();
+        Thread checker = new Thread(() -> {
+            try {
+                padlock.isPasscodeCorrect();
+            } catch (RuntimeException e) {
+                checkFailure.set(e);
+            }
+        });
+        checker.start();
+        // the check parks until the write in flight leaves its lane
+        Thread.State state;
+        while ((state = checker.getState()) != Thread.State.WAITING && state != Thread.State.TERMINATED) {
+            Thread.yield();
+        }
+        assertEquals(Thread.State.WAITING, state, "check should wait for the write in flight");
+        assertEquals(0, padlock.getCheckCounter());
+        clock.released.countDown();
+        writer.join();
+        checker.join();
+        // the check must see the write in flight finished, otherwise the address 2 would be uninitialized
+        assertNull(checkFailure.get());
+        assertEquals(1, padlock.getCheckCounter());
+    }
+
+    @Test
+    void testParallelLanesBatchTakesSlowestLane() {
+        VirtualClock lanesClock = new VirtualClock();
+        PadlockImpl lanes = new PadlockImpl(3, LatencyModel.perAddress(10, 20, 30), lanesClock, true);
+        VirtualClock serialClock = new VirtualClock();
+        PadlockImpl serial = new PadlockImpl(3, LatencyModel.perAddress(10, 20, 30), serialClock);
+        Integer[] oldValues = lanes.writeInputBuffer(new int[]{0, 1, 2, 0}, new int[]{1, 2, 0, 0});
+        serial.writeInputBuffer(new int[]{0, 1, 2, 0}, new int[]{1, 2, 0, 0});
+        // the address 0 lane is written twice
+        assertEquals(30, lanesClock.elapsedNanos());
+        assertEquals(70, serialClock.elapsedNanos());
+        assertArrayEquals(new Integer[]{null, null, null, 1}, oldValues);
+        assertEquals(4, lanes.getWriteCounter());
+        // the buffer is [0, 2, 0], duplicated
+        assertThrows(IllegalStateException.class, lanes::isPasscodeCorrect);
+    }
+
+    @Test
+    void testParallelLanesBatchValidatedFirst() {
+        PadlockImpl padlock = new PadlockImpl(3, LatencyModel.fixed(0), new VirtualClock(), true);
+        assertThrows(IllegalArgumentException.class, () -> padlock.writeInputBuffer(new int[]{0, 1}, new int[]{1, 3}));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> padlock.writeInputBuffer(new int[]{0, 3}, new int[]{1, 1}));
+        assertThrows(IllegalArgumentException.class, () -> padlock.writeInputBuffer(new int[]{0}, new int[]{1, 1}));
+        // nothing was written
+        assertEquals(0, padlock.getWriteCounter());
+        assertNull(padlock.writeInputBuffer(0, 0));
+    }
+
+    /**
+     * Clock holding every operation with a latency until released, so the test sees which ones are in flight at once.
+     */
+    private static final class LatchClock implements PadlockClock {
+        private final CountDownLatch entered;
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        LatchClock(int operations) {
+            this.entered = new CountDownLatch(operations);
+        }
+
+        @Override
+        public void advance(long nanos) {
+            if (nanos <= 0) return;
+            entered.countDown();
+            try {
+                // bounded, so a failed test does not leave the threads blocked
+                released.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public long elapsedNanos() {
+            return 0;
+        }
+    }
+}
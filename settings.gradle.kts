@@ -1,2 +1,3 @@
 rootProject.name = "padlock"
 include("padlock-impl")
+include("benchmarks")
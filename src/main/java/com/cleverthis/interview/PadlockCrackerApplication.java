@@ -1,19 +1,92 @@
 package com.cleverthis.interview;
 
+import com.cleverthis.interview.configuration.FleetManifest;
 import com.cleverthis.interview.configuration.PadlockConfiguration;
+import com.cleverthis.interview.domain.AdaptiveOrderStrategy;
+import com.cleverthis.interview.domain.CachedFirstStrategy;
+import com.cleverthis.interview.domain.CheckpointingStrategy;
+import com.cleverthis.interview.domain.CrackProgress;
+import com.cleverthis.interview.domain.CrackStrategy;
+import com.cleverthis.interview.domain.CrackStrategySelector;
 import com.cleverthis.interview.domain.IPadlock;
+import com.cleverthis.interview.domain.LatencyProfileStore;
 import com.cleverthis.interview.domain.PadlockBuilder;
 import com.cleverthis.interview.domain.PadlockCracker;
+import com.cleverthis.interview.domain.PasscodePrior;
+import com.cleverthis.interview.domain.PriorGuidedStrategy;
+import com.cleverthis.interview.domain.SolvedPasscodeCache;
+import com.cleverthis.interview.fleet.FleetResult;
+import com.cleverthis.interview.fleet.FleetSummary;
+import com.cleverthis.interview.fleet.PadlockFleet;
+import com.cleverthis.interview.metrics.MetricsPadlock;
+import com.cleverthis.interview.metrics.PadlockMetrics;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Entry point to the Padlock cracker tool that allows to configure the padlock from the external file or from the command line.
+ * With the {@value #FLEET_OPTION} option followed by the fleet manifest, it cracks all padlocks listed in the manifest at once.
  */
 public class PadlockCrackerApplication {
 
+    /**
+     * System property with the checkpoint file, e.g. -Dpadlock.checkpoint=padlock.checkpoint
+     * If defined, the crash-safe strategy is used and an interrupted crack resumes from the checkpoint on the next run.
+     */
+    public static final String CHECKPOINT_PROPERTY = "padlock.checkpoint";
+    /**
+     * System property with the number of writes between the checkpoints, e.g. -Dpadlock.checkpointInterval=64
+     */
+    public static final String CHECKPOINT_INTERVAL_PROPERTY = "padlock.checkpointInterval";
+    /**
+     * System property with the corpus of the previously recovered passcodes, e.g. -Dpadlock.prior=passcodes.txt
+     * If defined, the most likely passcodes are tried first, see {@link PriorGuidedStrategy}.
+     */
+    public static final String PRIOR_PROPERTY = "padlock.prior";
+    /**
+     * System property with the store of the address write latency profiles, e.g. -Dpadlock.latencyProfile=latency.properties
+     * If defined, the positions changing most often are mapped to the cheapest addresses, see {@link AdaptiveOrderStrategy}.
+     */
+    public static final String LATENCY_PROFILE_PROPERTY = "padlock.latencyProfile";
+    /**
+     * System property with the solved passcode cache, e.g. -Dpadlock.cache=padlock.cache
+     * If defined, the passcode recovered before for the same lock identity is tried first and new solutions are cached.
+     */
+    public static final String CACHE_PROPERTY = "padlock.cache";
+    /**
+     * System property with the maximum number of cached locks, e.g. -Dpadlock.cacheCapacity=1024
+     */
+    public static final String CACHE_CAPACITY_PROPERTY = "padlock.cacheCapacity";
+    /**
+     * System property enabling the padlock metrics, e.g. -Dpadlock.metrics=true
+     * If enabled, the latencies and rates are published by JMX and JFR while cracking, see {@link MetricsPadlock}.
+     */
+    public static final String METRICS_PROPERTY = "padlock.metrics";
+    /**
+     * System property with the seconds between the progress status lines, e.g. -Dpadlock.progressInterval=10
+     */
+    public static final String PROGRESS_INTERVAL_PROPERTY = "padlock.progressInterval";
+    /**
+     * Default seconds between the progress status lines.
+     */
+    public static final int DEFAULT_PROGRESS_INTERVAL = 10;
+    /**
+     * Command line option switching to the fleet mode, e.g. --fleet fleet-manifest.json
+     */
+    public static final String FLEET_OPTION = "--fleet";
+    /**
+     * System property with the maximum number of padlocks cracked at once in the fleet mode, e.g. -Dpadlock.fleetMaxInFlight=1024
+     */
+    public static final String FLEET_MAX_IN_FLIGHT_PROPERTY = "padlock.fleetMaxInFlight";
+
     private final Logger logger = Logger.getLogger(PadlockCrackerApplication.class.getName());
 
     /**
@@ -21,7 +94,11 @@ public class PadlockCrackerApplication {
      * @param argv CLI arguments
      */
     public static void main(String[] argv) {
-        new PadlockCrackerApplication().solution(argv);
+        if (argv.length > 1 && FLEET_OPTION.equals(argv[0])) {
+            new PadlockCrackerApplication().fleet(argv[1]);
+        } else {
+            new PadlockCrackerApplication().solution(argv);
+        }
     }
 
     /**
@@ -35,10 +112,39 @@ public class PadlockCrackerApplication {
         //
         final PadlockConfiguration padlockConfiguration = PadlockConfiguration.from(argv.length > 0 ? argv[0] : null);
         //
-        // Instantiate padlock instance from configuration and also padlock cracker algorithm
+        // Instantiate padlock instance from configuration and also padlock cracker algorithm,
+        // the strategy with the lowest expected time for this padlock is selected from the registered ones
+        // unless the crash-safe checkpointing, the prior guided search or the latency adaptive order is requested
         //
-        final IPadlock padlock = PadlockBuilder.newBuilder().withPadlockConfiguration(padlockConfiguration).build();
-        final PadlockCracker cracker = new PadlockCracker(padlock);
+        final IPadlock built = PadlockBuilder.newBuilder().withPadlockConfiguration(padlockConfiguration).build();
+        try {
+            if (Boolean.getBoolean(METRICS_PROPERTY)) {
+                try (MetricsPadlock metricsPadlock = new MetricsPadlock(built, padlockConfiguration.lockIdentity())) {
+                    this.crack(padlockConfiguration, metricsPadlock);
+                    this.reportMetrics(metricsPadlock.getMetrics());
+                }
+            } else {
+                this.crack(padlockConfiguration, built);
+            }
+        } finally {
+            // the remote padlocks hold a connection, a process or an HTTP client
+            if (built instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (IOException | RuntimeException closeException) {
+                    this.logger.log(Level.WARNING, "Failed to close the padlock", closeException);
+                }
+            }
+        }
+    }
+
+    private void crack(PadlockConfiguration padlockConfiguration, IPadlock padlock) {
+        final CrackStrategy strategy = this.cached(padlockConfiguration, () -> this.strategy(padlockConfiguration, padlock));
+        if (this.logger.isLoggable(Level.INFO)) {
+            this.logger.info("Using crack strategy: %s".formatted(strategy.getName()));
+        }
+        final PadlockCracker cracker = new PadlockCracker(padlock, strategy).withProgressListener(this::reportProgress,
+                Duration.ofSeconds(Integer.getInteger(PROGRESS_INTERVAL_PROPERTY, DEFAULT_PROGRESS_INTERVAL)));
         //
         // Report the result
         //
@@ -52,4 +158,113 @@ public class PadlockCrackerApplication {
             this.logger.warning("No solution!");
         }
     }
+
+    private void reportMetrics(PadlockMetrics metrics) {
+        if (this.logger.isLoggable(Level.INFO)) {
+            this.logger.info("Write latency p50/p99/p999: %.1f/%.1f/%.1f us, check latency p50/p99/p999: %.1f/%.1f/%.1f us"
+                    .formatted(metrics.getWriteP50Micros(), metrics.getWriteP99Micros(), metrics.getWriteP999Micros(),
+                            metrics.getCheckP50Micros(), metrics.getCheckP99Micros(), metrics.getCheckP999Micros()));
+        }
+    }
+
+    /**
+     * Prints the status line of the running crack, the finished crack is reported by the result.
+     */
+    private void reportProgress(CrackProgress progress) {
+        if (!progress.finished() && this.logger.isLoggable(Level.INFO)) {
+            this.logger.info("Progress: %.2f%% (%d of %d candidates), %d writes, %.1f candidates/s, write latency %.3f ms, ETA %s"
+                    .formatted(100 * progress.fraction(), progress.candidatesTried(), progress.candidateCount(),
+                            progress.writes(), progress.candidatesPerSecond(), progress.writeLatency().toNanos() / 1e6,
+                            progress.remaining() != null ? format(progress.remaining()) : "unknown"));
+        }
+    }
+
+    private static String format(Duration duration) {
+        return "%dd %02dh %02dm %02ds".formatted(duration.toDays(), duration.toHoursPart(), duration.toMinutesPart(),
+                duration.toSecondsPart());
+    }
+
+    private CrackStrategy strategy(PadlockConfiguration padlockConfiguration, IPadlock padlock) {
+        final String checkpointFile = System.getProperty(CHECKPOINT_PROPERTY);
+        if (checkpointFile != null) {
+            return new CheckpointingStrategy(Path.of(checkpointFile),
+                    Integer.getInteger(CHECKPOINT_INTERVAL_PROPERTY, CheckpointingStrategy.DEFAULT_CHECKPOINT_INTERVAL));
+        }
+        final String priorFile = System.getProperty(PRIOR_PROPERTY);
+        if (priorFile != null) {
+            try {
+                return new PriorGuidedStrategy(PasscodePrior.fromFile(Path.of(priorFile), padlock.getNumpadSize()));
+            } catch (IOException priorException) {
+                this.logger.log(Level.WARNING, "Failed to read the passcode corpus " + priorFile, priorException);
+            }
+        }
+        final String latencyProfileFile = System.getProperty(LATENCY_PROFILE_PROPERTY);
+        if (latencyProfileFile != null) {
+            final String model = "%s-%d".formatted(padlockConfiguration.accessType(), padlockConfiguration.padlockKeypadSize());
+            return new AdaptiveOrderStrategy(model, new LatencyProfileStore(Path.of(latencyProfileFile)));
+        }
+        return CrackStrategySelector.fromServiceLoader().select(padlock);
+    }
+
+    /**
+     * The strategy is built only when the cache cannot open the lock, since building it may read the corpus or profile files.
+     */
+    private CrackStrategy cached(PadlockConfiguration padlockConfiguration, Supplier<CrackStrategy> strategy) {
+        final String cacheFile = System.getProperty(CACHE_PROPERTY);
+        if (cacheFile == null) {
+            return strategy.get();
+        }
+        if (!padlockConfiguration.hasPersistentIdentity()) {
+            if (this.logger.isLoggable(Level.INFO)) {
+                this.logger.info("Padlock %s gets a new passcode on every run, the solved passcode cache is not used"
+                        .formatted(padlockConfiguration.lockIdentity()));
+            }
+            return strategy.get();
+        }
+        try {
+            final SolvedPasscodeCache cache = SolvedPasscodeCache.open(Path.of(cacheFile),
+                    Integer.getInteger(CACHE_CAPACITY_PROPERTY, SolvedPasscodeCache.DEFAULT_CAPACITY));
+            return new CachedFirstStrategy(strategy, cache, padlockConfiguration.lockIdentity());
+        } catch (IOException cacheException) {
+            this.logger.log(Level.WARNING, "Failed to open the solved passcode cache " + cacheFile, cacheException);
+            return strategy.get();
+        }
+    }
+
+    /**
+     * Cracks all padlocks of the fleet manifest concurrently, reports each result as soon as the padlock is solved
+     * and the overall throughput at the end. The manifest is streamed, the padlocks are dispatched while it is parsed
+     * and the parsing waits while {@value #FLEET_MAX_IN_FLIGHT_PROPERTY} padlocks are being cracked.
+     *
+     * @param manifest the fleet manifest, class path resource or file name
+     */
+    private void fleet(String manifest) {
+        try (FleetManifest fleetManifest = FleetManifest.open(manifest)) {
+            final FleetSummary summary = new PadlockFleet(CrackStrategySelector.fromServiceLoader()::select,
+                    Integer.getInteger(FLEET_MAX_IN_FLIGHT_PROPERTY, PadlockFleet.DEFAULT_MAX_IN_FLIGHT))
+                    .crack(fleetManifest, this::reportFleetResult);
+            if (this.logger.isLoggable(Level.INFO)) {
+                this.logger.info("Fleet done: %d padlocks, %d cracked, %d failed, %d writes in %.3fs (%.2f padlocks/s)"
+                        .formatted(summary.locks(), summary.solved(), summary.failed(), summary.writes(),
+                                summary.elapsed().toNanos() / 1e9, summary.throughput()));
+            }
+        } catch (IOException | UncheckedIOException manifestException) {
+            this.logger.log(Level.SEVERE, "Failed to read the fleet manifest " + manifest, manifestException);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            this.logger.warning("Fleet crack interrupted");
+        }
+    }
+
+    private void reportFleetResult(FleetResult result) {
+        if (result.isSolved()) {
+            if (this.logger.isLoggable(Level.INFO)) {
+                this.logger.info("Padlock #%d cracked by %s in %d writes: %s"
+                        .formatted(result.index(), result.strategy(), result.writes(), Arrays.toString(result.solution())));
+            }
+        } else if (this.logger.isLoggable(Level.WARNING)) {
+            this.logger.warning("Padlock #%d not cracked: %s".formatted(result.index(),
+                    result.failure() != null ? result.failure().getMessage() : "No solution!"));
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package com.cleverthis.interview.configuration;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The fleet manifest - JSON array of padlock configurations - read incrementally by the streaming JsonParser.
+ * Only the configuration being parsed is held in memory, so a manifest of any size can be iterated, and the consumer
+ * (e.g. the PadlockFleet) can dispatch the first padlocks while the rest of the manifest is still being read.
+ * The manifest can be iterated only once; a parse error found during the iteration is thrown as UncheckedIOException.
+ */
+public final class FleetManifest implements Iterable<PadlockConfiguration>, Closeable {
+
+    private static final ObjectReader configurationReader = PadlockConfiguration.MAPPER.readerFor(PadlockConfiguration.class);
+
+    private final JsonParser parser;
+    private boolean iterated;
+
+    private FleetManifest(JsonParser parser) throws IOException {
+        this.parser = parser;
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IOException("Fleet manifest must be a JSON array of padlock configurations");
+        }
+    }
+
+    /**
+     * Opens the fleet manifest, only the opening of the array is read.
+     *
+     * @param manifest the class path resource or the file name of the manifest
+     * @return the manifest to be iterated and closed
+     * @throws IOException if the manifest cannot be opened or is not a JSON array
+     */
+    public static FleetManifest open(String manifest) throws IOException {
+        final URL resource = PadlockConfiguration.class.getResource(manifest);
+        if (resource != null) {
+            return new FleetManifest(PadlockConfiguration.MAPPER.createParser(resource));
+        }
+        return new FleetManifest(PadlockConfiguration.MAPPER.createParser(Path.of(manifest).toFile()));
+    }
+
+    /**
+     * @return the iterator parsing the next configuration on demand
+     * @throws IllegalStateException if the manifest was already iterated
+     */
+    @Override
+    public synchronized Iterator<PadlockConfiguration> iterator() {
+        if (this.iterated) {
+            throw new IllegalStateException("Fleet manifest can be iterated only once");
+        }
+        this.iterated = true;
+        return new Iterator<>() {
+            private PadlockConfiguration next;
+            private boolean finished;
+
+            @Override
+            public boolean hasNext() {
+                if (this.next == null && !this.finished) {
+                    this.next = FleetManifest.this.readNext();
+                    this.finished = this.next == null;
+                }
+                return this.next != null;
+            }
+
+            @Override
+            public PadlockConfiguration next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final PadlockConfiguration configuration = this.next;
+                this.next = null;
+                return configuration;
+            }
+        };
+    }
+
+    /**
+     * @return the next configuration of the array, null at its end
+     */
+    private PadlockConfiguration readNext() {
+        try {
+            final JsonToken token = this.parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected %s in the fleet manifest at %s".formatted(token, this.parser.currentLocation()));
+            }
+            return configurationReader.readValue(this.parser);
+        } catch (IOException parseException) {
+            throw new UncheckedIOException(parseException);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.parser.close();
+    }
+}
@@ -3,7 +3,10 @@ package com.cleverthis.interview.configuration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -13,11 +16,16 @@ import java.util.logging.Logger;
  * @param padlockKeypadSize define the padlock keypad size. Defaults to 4,
  * @param instanceType Optional. Allows to specify a constructor for custom build of a Padlock if none of the predefined
  *                     implementation types does not instantiate the required padlock access type. Defaults to null.
+ * @param lockId Optional. Identity of the physical lock, e.g. its serial number, used as the key of the solved passcode cache.
+ *               Defaults to null, then the lock is identified by the rest of its configuration, see {@link #lockIdentity()}.
+ * @param endpoint Optional. The remote padlock endpoint, required by the REST access type. Defaults to null.
  */
 public record PadlockConfiguration(
         PadlockAccessType accessType,
         int padlockKeypadSize,
-        PadlockInstanceType instanceType
+        PadlockInstanceType instanceType,
+        String lockId,
+        PadlockEndpoint endpoint
 ) {
     /**
      * Nested record to allow defining the constructor parameters of the custom class for the Padlock builder.
@@ -30,10 +38,42 @@ public record PadlockConfiguration(
     public record PadlockInstanceType(String type, PadlockInstanceType value, String literal) {
     }
 
+    /**
+     * Nested record with the connection parameters of the remote padlock.
+     * See padlock-configuration-rest.json resource file.
+     *
+     * @param uri            the padlock base URI, e.g. http://localhost:8080/padlock, required by REST and SOCKET access types
+     * @param maxConcurrency Optional. Maximum number of requests in flight. Defaults to 1.
+     * @param timeoutMillis  Optional. Connect and request timeout in milliseconds. Defaults to 30 seconds.
+     * @param command        the command line of the padlock tool, required by the CLI access type.
+     *                       See padlock-configuration-cli.json resource file.
+     */
+    public record PadlockEndpoint(String uri, Integer maxConcurrency, Long timeoutMillis, List<String> command) {
+
+        /**
+         * Endpoint of the network padlock.
+         */
+        public PadlockEndpoint(String uri, Integer maxConcurrency, Long timeoutMillis) {
+            this(uri, maxConcurrency, timeoutMillis, null);
+        }
+    }
+
+    /**
+     * Configuration of the lock without the explicit identity.
+     */
+    public PadlockConfiguration(PadlockAccessType accessType, int padlockKeypadSize, PadlockInstanceType instanceType) {
+        this(accessType, padlockKeypadSize, instanceType, null, null);
+    }
+
     public static final String PADLOCK_DEFAULT_CONFIGURATION = "/padlock-configuration.json";
     public static final int PADLOCK_DEFAULT_KEYPAD_SIZE = 4;
     public static final PadlockAccessType PADLOCK_DEFAULT_ACCESS_TYPE = PadlockAccessType.JAVA;
     private static final Logger logger = Logger.getLogger(PadlockConfiguration.class.getName());
+    /**
+     * The mapper shared by all configuration readers, it is thread-safe once configured and its deserializers are
+     * built only once.
+     */
+    static final ObjectMapper MAPPER = new ObjectMapper();
 
     /**
      * Reads the padlock configuration from JSON format file. Uses the default config file if no command line argument is given.
@@ -48,9 +88,8 @@ public record PadlockConfiguration(
                 //
                 // read the default JSON config
                 //
-                final ObjectMapper configMapper = new ObjectMapper();
                 URL resource = PadlockConfiguration.class.getResource(PADLOCK_DEFAULT_CONFIGURATION);
-                return configMapper.readValue(resource, PadlockConfiguration.class);
+                return MAPPER.readValue(resource, PadlockConfiguration.class);
             }
         } catch (IOException configurationException) {
             if (logger.isLoggable(Level.SEVERE)) {
@@ -76,8 +115,7 @@ public record PadlockConfiguration(
         try {
             URL resource = PadlockConfiguration.class.getResource(cfgArgument);
             if (resource != null) {
-                final ObjectMapper configMapper = new ObjectMapper();
-                return configMapper.readValue(resource, PadlockConfiguration.class);
+                return MAPPER.readValue(resource, PadlockConfiguration.class);
             }
             keypadSize = Integer.parseInt(cfgArgument);
         } catch (IOException | NumberFormatException cfgException) {
@@ -106,4 +144,55 @@ public record PadlockConfiguration(
         //
         return new PadlockConfiguration(PADLOCK_DEFAULT_ACCESS_TYPE, keypadSize, null);
     }
+
+    /**
+     * @return the lockId if configured, otherwise the identity derived from the access type, keypad size, endpoint
+     * (URI or tool command) and instance type
+     */
+    public String lockIdentity() {
+        if (this.hasLockId()) {
+            return this.lockId;
+        }
+        final StringBuilder identity = new StringBuilder("%s-%d".formatted(this.accessType, this.padlockKeypadSize));
+        if (this.endpoint != null && this.endpoint.uri() != null) {
+            identity.append('-').append(this.endpoint.uri());
+        }
+        if (this.endpoint != null && this.endpoint.command() != null) {
+            identity.append('-').append(String.join(" ", this.endpoint.command()));
+        }
+        if (this.instanceType != null) {
+            identity.append('-').append(this.instanceType);
+        }
+        return identity.toString();
+    }
+
+    /**
+     * @return true if the {@link #lockIdentity()} names the same lock on every run, so its solved passcode can be
+     * cached. The in-process JAVA padlock gets a new passcode on every run, so it is persistent only with the lockId.
+     */
+    public boolean hasPersistentIdentity() {
+        return this.hasLockId() || this.accessType != PadlockAccessType.JAVA;
+    }
+
+    private boolean hasLockId() {
+        return this.lockId != null && !this.lockId.isBlank();
+    }
+
+    /**
+     * Reads the whole fleet manifest - JSON array of padlock configurations. For large manifests prefer
+     * {@link FleetManifest#open(String)}, which parses the configurations one by one as they are consumed.
+     *
+     * @param manifest the class path resource or the file name of the manifest
+     * @return the list of the padlock configurations in the manifest order
+     * @throws IOException if the manifest cannot be read or parsed
+     */
+    public static List<PadlockConfiguration> fromFleetManifest(String manifest) throws IOException {
+        try (FleetManifest fleetManifest = FleetManifest.open(manifest)) {
+            final List<PadlockConfiguration> configurations = new ArrayList<>();
+            fleetManifest.forEach(configurations::add);
+            return configurations;
+        } catch (UncheckedIOException parseException) {
+            throw parseException.getCause();
+        }
+    }
 }
@@ -0,0 +1,190 @@
+package com.cleverthis.interview.configuration;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caches the padlock configurations of a directory, one configuration per *.json file, named by the file name without
+ * the extension. The directory is watched by the WatchService: a created or modified file is parsed again and replaces
+ * its entry, a deleted file removes it, so the configurations can be changed without restarting the JVM. When the events
+ * overflow, the directory is read again and the entries of the files no longer listed are removed.
+ * A file failing to parse (e.g. caught in the middle of being written) keeps the previous entry until the next change.
+ */
+public final class PadlockConfigurationRegistry implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(PadlockConfigurationRegistry.class.getName());
+    private static final String CONFIGURATION_SUFFIX = ".json";
+
+    private final Path directory;
+    private final Map<String, PadlockConfiguration> configurations = new ConcurrentHashMap<>();
+    private final List<BiConsumer<String, PadlockConfiguration>> listeners = new CopyOnWriteArrayList<>();
+    private final WatchService watchService;
+    private final Thread watcher;
+
+    private PadlockConfigurationRegistry(Path directory) throws IOException {
+        this.directory = directory;
+        this.watchService = directory.getFileSystem().newWatchService();
+        directory.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        this.reloadAll();
+        this.watcher = new Thread(this::watch, "padlock-configuration-registry");
+        this.watcher.setDaemon(true);
+        this.watcher.start();
+    }
+
+    /**
+     * Loads all configurations of the directory and starts watching it.
+     *
+     * @param directory the directory with the *.json configuration files
+     * @return the registry to be closed when no longer needed
+     * @throws IOException if the directory cannot be watched
+     */
+    public static PadlockConfigurationRegistry open(Path directory) throws IOException {
+        return new PadlockConfigurationRegistry(directory);
+    }
+
+    /**
+     * @param name the configuration file name without the extension
+     * @return the last successfully parsed configuration of the file
+     */
+    public Optional<PadlockConfiguration> get(String name) {
+        return Optional.ofNullable(this.configurations.get(name));
+    }
+
+    /**
+     * @return the snapshot of all configurations by their names
+     */
+    public Map<String, PadlockConfiguration> getConfigurations() {
+        return Map.copyOf(this.configurations);
+    }
+
+    /**
+     * Registers the listener of the reloaded entries, called on the watcher thread.
+     *
+     * @param listener receives the name and the new configuration of the entry, null configuration if it was removed
+     */
+    public void addListener(BiConsumer<String, PadlockConfiguration> listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Stops watching the directory, the cached configurations stay available.
+     */
+    @Override
+    public void close() throws IOException {
+        this.watchService.close();
+        try {
+            this.watcher.join();
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                final WatchKey key = this.watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // some events were lost, the directory has to be read again
+                        this.reloadAll();
+                    } else if (event.context() instanceof Path file && isConfigurationFile(file)) {
+                        if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                            this.remove(nameOf(file));
+                        } else {
+                            this.reload(file);
+                        }
+                    }
+                }
+                if (!key.reset()) {
+                    logger.warning("Configuration directory %s is no longer accessible".formatted(this.directory));
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException closed) {
+            // registry closed
+        }
+    }
+
+    /**
+     * Reloads every file of the directory and removes the entries whose files are gone.
+     */
+    void reloadAll() {
+        final Set<String> listed = new HashSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "*" + CONFIGURATION_SUFFIX)) {
+            for (Path file : files) {
+                listed.add(nameOf(file));
+                this.reload(file.getFileName());
+            }
+        } catch (IOException listException) {
+            logger.log(Level.WARNING, "Failed to list the configuration directory " + this.directory, listException);
+            return;
+        }
+        for (String name : this.configurations.keySet()) {
+            if (!listed.contains(name)) {
+                this.remove(name);
+            }
+        }
+    }
+
+    private void reload(Path file) {
+        final String name = nameOf(file);
+        final PadlockConfiguration configuration;
+        try {
+            configuration = PadlockConfiguration.MAPPER.readValue(this.directory.resolve(file).toFile(), PadlockConfiguration.class);
+        } catch (IOException parseException) {
+            if (logger.isLoggable(Level.WARNING)) {
+                logger.warning("Failed to reload the padlock configuration %s, keeping the previous one: %s"
+                        .formatted(file, parseException.getMessage()));
+            }
+            return;
+        }
+        if (!configuration.equals(this.configurations.put(name, configuration))) {
+            this.notifyListeners(name, configuration);
+        }
+    }
+
+    private void remove(String name) {
+        if (this.configurations.remove(name) != null) {
+            this.notifyListeners(name, null);
+        }
+    }
+
+    private void notifyListeners(String name, PadlockConfiguration configuration) {
+        for (BiConsumer<String, PadlockConfiguration> listener : this.listeners) {
+            try {
+                listener.accept(name, configuration);
+            } catch (RuntimeException listenerException) {
+                // a failing listener must not stop the watcher
+                logger.log(Level.WARNING, "Padlock configuration listener failed on " + name, listenerException);
+            }
+        }
+    }
+
+    private static boolean isConfigurationFile(Path file) {
+        return file.getFileName().toString().endsWith(CONFIGURATION_SUFFIX);
+    }
+
+    private static String nameOf(Path file) {
+        final String fileName = file.getFileName().toString();
+        return fileName.substring(0, fileName.length() - CONFIGURATION_SUFFIX.length());
+    }
+}
@@ -0,0 +1,208 @@
+package com.cleverthis.interview.domain;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Minimal-change walk with the positions mapped to the input buffer addresses by their write latency.
+ * Heap's algorithm changes the lowest positions most often (position 0 in every step, the highest one only
+ * (numpadSize - 1)! times), so the cheapest address gets position 0 and the most expensive one the highest position.
+ * <p>
+ * Unless the latency profile of the padlock model is already stored, the walk starts in the identity mapping and times
+ * the first {@link LatencyProfilingPadlock#DEFAULT_SAMPLE_LIMIT} writes. Then the profile is stored and the walk restarts
+ * in the tuned mapping. The candidates already checked during the profiling are neither written nor checked again,
+ * their changes are merged into the writes of the next new candidate.
+ */
+public class AdaptiveOrderStrategy implements CrackStrategy {
+
+    private static final Logger logger = Logger.getLogger(AdaptiveOrderStrategy.class.getName());
+    private static final int UNKNOWN = -1;
+
+    private final String model;
+    private final LatencyProfileStore store;
+    private final int sampleLimit;
+
+    /**
+     * Strategy profiling the padlock on every crack.
+     */
+    public AdaptiveOrderStrategy() {
+        this(null, null);
+    }
+
+    /**
+     * @param model the padlock model name, the key of the stored profile
+     * @param store the store of the latency profiles
+     */
+    public AdaptiveOrderStrategy(String model, LatencyProfileStore store) {
+        this(model, store, LatencyProfilingPadlock.DEFAULT_SAMPLE_LIMIT);
+    }
+
+    /**
+     * @param model       the padlock model name, the key of the stored profile
+     * @param store       the store of the latency profiles
+     * @param sampleLimit the number of timed writes when the profile is not stored yet
+     */
+    public AdaptiveOrderStrategy(String model, LatencyProfileStore store, int sampleLimit) {
+        this.model = model;
+        this.store = store;
+        this.sampleLimit = sampleLimit;
+    }
+
+    @Override
+    public String getName() {
+        return "adaptive-order";
+    }
+
+    @Override
+    public double expectedWrites(int numpadSize) {
+        return numpadSize + 2 * (this.expectedChecks(numpadSize) - 1);
+    }
+
+    @Override
+    public double expectedChecks(int numpadSize) {
+        return (CrackStrategy.permutationCount(numpadSize) + 1) / 2;
+    }
+
+    @Override
+    public int[] crack(IPadlock padlock) {
+        final int numpadSize = padlock.getNumpadSize();
+        AddressLatencyProfile profile = this.store != null ? this.store.load(this.model, numpadSize).orElse(null) : null;
+        final Set<Long> tried = new HashSet<>();
+        // input buffer contents known to be in the padlock, shared by both walks
+        final int[] device = new int[numpadSize];
+        Arrays.fill(device, UNKNOWN);
+        if (profile == null) {
+            final LatencyProfilingPadlock profiler = new LatencyProfilingPadlock(padlock, this.sampleLimit);
+            final int[] identity = new int[numpadSize];
+            for (int address = 0; address < numpadSize; address++) {
+                identity[address] = address;
+            }
+            final Walk profilingWalk = new Walk(profiler, identity, tried, device, true);
+            final CrackPhaseEvent profiling = CrackPhaseEvent.start(this.getName(), "profiling");
+            final boolean solvedWhileProfiling = profilingWalk.run(profiler);
+            profiling.end(solvedWhileProfiling);
+            if (solvedWhileProfiling) {
+                return profilingWalk.buffer;
+            }
+            profile = profiler.getProfile();
+            if (this.store != null) {
+                this.store.save(this.model, profile);
+            }
+        }
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Address write latency profile of %s: %s".formatted(this.model, profile));
+        }
+        final Walk walk = new Walk(padlock, profile.cheapestFirst(), tried, device, false);
+        final CrackPhaseEvent search = CrackPhaseEvent.start(this.getName(), "search");
+        final boolean solved = walk.run(null);
+        search.end(solved);
+        return solved ? walk.buffer : null;
+    }
+
+    /**
+     * Heap's algorithm walk with the positions mapped to the addresses.
+     */
+    private static final class Walk {
+        private final IPadlock padlock;
+        private final int[] addressOf;
+        private final Set<Long> tried;
+        private final boolean recording;
+        private final PermutationSpace space;
+        private final int[] permutation;
+        private final int[] buffer;
+        private final int[] device;
+        private final boolean[] dirty;
+        private final int[] dirtyAddresses;
+        private int dirtyCount;
+        private final WriteBatch batch;
+
+        Walk(IPadlock padlock, int[] addressOf, Set<Long> tried, int[] device, boolean recording) {
+            final int numpadSize = padlock.getNumpadSize();
+            this.padlock = padlock;
+            this.addressOf = addressOf;
+            this.tried = tried;
+            this.recording = recording;
+            this.space = recording || !tried.isEmpty() ? new PermutationSpace(numpadSize) : null;
+            this.permutation = new int[numpadSize];
+            this.buffer = new int[numpadSize];
+            this.device = device;
+            this.dirty = new boolean[numpadSize];
+            this.dirtyAddresses = new int[numpadSize];
+            this.batch = new WriteBatch(numpadSize);
+        }
+
+        /**
+         * @param profiler the profiler whose completion stops the walk, or null to walk the complete space
+         * @return true if the padlock accepted the buffer
+         */
+        boolean run(LatencyProfilingPadlock profiler) {
+            final int numpadSize = this.permutation.length;
+            for (int position = 0; position < numpadSize; position++) {
+                this.permutation[position] = position;
+                this.write(position);
+            }
+            if (this.check()) {
+                return true;
+            }
+            final int[] counters = new int[numpadSize];
+            int level = 1;
+            while (level < numpadSize && (profiler == null || !profiler.isComplete())) {
+                if (counters[level] < level) {
+                    final int other = (level % 2 == 0) ? 0 : counters[level];
+                    final int key = this.permutation[other];
+                    this.permutation[other] = this.permutation[level];
+                    this.permutation[level] = key;
+                    this.write(other);
+                    this.write(level);
+                    if (this.check()) {
+                        return true;
+                    }
+                    counters[level]++;
+                    level = 1;
+                } else {
+                    counters[level] = 0;
+                    level++;
+                }
+            }
+            return false;
+        }
+
+        private void write(int position) {
+            final int address = this.addressOf[position];
+            this.buffer[address] = this.permutation[position];
+            if (!this.dirty[address]) {
+                this.dirty[address] = true;
+                this.dirtyAddresses[this.dirtyCount++] = address;
+            }
+        }
+
+        /**
+         * Write the addresses changed since the last checked candidate and differing from the padlock, then check.
+         * The candidate checked while profiling is skipped, its changes stay pending for the next candidate.
+         */
+        private boolean check() {
+            if (this.space != null) {
+                final long rank = this.space.rank(this.buffer);
+                if (this.recording) {
+                    this.tried.add(rank);
+                } else if (this.tried.contains(rank)) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < this.dirtyCount; i++) {
+                final int address = this.dirtyAddresses[i];
+                this.dirty[address] = false;
+                if (this.device[address] != this.buffer[address]) {
+                    this.batch.add(address, this.buffer[address]);
+                    this.device[address] = this.buffer[address];
+                }
+            }
+            this.dirtyCount = 0;
+            this.batch.flush(this.padlock);
+            return this.padlock.isPasscodeCorrect();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.cleverthis.interview.domain;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Measured write latency of each input buffer address of one padlock model.
+ *
+ * @param writeNanos average duration of the write to each address in nanoseconds
+ */
+public record AddressLatencyProfile(double[] writeNanos) {
+
+    public AddressLatencyProfile {
+        writeNanos = writeNanos.clone();
+    }
+
+    @Override
+    public double[] writeNanos() {
+        return this.writeNanos.clone();
+    }
+
+    public int getNumpadSize() {
+        return this.writeNanos.length;
+    }
+
+    /**
+     * @return the addresses ordered from the cheapest to the most expensive one to write
+     */
+    public int[] cheapestFirst() {
+        return IntStream.range(0, this.writeNanos.length).boxed()
+                .sorted(Comparator.comparingDouble((Integer address) -> this.writeNanos[address]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AddressLatencyProfile profile && Arrays.equals(this.writeNanos, profile.writeNanos);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.writeNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "AddressLatencyProfile" + Arrays.toString(this.writeNanos);
+    }
+}
@@ -0,0 +1,100 @@
+package com.cleverthis.interview.domain;
+
+/**
+ * Recursive brute force strategy, tests all combinations in lexicographic order, varying the last position fastest.
+ * Stepping to a new branch rewrites every position below the changed depth, which is roughly e * numpadSize! writes
+ * for the exhaustive search.
+ */
+public class BruteForceStrategy implements CrackStrategy {
+
+    @Override
+    public String getName() {
+        return "brute-force";
+    }
+
+    /**
+     * The exhaustive search writes sum(n! / (n - k)!) for k = 1..n digits, on average half of it is needed.
+     */
+    @Override
+    public double expectedWrites(int numpadSize) {
+        double writes = 0;
+        double prefixes = 1;
+        for (int depth = 0; depth < numpadSize; depth++) {
+            prefixes *= numpadSize - depth;
+            writes += prefixes;
+        }
+        return writes / 2;
+    }
+
+    @Override
+    public double expectedChecks(int numpadSize) {
+        return (CrackStrategy.permutationCount(numpadSize) + 1) / 2;
+    }
+
+    @Override
+    public int[] crack(IPadlock padlock) {
+        final int numpadSize = padlock.getNumpadSize();
+
+        // Create an array with the digits applicable for our padlock
+        // Assume we can choose a digit in range 0-9, unless the keypad size is larger than 10
+        final int numDigits = Math.max(numpadSize, 10);
+        final int[] applicableDigits = new int[numDigits + 1];
+        for (int i = 0; i <= numDigits; i++) {
+            applicableDigits[i] = i;
+        }
+
+        // Generate permutations of the numbers
+        final boolean[] applied = new boolean[numDigits + 1];
+        final int[] currentPermutation = new int[numpadSize];
+        // the writes of each candidate are submitted as one batch right before the check
+        final WriteBatch batch = new WriteBatch(numpadSize);
+
+        // recursively try all available combination (brute force)
+        return backtrack(applicableDigits, applied, currentPermutation, batch, padlock, 0, 0, applicableDigits.length);
+    }
+
+    /**
+     * Recursive num-pad incrementing, allows to explore each combination at given depth, and all permutations on lower depth.
+     *
+     * @param applicableDigits   array with digits to use
+     * @param applied            flag to indicate that the digit and all permutations of following digits were already explored
+     * @param currentPermutation stores current permutation to be tested with the padlock
+     * @param batch              collects the writes of the current permutation not yet submitted to the padlock
+     * @param padlock            padlock accessor
+     * @param depth              current depth (at which digit we iterate)
+     * @param start              start range for the iteration (supplied from invoker for depth 0, otherwise 0)
+     * @param end                end range for the iteration  (supplied from invoker for depth 0, otherwise num of applicable digits)
+     * @return the correct permutation or null if permutation was rejected by the padlock
+     */
+    private int[] backtrack(final int[] applicableDigits,
+                            final boolean[] applied,
+                            final int[] currentPermutation,
+                            final WriteBatch batch,
+                            final IPadlock padlock,
+                            final int depth,
+                            final int start,
+                            final int end) {
+        boolean done = false;
+        // Test if we are ready to unlock
+        if (depth == currentPermutation.length) {
+            // The currentPermutation is now a complete input candidate
+            batch.flush(padlock);
+            if (padlock.isPasscodeCorrect()) {
+                return currentPermutation;
+            }
+            return null;
+        }
+
+        // iterate over all digits on the current position (value of 'depth' variable) and on all subsequent positions
+        for (int i = start; i < end && i < padlock.getNumpadSize() && !done; i++) {
+            if (!applied[i]) {
+                applied[i] = true;
+                currentPermutation[depth] = applicableDigits[i];
+                batch.add(depth, applicableDigits[i]);
+                done = backtrack(applicableDigits, applied, currentPermutation, batch, padlock, depth + 1, 0, applicableDigits.length) != null;
+                applied[i] = false; // Backtrack
+            }
+        }
+        return done ? currentPermutation : null;
+    }
+}
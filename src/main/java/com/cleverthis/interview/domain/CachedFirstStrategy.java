@@ -0,0 +1,116 @@
+package com.cleverthis.interview.domain;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tries the passcode cached for the lock first, so the lock cracked before opens with numpadSize writes and one check.
+ * On a miss, or when the cached passcode was changed, it falls back to the given strategy and caches its solution.
+ * The fallback may be supplied lazily, so a strategy which is costly to build (e.g. reading the passcode corpus or
+ * the latency profile) is only built on the cache miss.
+ */
+public class CachedFirstStrategy implements CrackStrategy {
+
+    private static final Logger logger = Logger.getLogger(CachedFirstStrategy.class.getName());
+
+    private final Supplier<? extends CrackStrategy> fallbackSupplier;
+    private final SolvedPasscodeCache cache;
+    private final String lockIdentity;
+    private CrackStrategy fallback;
+
+    /**
+     * @param fallback     the strategy used on the cache miss
+     * @param cache        the solved passcode cache
+     * @param lockIdentity the identity of the cracked lock, see PadlockConfiguration#lockIdentity()
+     */
+    public CachedFirstStrategy(CrackStrategy fallback, SolvedPasscodeCache cache, String lockIdentity) {
+        this(() -> fallback, cache, lockIdentity);
+        this.fallback = fallback;
+    }
+
+    /**
+     * @param fallbackSupplier builds the strategy used on the cache miss, it is not called on the cache hit
+     * @param cache            the solved passcode cache
+     * @param lockIdentity     the identity of the cracked lock, see PadlockConfiguration#lockIdentity()
+     */
+    public CachedFirstStrategy(Supplier<? extends CrackStrategy> fallbackSupplier, SolvedPasscodeCache cache, String lockIdentity) {
+        this.fallbackSupplier = fallbackSupplier;
+        this.cache = cache;
+        this.lockIdentity = lockIdentity;
+    }
+
+    /**
+     * @return "cached-" followed by the fallback name, or "cached-first" while the lazy fallback was not built yet
+     */
+    @Override
+    public synchronized String getName() {
+        return this.fallback != null ? "cached-" + this.fallback.getName() : "cached-first";
+    }
+
+    /**
+     * The cost queries neither change the cache recency nor build the lazy fallback: until the fallback is built,
+     * the miss is estimated as the minimal change walk, the cheapest complete walk.
+     */
+    @Override
+    public double expectedWrites(int numpadSize) {
+        return this.cache.contains(this.lockIdentity) ? numpadSize : this.missEstimate().expectedWrites(numpadSize);
+    }
+
+    @Override
+    public double expectedChecks(int numpadSize) {
+        return this.cache.contains(this.lockIdentity) ? 1 : this.missEstimate().expectedChecks(numpadSize);
+    }
+
+    @Override
+    public int[] crack(IPadlock padlock) {
+        final Optional<int[]> cached = this.cache.get(this.lockIdentity);
+        if (cached.isPresent() && cached.get().length == padlock.getNumpadSize()) {
+            final CrackPhaseEvent cachedPhase = CrackPhaseEvent.start(this.getName(), "cached");
+            final int[] passcode = cached.get();
+            final WriteBatch batch = new WriteBatch(passcode.length);
+            for (int address = 0; address < passcode.length; address++) {
+                batch.add(address, passcode[address]);
+            }
+            batch.flush(padlock);
+            final boolean accepted = padlock.isPasscodeCorrect();
+            cachedPhase.end(accepted);
+            if (accepted) {
+                if (logger.isLoggable(Level.INFO)) {
+                    logger.info("Cached passcode of %s accepted".formatted(this.lockIdentity));
+                }
+                // the hit made the lock the most recently used one
+                this.saveCache();
+                return passcode;
+            }
+            this.cache.remove(this.lockIdentity);
+        }
+        final int[] solution = this.fallback().crack(padlock);
+        if (solution != null) {
+            this.cache.put(this.lockIdentity, solution);
+        }
+        this.saveCache();
+        return solution;
+    }
+
+    private synchronized CrackStrategy missEstimate() {
+        return this.fallback != null ? this.fallback : new MinimalChangeStrategy();
+    }
+
+    private synchronized CrackStrategy fallback() {
+        if (this.fallback == null) {
+            this.fallback = this.fallbackSupplier.get();
+        }
+        return this.fallback;
+    }
+
+    private void saveCache() {
+        try {
+            this.cache.save();
+        } catch (IOException cacheException) {
+            logger.log(Level.WARNING, "Failed to save the solved passcode cache", cacheException);
+        }
+    }
+}
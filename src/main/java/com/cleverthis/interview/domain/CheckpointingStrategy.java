@@ -0,0 +1,167 @@
+package com.cleverthis.interview.domain;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Crash-safe variant of the minimal-change walk. The walk is non-recursive and its whole cursor (Heap's algorithm counters
+ * and the known input buffer contents) is kept in primitive arrays, which are checkpointed to a small memory-mapped file
+ * every N writes (see {@link CrackCheckpoint}).
+ * When the crack is started again with the same checkpoint file, it resumes from the checkpoint. The writes made after
+ * the checkpoint are replayed without touching the padlock, since the padlock keeps its input buffer.
+ * The writes of a candidate are submitted as one {@link WriteBatch} and journaled once the candidate is rejected, so
+ * the batch in flight at the moment of the crash is made again: at most the numpad size writes of the first candidate,
+ * or 2 writes of any later one. No write of an earlier candidate is ever repeated.
+ * The strategy needs the checkpoint file, so it is not registered through the ServiceLoader.
+ */
+public class CheckpointingStrategy extends MinimalChangeStrategy {
+
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 64;
+    private static final Logger logger = Logger.getLogger(CheckpointingStrategy.class.getName());
+
+    private final Path checkpointFile;
+    private final int checkpointInterval;
+
+    /**
+     * Instantiate the strategy checkpointing every {@value #DEFAULT_CHECKPOINT_INTERVAL} writes.
+     *
+     * @param checkpointFile the checkpoint file, created if it does not exist
+     */
+    public CheckpointingStrategy(Path checkpointFile) {
+        this(checkpointFile, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Instantiate the strategy.
+     *
+     * @param checkpointFile     the checkpoint file, created if it does not exist
+     * @param checkpointInterval number of writes between two snapshots of the cursor
+     */
+    public CheckpointingStrategy(Path checkpointFile, int checkpointInterval) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("checkpointInterval must be a positive number");
+        }
+        this.checkpointFile = checkpointFile;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    @Override
+    public String getName() {
+        return "minimal-change-checkpointing";
+    }
+
+    /**
+     * Run (or resume) the minimal-change permutation walk until the padlock accepts the input buffer.
+     *
+     * @return the key index written at each address of the accepted passcode, or null if no combination was accepted.
+     * @throws UncheckedIOException if the checkpoint file cannot be used
+     */
+    @Override
+    public int[] crack(IPadlock padlock) {
+        final int numpadSize = padlock.getNumpadSize();
+        try (CrackCheckpoint checkpoint = CrackCheckpoint.open(this.checkpointFile, numpadSize)) {
+            final CrackCursor cursor = new CrackCursor(numpadSize);
+            boolean resumed = checkpoint.restore(cursor);
+            if (resumed && cursor.solved) {
+                // the padlock keeps its input buffer, unless it was reset or replaced meanwhile
+                if (this.isStillOpen(padlock)) {
+                    return cursor.permutation;
+                }
+                checkpoint.clear();
+                resumed = checkpoint.restore(cursor);
+            } else if (resumed && logger.isLoggable(Level.INFO)) {
+                logger.info("Resuming crack from %s after %d writes and %d checks, replaying %d writes"
+                        .formatted(this.checkpointFile, cursor.writes, cursor.checks, cursor.skipWrites));
+            }
+            return this.walk(padlock, checkpoint, cursor, resumed) ? cursor.permutation : null;
+        } catch (IOException checkpointException) {
+            throw new UncheckedIOException(checkpointException);
+        }
+    }
+
+    /**
+     * Iterative Heap's algorithm driven entirely by the cursor.
+     *
+     * @param resumed true if the cursor was restored from a snapshot, so the initial candidate is already in the padlock
+     * @return true if the padlock accepted the permutation held by the cursor
+     */
+    private boolean walk(final IPadlock padlock, final CrackCheckpoint checkpoint, final CrackCursor cursor, final boolean resumed) {
+        final int numpadSize = cursor.permutation.length;
+        final WriteBatch batch = new WriteBatch(numpadSize);
+        if (!resumed) {
+            for (int address = 0; address < numpadSize; address++) {
+                this.write(cursor, batch, address);
+            }
+            if (this.check(padlock, checkpoint, cursor, batch)) {
+                return true;
+            }
+            this.snapshotIfDue(checkpoint, cursor);
+        }
+        final int[] permutation = cursor.permutation;
+        final int[] counters = cursor.counters;
+        while (cursor.level < numpadSize) {
+            final int level = cursor.level;
+            if (counters[level] < level) {
+                final int other = (level % 2 == 0) ? 0 : counters[level];
+                final int key = permutation[other];
+                permutation[other] = permutation[level];
+                permutation[level] = key;
+                this.write(cursor, batch, other);
+                this.write(cursor, batch, level);
+                counters[level]++;
+                cursor.level = 1;
+                if (this.check(padlock, checkpoint, cursor, batch)) {
+                    return true;
+                }
+                this.snapshotIfDue(checkpoint, cursor);
+            } else {
+                counters[level] = 0;
+                cursor.level++;
+            }
+        }
+        return false;
+    }
+
+    private boolean isStillOpen(final IPadlock padlock) {
+        try {
+            return padlock.isPasscodeCorrect();
+        } catch (IllegalStateException invalidBuffer) {
+            return false;
+        }
+    }
+
+    private void write(final CrackCursor cursor, final WriteBatch batch, final int address) {
+        cursor.writes++;
+        if (cursor.skipWrites > 0) {
+            // already made on the padlock before the restart
+            cursor.skipWrites--;
+            return;
+        }
+        batch.add(address, cursor.permutation[address]);
+    }
+
+    private boolean check(final IPadlock padlock, final CrackCheckpoint checkpoint, final CrackCursor cursor, final WriteBatch batch) {
+        cursor.checks++;
+        if (batch.size() == 0) {
+            // all writes of this candidate were journaled before the restart, so it was already rejected
+            return false;
+        }
+        batch.flush(padlock);
+        if (padlock.isPasscodeCorrect()) {
+            cursor.solved = true;
+            checkpoint.save(cursor);
+            return true;
+        }
+        checkpoint.journal(cursor.writes);
+        return false;
+    }
+
+    private void snapshotIfDue(final CrackCheckpoint checkpoint, final CrackCursor cursor) {
+        if (cursor.skipWrites == 0 && cursor.writes - cursor.writesAtSnapshot >= this.checkpointInterval) {
+            checkpoint.save(cursor);
+        }
+    }
+}
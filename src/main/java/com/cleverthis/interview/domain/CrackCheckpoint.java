@@ -0,0 +1,173 @@
+package com.cleverthis.interview.domain;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Small memory-mapped file holding the {@link CrackCursor} of an interrupted crack.
+ * <br/>
+ * The file consists of a header with a write journal and two snapshot slots:
+ * <ul>
+ *     <li>The journal is the number of writes of the candidates made on the padlock and rejected. It is stored after
+ *     every check, which is a single store into the mapped page, so it survives the death of the process.</li>
+ *     <li>The snapshots hold the complete cursor taken at a candidate boundary every N writes. The slots are used
+ *     alternately and each slot is committed by storing its generation last, so a snapshot torn by a crash is never
+ *     newer than the other, complete one. Snapshots are forced to the storage device.</li>
+ * </ul>
+ * On restart the newest snapshot is restored and the writes journaled after it are replayed without touching the padlock.
+ */
+final class CrackCheckpoint implements Closeable {
+
+    private static final int MAGIC = 0x50444C4B; // "PDLK"
+    private static final int VERSION = 1;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int NUMPAD_SIZE_OFFSET = 8;
+    private static final int JOURNAL_OFFSET = 16;
+    private static final int FIRST_SLOT_OFFSET = 24;
+    // slot layout
+    private static final int GENERATION_OFFSET = 0;
+    private static final int WRITES_OFFSET = 8;
+    private static final int CHECKS_OFFSET = 16;
+    private static final int LEVEL_OFFSET = 24;
+    private static final int SOLVED_OFFSET = 28;
+    private static final int ARRAYS_OFFSET = 32;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int numpadSize;
+    private final int slotSize;
+    private long generation;
+
+    private CrackCheckpoint(FileChannel channel, MappedByteBuffer buffer, int numpadSize) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.numpadSize = numpadSize;
+        this.slotSize = ARRAYS_OFFSET + 2 * Integer.BYTES * numpadSize;
+        this.generation = Math.max(this.buffer.getLong(this.slotOffset(0) + GENERATION_OFFSET),
+                this.buffer.getLong(this.slotOffset(1) + GENERATION_OFFSET));
+    }
+
+    /**
+     * Open (or create) the checkpoint file for the padlock of given keypad size.
+     *
+     * @param file       the checkpoint file
+     * @param numpadSize the padlock keypad size
+     * @return the opened checkpoint
+     * @throws IOException           if the file cannot be mapped
+     * @throws IllegalStateException if the file is not a checkpoint or belongs to the padlock with different keypad size
+     */
+    static CrackCheckpoint open(Path file, int numpadSize) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final boolean created = channel.size() == 0;
+            final long size = FIRST_SLOT_OFFSET + 2L * (ARRAYS_OFFSET + 2L * Integer.BYTES * numpadSize);
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (created) {
+                buffer.putInt(MAGIC_OFFSET, MAGIC);
+                buffer.putInt(VERSION_OFFSET, VERSION);
+                buffer.putInt(NUMPAD_SIZE_OFFSET, numpadSize);
+                buffer.force();
+            } else if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IllegalStateException("Not a padlock checkpoint file: " + file);
+            } else if (buffer.getInt(NUMPAD_SIZE_OFFSET) != numpadSize) {
+                throw new IllegalStateException("Checkpoint %s was created for keypad size %d, not %d"
+                        .formatted(file, buffer.getInt(NUMPAD_SIZE_OFFSET), numpadSize));
+            }
+            return new CrackCheckpoint(channel, buffer, numpadSize);
+        } catch (IOException | RuntimeException openException) {
+            channel.close();
+            throw openException;
+        }
+    }
+
+    /**
+     * Restore the cursor from the newest snapshot and the journal.
+     *
+     * @param cursor the cursor to fill in
+     * @return true if a snapshot was restored, false if the walk starts from the beginning (possibly replaying
+     * the journaled writes made before the first snapshot).
+     */
+    boolean restore(CrackCursor cursor) {
+        cursor.reset();
+        final long journal = this.buffer.getLong(JOURNAL_OFFSET);
+        if (this.generation == 0) {
+            cursor.skipWrites = journal;
+            return false;
+        }
+        final int slot = this.slotOffset((int) (this.generation % 2));
+        cursor.writes = this.buffer.getLong(slot + WRITES_OFFSET);
+        cursor.checks = this.buffer.getLong(slot + CHECKS_OFFSET);
+        cursor.level = this.buffer.getInt(slot + LEVEL_OFFSET);
+        cursor.solved = this.buffer.getInt(slot + SOLVED_OFFSET) != 0;
+        int offset = slot + ARRAYS_OFFSET;
+        for (int i = 0; i < this.numpadSize; i++, offset += Integer.BYTES) {
+            cursor.counters[i] = this.buffer.getInt(offset);
+        }
+        for (int i = 0; i < this.numpadSize; i++, offset += Integer.BYTES) {
+            cursor.permutation[i] = this.buffer.getInt(offset);
+        }
+        cursor.writesAtSnapshot = cursor.writes;
+        cursor.skipWrites = Math.max(0, journal - cursor.writes);
+        return true;
+    }
+
+    /**
+     * Record that the candidate ending with the write of given sequence number was made on the padlock and rejected.
+     *
+     * @param writes number of writes made so far
+     */
+    void journal(long writes) {
+        this.buffer.putLong(JOURNAL_OFFSET, writes);
+    }
+
+    /**
+     * Store the complete cursor into the older slot and commit it.
+     *
+     * @param cursor the cursor at a candidate boundary
+     */
+    void save(CrackCursor cursor) {
+        final long nextGeneration = this.generation + 1;
+        final int slot = this.slotOffset((int) (nextGeneration % 2));
+        this.buffer.putLong(slot + WRITES_OFFSET, cursor.writes);
+        this.buffer.putLong(slot + CHECKS_OFFSET, cursor.checks);
+        this.buffer.putInt(slot + LEVEL_OFFSET, cursor.level);
+        this.buffer.putInt(slot + SOLVED_OFFSET, cursor.solved ? 1 : 0);
+        int offset = slot + ARRAYS_OFFSET;
+        for (int i = 0; i < this.numpadSize; i++, offset += Integer.BYTES) {
+            this.buffer.putInt(offset, cursor.counters[i]);
+        }
+        for (int i = 0; i < this.numpadSize; i++, offset += Integer.BYTES) {
+            this.buffer.putInt(offset, cursor.permutation[i]);
+        }
+        // commit the slot
+        this.buffer.putLong(slot + GENERATION_OFFSET, nextGeneration);
+        this.buffer.force();
+        this.generation = nextGeneration;
+        cursor.writesAtSnapshot = cursor.writes;
+    }
+
+    /**
+     * Discard the journal and both snapshots, the next restore starts from the beginning.
+     */
+    void clear() {
+        this.buffer.putLong(JOURNAL_OFFSET, 0);
+        this.buffer.putLong(this.slotOffset(0) + GENERATION_OFFSET, 0);
+        this.buffer.putLong(this.slotOffset(1) + GENERATION_OFFSET, 0);
+        this.buffer.force();
+        this.generation = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private int slotOffset(int slot) {
+        return FIRST_SLOT_OFFSET + slot * this.slotSize;
+    }
+}
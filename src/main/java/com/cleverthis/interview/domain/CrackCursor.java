@@ -0,0 +1,46 @@
+package com.cleverthis.interview.domain;
+
+/**
+ * Complete state of the iterative minimal-change walk, kept in primitive fields and arrays only, so it can be copied
+ * to (and restored from) the {@link CrackCheckpoint} without any allocation in the hot loop.
+ */
+final class CrackCursor {
+
+    /** Key index currently held at each address of the padlock input buffer. */
+    final int[] permutation;
+    /** Heap's algorithm loop counters, one per recursion level. */
+    final int[] counters;
+    /** Current Heap's algorithm level. */
+    int level = 1;
+    /** Writes made by the walk so far, including the writes made before a restart. */
+    long writes;
+    /** Checks made by the walk so far, including the checks made before a restart. */
+    long checks;
+    /** Writes already made on the padlock after the restored snapshot, they are replayed without touching the padlock. */
+    long skipWrites;
+    /** Value of writes when the last snapshot was taken. */
+    long writesAtSnapshot;
+    /** True once the padlock accepted the permutation. */
+    boolean solved;
+
+    CrackCursor(int numpadSize) {
+        this.permutation = new int[numpadSize];
+        this.counters = new int[numpadSize];
+    }
+
+    /**
+     * Reset the cursor to the beginning of the walk.
+     */
+    void reset() {
+        for (int i = 0; i < this.permutation.length; i++) {
+            this.permutation[i] = i;
+            this.counters[i] = 0;
+        }
+        this.level = 1;
+        this.writes = 0;
+        this.checks = 0;
+        this.skipWrites = 0;
+        this.writesAtSnapshot = 0;
+        this.solved = false;
+    }
+}
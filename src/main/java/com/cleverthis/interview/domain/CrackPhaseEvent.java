@@ -0,0 +1,53 @@
+package com.cleverthis.interview.domain;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a phase of the padlock crack: the whole crack run by the {@link PadlockCracker}, or a phase inside
+ * a strategy (e.g. the latency profiling of the {@link AdaptiveOrderStrategy}).
+ * While JFR is not recording, the event costs only the enabled check.
+ */
+@Name("com.cleverthis.interview.CrackPhase")
+@Label("Crack Phase")
+@Category("Padlock")
+@Description("Phase of the padlock crack")
+public class CrackPhaseEvent extends Event {
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Solved")
+    boolean solved;
+
+    /**
+     * @param strategy the name of the strategy running the phase
+     * @param phase    the name of the phase
+     * @return the started event to be ended by {@link #end(boolean)}
+     */
+    static CrackPhaseEvent start(String strategy, String phase) {
+        final CrackPhaseEvent event = new CrackPhaseEvent();
+        if (event.isEnabled()) {
+            event.strategy = strategy;
+            event.phase = phase;
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * @param solved true if the phase found the passcode
+     */
+    void end(boolean solved) {
+        if (this.shouldCommit()) {
+            this.solved = solved;
+            this.commit();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.cleverthis.interview.domain;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of the progress of a running crack, see {@link CrackProgressListener}.
+ *
+ * @param strategy            name of the strategy cracking the padlock
+ * @param candidatesTried     number of the passcode candidates checked so far
+ * @param candidateCount      number of all candidates, n! of the numpad size (Long.MAX_VALUE beyond 20 keys)
+ * @param writes              number of the writes issued so far
+ * @param candidatesPerSecond the rate of the checked candidates since the previous report
+ * @param writeLatency        the average observed duration of a write, zero until a write was sampled
+ * @param elapsed             the time since the crack started
+ * @param remaining           the projected time to try all remaining candidates at the observed writes per candidate
+ *                            and write latency, null until it can be projected
+ * @param finished            true for the last report, sent when the crack returns
+ */
+public record CrackProgress(
+        String strategy,
+        long candidatesTried,
+        long candidateCount,
+        long writes,
+        double candidatesPerSecond,
+        Duration writeLatency,
+        Duration elapsed,
+        Duration remaining,
+        boolean finished
+) {
+    /**
+     * @return the tried part of all candidates. Range: [0, 1]
+     */
+    public double fraction() {
+        return Math.min(1.0, this.candidatesTried / (double) this.candidateCount);
+    }
+}
@@ -0,0 +1,12 @@
+package com.cleverthis.interview.domain;
+
+/**
+ * Receives the periodic progress of the crack, see {@link PadlockCracker#withProgressListener(CrackProgressListener, java.time.Duration)}.
+ * The periodic reports are sent from the reporter thread, never from the cracking one, so a slow listener does not
+ * slow down the crack. The last report (finished) is sent from the cracking thread when the crack returns.
+ */
+@FunctionalInterface
+public interface CrackProgressListener {
+
+    void onProgress(CrackProgress progress);
+}
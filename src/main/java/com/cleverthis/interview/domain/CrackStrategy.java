@@ -0,0 +1,65 @@
+package com.cleverthis.interview.domain;
+
+/**
+ * Service provider interface of the padlock cracking strategies.
+ * A strategy walks the permutation space of the padlock in its own order until the padlock accepts the input buffer.
+ * Besides the cracking itself, each strategy describes its expected number of writes and checks, which allows
+ * the {@link CrackStrategySelector} to choose the cheapest strategy for the given padlock.
+ * Additional strategies can be registered via the java.util.ServiceLoader mechanism
+ * (META-INF/services/com.cleverthis.interview.domain.CrackStrategy), so they need a public no-args constructor.
+ */
+public interface CrackStrategy {
+
+    /**
+     * @return short human-readable name of the strategy.
+     */
+    String getName();
+
+    /**
+     * Expected (average) number of input buffer writes until the passcode is found, assuming uniformly chosen passcode.
+     *
+     * @param numpadSize the padlock keypad size
+     * @return expected number of writes
+     */
+    double expectedWrites(int numpadSize);
+
+    /**
+     * Expected (average) number of passcode checks until the passcode is found, assuming uniformly chosen passcode.
+     *
+     * @param numpadSize the padlock keypad size
+     * @return expected number of checks
+     */
+    double expectedChecks(int numpadSize);
+
+    /**
+     * Expected wall-clock time of the strategy for the padlock with given keypad size and operation costs.
+     *
+     * @param numpadSize the padlock keypad size
+     * @param costModel  the cost of the padlock operations
+     * @return expected time in nanoseconds
+     */
+    default double expectedCostNanos(int numpadSize, PadlockCostModel costModel) {
+        return this.expectedWrites(numpadSize) * costModel.writeCostNanos()
+                + this.expectedChecks(numpadSize) * costModel.checkCostNanos();
+    }
+
+    /**
+     * Run the strategy against the padlock.
+     *
+     * @param padlock the padlock accessor representing the 'physical' padlock
+     * @return the key index written at each address of the accepted passcode, or null if no combination was accepted.
+     */
+    int[] crack(IPadlock padlock);
+
+    /**
+     * @param numpadSize the padlock keypad size
+     * @return number of all possible passcodes, numpadSize!, as double to avoid the overflow for large keypads.
+     */
+    static double permutationCount(int numpadSize) {
+        double count = 1;
+        for (int i = 2; i <= numpadSize; i++) {
+            count *= i;
+        }
+        return count;
+    }
+}
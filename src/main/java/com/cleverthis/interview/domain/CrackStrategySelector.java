@@ -0,0 +1,94 @@
+package com.cleverthis.interview.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Selects the cracking strategy with the lowest expected wall-clock time for the given padlock.
+ * The expected time is computed from the expected number of writes and checks of each candidate strategy and from the
+ * padlock cost model, which is read from the system properties or defaults to {@link PadlockCostModel#DEFAULT}.
+ * <p>
+ * The built-in strategies both make the minimal number of checks (every candidate is checked once), and the minimal
+ * change walk never makes more writes than the brute force, so between them the selection depends on the keypad size
+ * only, whatever the costs are. The cost model decides between the strategies with a different trade-off of writes
+ * and checks, e.g. the ones registered through the ServiceLoader. It is therefore not measured on the padlock, which
+ * would spend the device writes on a number not changing the built-in choice.
+ */
+public class CrackStrategySelector {
+
+    private static final Logger logger = Logger.getLogger(CrackStrategySelector.class.getName());
+
+    private final List<CrackStrategy> candidates;
+
+    /**
+     * Instantiate the selector choosing from the given strategies.
+     *
+     * @param candidates non-empty list of the candidate strategies
+     */
+    public CrackStrategySelector(List<CrackStrategy> candidates) {
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("At least one crack strategy is required");
+        }
+        this.candidates = Collections.unmodifiableList(new ArrayList<>(candidates));
+    }
+
+    /**
+     * Instantiate the selector with all strategies registered through the ServiceLoader, including the built-in ones.
+     *
+     * @return the selector instance
+     */
+    public static CrackStrategySelector fromServiceLoader() {
+        final List<CrackStrategy> strategies = new ArrayList<>();
+        ServiceLoader.load(CrackStrategy.class).forEach(strategies::add);
+        if (strategies.isEmpty()) {
+            for (CrackerEngine engine : CrackerEngine.values()) {
+                strategies.add(engine.newStrategy());
+            }
+        }
+        return new CrackStrategySelector(strategies);
+    }
+
+    public List<CrackStrategy> getCandidates() {
+        return this.candidates;
+    }
+
+    /**
+     * Select the strategy for the padlock, no padlock operation is made. The cost model is read from the system
+     * properties if defined (see {@link PadlockCostModel#fromSystemProperties()}), otherwise the default one is used.
+     *
+     * @param padlock the padlock to be cracked
+     * @return the strategy with the lowest expected wall-clock time
+     */
+    public CrackStrategy select(IPadlock padlock) {
+        final PadlockCostModel costModel = PadlockCostModel.fromSystemProperties().orElse(PadlockCostModel.DEFAULT);
+        return this.select(padlock.getNumpadSize(), costModel);
+    }
+
+    /**
+     * Select the strategy for the padlock with given keypad size and cost model.
+     *
+     * @param numpadSize the padlock keypad size
+     * @param costModel  the cost of the padlock operations
+     * @return the strategy with the lowest expected wall-clock time, the first registered one wins on a tie.
+     */
+    public CrackStrategy select(int numpadSize, PadlockCostModel costModel) {
+        CrackStrategy selected = null;
+        double selectedCost = Double.POSITIVE_INFINITY;
+        for (CrackStrategy candidate : this.candidates) {
+            final double cost = candidate.expectedCostNanos(numpadSize, costModel);
+            if (selected == null || cost < selectedCost) {
+                selected = candidate;
+                selectedCost = cost;
+            }
+        }
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Selected crack strategy %s, expected time %.3fs for %s"
+                    .formatted(selected.getName(), selectedCost / 1e9, costModel));
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,29 @@
+package com.cleverthis.interview.domain;
+
+/**
+ * Built-in cracking engines the PadlockCracker can run. All engines explore the complete permutation space, they only differ
+ * in the order in which the candidates are visited and thus in the number of (expensive) input buffer writes.
+ * Other strategies can be plugged in directly via {@link CrackStrategy}.
+ */
+public enum CrackerEngine {
+    /**
+     * Recursive brute force, varies the last position fastest. Stepping to a new branch rewrites every position below
+     * the changed depth.
+     */
+    BRUTE_FORCE,
+    /**
+     * Minimal-change order (Heap's algorithm). Every candidate after the first one differs from its predecessor by a single
+     * transposition, so it costs exactly two input buffer writes.
+     */
+    MINIMAL_CHANGE;
+
+    /**
+     * @return new instance of the strategy implementing this engine.
+     */
+    public CrackStrategy newStrategy() {
+        return switch (this) {
+            case MINIMAL_CHANGE -> new MinimalChangeStrategy();
+            case BRUTE_FORCE -> new BruteForceStrategy();
+        };
+    }
+}
@@ -1,7 +1,11 @@
 package com.cleverthis.interview.domain;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Methods identified from PadlockImpl that represent a generic padlock type.
+ * The asynchronous and batched writes have default implementations on top of the single blocking write, remote
+ * padlock implementations may override them to pipeline the requests and amortize the round trips.
  */
 public interface IPadlock {
 
@@ -16,4 +20,40 @@ public interface IPadlock {
     long getCheckCounter();
 
     void resetCounter();
+
+    /**
+     * Write a digit into padlock's input buffer without blocking the caller.
+     * The default implementation performs the blocking write and returns the completed future.
+     *
+     * @param address  The digits you want to write. Range: [0, numpadSize)
+     * @param keyIndex The key/button index you want to put here. Range: [0, numpadSize)
+     * @return future of the old value, null if not initialized. Completes exceptionally if the write fails.
+     */
+    default CompletableFuture<Integer> writeInputBufferAsync(int address, int keyIndex) {
+        try {
+            return CompletableFuture.completedFuture(this.writeInputBuffer(address, keyIndex));
+        } catch (RuntimeException writeException) {
+            return CompletableFuture.failedFuture(writeException);
+        }
+    }
+
+    /**
+     * Write several digits into padlock's input buffer as one batch, in the given order.
+     * The default implementation performs the blocking writes one by one.
+     *
+     * @param addresses  The digits you want to write. Range: [0, numpadSize)
+     * @param keyIndexes The key/button indexes you want to put there, same length as the addresses.
+     * @return The old values in the order of the addresses, null if not initialized.
+     */
+    default Integer[] writeInputBuffer(int[] addresses, int[] keyIndexes) {
+        if (addresses.length != keyIndexes.length) {
+            throw new IllegalArgumentException("addresses and keyIndexes lengths differ: %d != %d"
+                    .formatted(addresses.length, keyIndexes.length));
+        }
+        final Integer[] oldValues = new Integer[addresses.length];
+        for (int i = 0; i < addresses.length; i++) {
+            oldValues[i] = this.writeInputBuffer(addresses[i], keyIndexes[i]);
+        }
+        return oldValues;
+    }
 }
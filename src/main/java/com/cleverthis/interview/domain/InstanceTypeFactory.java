@@ -0,0 +1,98 @@
+package com.cleverthis.interview.domain;
+
+import com.cleverthis.interview.configuration.PadlockConfiguration.PadlockInstanceType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compiles the CUSTOM chain of constructors into a single method handle, once per chain.
+ * Each link of the chain is a public constructor: the no-argument one, the int one for the int literal, or the most
+ * specific single-argument one accepting the class of the nested link. The nested constructor handle is folded into
+ * the argument of the outer one, so the compiled chain is one no-argument handle without any reflection at build time.
+ */
+final class InstanceTypeFactory {
+
+    private static final Logger logger = Logger.getLogger(InstanceTypeFactory.class.getName());
+    private static final Map<PadlockInstanceType, Optional<InstanceTypeFactory>> cache = new ConcurrentHashMap<>();
+    private static final String INT_TYPE = "int";
+
+    private final MethodHandle constructor;
+
+    private InstanceTypeFactory(MethodHandle constructor) {
+        this.constructor = constructor.asType(MethodType.methodType(Object.class));
+    }
+
+    /**
+     * @param instanceType the chain of the constructors
+     * @return the compiled chain, empty if it cannot be compiled (the reason is logged once)
+     */
+    static Optional<InstanceTypeFactory> of(PadlockInstanceType instanceType) {
+        return cache.computeIfAbsent(instanceType, InstanceTypeFactory::compile);
+    }
+
+    /**
+     * @return new instance of the chain
+     */
+    Object newInstance() {
+        try {
+            return (Object) this.constructor.invokeExact();
+        } catch (RuntimeException | Error constructorFailure) {
+            throw constructorFailure;
+        } catch (Throwable constructorFailure) {
+            throw new IllegalStateException("Failed to build Padlock instance", constructorFailure);
+        }
+    }
+
+    private static Optional<InstanceTypeFactory> compile(PadlockInstanceType instanceType) {
+        try {
+            return Optional.of(new InstanceTypeFactory(link(instanceType)));
+        } catch (ReflectiveOperationException | IllegalArgumentException compileException) {
+            if (logger.isLoggable(Level.WARNING)) {
+                logger.warning("Failed to build Padlock Configuration due to %s".formatted(compileException.getMessage()));
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the no-argument handle returning the instance of the link type
+     */
+    private static MethodHandle link(PadlockInstanceType instanceType) throws ReflectiveOperationException {
+        final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        final Class<?> instanceClass = Class.forName(instanceType.type());
+        final PadlockInstanceType value = instanceType.value();
+        if (value == null) {
+            return lookup.findConstructor(instanceClass, MethodType.methodType(void.class));
+        }
+        if (INT_TYPE.equals(value.type())) {
+            final MethodHandle intConstructor = lookup.findConstructor(instanceClass, MethodType.methodType(void.class, int.class));
+            return MethodHandles.insertArguments(intConstructor, 0, Integer.parseInt(value.literal()));
+        }
+        final MethodHandle argument = link(value);
+        final MethodHandle constructor = lookup.unreflectConstructor(mostSpecificConstructor(instanceClass, argument.type().returnType()));
+        return MethodHandles.collectArguments(constructor, 0, argument.asType(argument.type().changeReturnType(constructor.type().parameterType(0))));
+    }
+
+    private static Constructor<?> mostSpecificConstructor(Class<?> instanceClass, Class<?> argumentClass) throws NoSuchMethodException {
+        Constructor<?> best = null;
+        for (Constructor<?> candidate : instanceClass.getConstructors()) {
+            if (candidate.getParameterCount() == 1 && candidate.getParameterTypes()[0].isAssignableFrom(argumentClass)
+                    && (best == null || best.getParameterTypes()[0].isAssignableFrom(candidate.getParameterTypes()[0]))) {
+                best = candidate;
+            }
+        }
+        if (best == null) {
+            throw new NoSuchMethodException("%s has no public constructor accepting %s"
+                    .formatted(instanceClass.getName(), argumentClass.getName()));
+        }
+        return best;
+    }
+}
@@ -0,0 +1,32 @@
+package com.cleverthis.interview.domain;
+
+import com.cleverthis.interview.configuration.PadlockAccessType;
+import com.cleverthis.interview.configuration.PadlockConfiguration;
+import com.cleverthis.interview.padlock.LatencyModel;
+import com.cleverthis.interview.padlock.PadlockClock;
+import com.cleverthis.interview.padlock.PadlockImpl;
+
+/**
+ * Provider of the in-process PadlockImpl.
+ * With -Dpadlock.parallelLanes=true the padlock simulates the hardware writing different addresses concurrently.
+ */
+public class JavaPadlockProvider implements PadlockProvider {
+
+    /**
+     * System property enabling the parallel address lanes of the padlock, e.g. -Dpadlock.parallelLanes=true
+     */
+    public static final String PARALLEL_LANES_PROPERTY = "padlock.parallelLanes";
+
+    @Override
+    public PadlockAccessType getAccessType() {
+        return PadlockAccessType.JAVA;
+    }
+
+    @Override
+    public IPadlock create(PadlockConfiguration configuration, int keypadSize) {
+        if (Boolean.getBoolean(PARALLEL_LANES_PROPERTY)) {
+            return new PadlockImplDelegate(new PadlockImpl(keypadSize, LatencyModel.DEFAULT, PadlockClock.standard(), true));
+        }
+        return new PadlockImplDelegate(new PadlockImpl(keypadSize));
+    }
+}
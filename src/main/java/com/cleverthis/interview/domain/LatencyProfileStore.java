@@ -0,0 +1,85 @@
+package com.cleverthis.interview.domain;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent store of the address latency profiles, one per padlock model.
+ * The profiles are kept in a properties file, the key is the model name and the value the comma separated write
+ * latencies of the addresses in nanoseconds.
+ */
+public class LatencyProfileStore {
+
+    private static final Logger logger = Logger.getLogger(LatencyProfileStore.class.getName());
+
+    private final Path file;
+
+    /**
+     * @param file the properties file, it is created on the first save
+     */
+    public LatencyProfileStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @param model      the padlock model name
+     * @param numpadSize the keypad size of the padlock
+     * @return the stored profile of the model, or empty if none or of other keypad size is stored
+     */
+    public synchronized Optional<AddressLatencyProfile> load(String model, int numpadSize) {
+        final String value = this.read().getProperty(model);
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            final double[] writeNanos = Arrays.stream(value.split(",")).mapToDouble(Double::parseDouble).toArray();
+            return writeNanos.length == numpadSize ? Optional.of(new AddressLatencyProfile(writeNanos)) : Optional.empty();
+        } catch (NumberFormatException invalidProfile) {
+            if (logger.isLoggable(Level.WARNING)) {
+                logger.warning("Ignoring invalid latency profile of %s: %s".formatted(model, value));
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the profile of the model, replacing the previous one.
+     *
+     * @param model   the padlock model name
+     * @param profile the measured profile
+     * @throws UncheckedIOException if the store cannot be written
+     */
+    public synchronized void save(String model, AddressLatencyProfile profile) {
+        final Properties profiles = this.read();
+        profiles.setProperty(model, Arrays.stream(profile.writeNanos())
+                .mapToObj(Double::toString)
+                .collect(Collectors.joining(",")));
+        try (Writer writer = Files.newBufferedWriter(this.file)) {
+            profiles.store(writer, "Padlock address write latency profiles [ns]");
+        } catch (IOException storeException) {
+            throw new UncheckedIOException(storeException);
+        }
+    }
+
+    private Properties read() {
+        final Properties profiles = new Properties();
+        if (Files.exists(this.file)) {
+            try (Reader reader = Files.newBufferedReader(this.file)) {
+                profiles.load(reader);
+            } catch (IOException storeException) {
+                throw new UncheckedIOException(storeException);
+            }
+        }
+        return profiles;
+    }
+}
@@ -0,0 +1,96 @@
+package com.cleverthis.interview.domain;
+
+/**
+ * A decorator measuring the duration of the writes to each input buffer address.
+ * Only the first sampleLimit writes are timed, the later ones are forwarded without any overhead.
+ * Batches are written one address at a time, so each address is timed separately.
+ */
+public class LatencyProfilingPadlock implements IPadlock {
+
+    /**
+     * Default number of the timed writes.
+     */
+    public static final int DEFAULT_SAMPLE_LIMIT = 256;
+
+    private final IPadlock delegate;
+    private final int sampleLimit;
+    private final long[] writeNanos;
+    private final int[] samples;
+    private int sampleCount;
+
+    public LatencyProfilingPadlock(IPadlock delegate) {
+        this(delegate, DEFAULT_SAMPLE_LIMIT);
+    }
+
+    /**
+     * @param delegate    the profiled padlock
+     * @param sampleLimit the number of writes to be timed
+     */
+    public LatencyProfilingPadlock(IPadlock delegate, int sampleLimit) {
+        this.delegate = delegate;
+        this.sampleLimit = sampleLimit;
+        this.writeNanos = new long[delegate.getNumpadSize()];
+        this.samples = new int[delegate.getNumpadSize()];
+    }
+
+    @Override
+    public int getNumpadSize() {
+        return this.delegate.getNumpadSize();
+    }
+
+    @Override
+    public synchronized Integer writeInputBuffer(int address, int keyIndex) {
+        if (this.sampleCount >= this.sampleLimit || address < 0 || address >= this.samples.length) {
+            return this.delegate.writeInputBuffer(address, keyIndex);
+        }
+        final long start = System.nanoTime();
+        final Integer oldValue = this.delegate.writeInputBuffer(address, keyIndex);
+        this.writeNanos[address] += System.nanoTime() - start;
+        this.samples[address]++;
+        this.sampleCount++;
+        return oldValue;
+    }
+
+    @Override
+    public boolean isPasscodeCorrect() {
+        return this.delegate.isPasscodeCorrect();
+    }
+
+    @Override
+    public long getWriteCounter() {
+        return this.delegate.getWriteCounter();
+    }
+
+    @Override
+    public long getCheckCounter() {
+        return this.delegate.getCheckCounter();
+    }
+
+    @Override
+    public void resetCounter() {
+        this.delegate.resetCounter();
+    }
+
+    /**
+     * @return true once all the writes to be timed were made
+     */
+    public synchronized boolean isComplete() {
+        return this.sampleCount >= this.sampleLimit;
+    }
+
+    /**
+     * @return the average write duration of each address, the addresses never written get the overall average
+     */
+    public synchronized AddressLatencyProfile getProfile() {
+        long totalNanos = 0;
+        for (long nanos : this.writeNanos) {
+            totalNanos += nanos;
+        }
+        final double average = this.sampleCount > 0 ? totalNanos / (double) this.sampleCount : 0;
+        final double[] profile = new double[this.writeNanos.length];
+        for (int address = 0; address < profile.length; address++) {
+            profile[address] = this.samples[address] > 0 ? this.writeNanos[address] / (double) this.samples[address] : average;
+        }
+        return new AddressLatencyProfile(profile);
+    }
+}
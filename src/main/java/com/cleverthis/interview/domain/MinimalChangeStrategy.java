@@ -0,0 +1,76 @@
+package com.cleverthis.interview.domain;
+
+/**
+ * Walks all permutations of the keypad in minimal-change order using the iterative form of Heap's algorithm.
+ * The first candidate (identity) costs numpadSize writes, every following candidate is produced by swapping two
+ * positions, thus it costs exactly two writes before the padlock is asked to check it.
+ * In total the worst case is numpadSize + 2 * (numpadSize! - 1) writes, compared to roughly e * numpadSize! writes
+ * of the recursive brute force.
+ */
+public class MinimalChangeStrategy implements CrackStrategy {
+
+    @Override
+    public String getName() {
+        return "minimal-change";
+    }
+
+    @Override
+    public double expectedWrites(int numpadSize) {
+        return numpadSize + 2 * (this.expectedChecks(numpadSize) - 1);
+    }
+
+    @Override
+    public double expectedChecks(int numpadSize) {
+        return (CrackStrategy.permutationCount(numpadSize) + 1) / 2;
+    }
+
+    /**
+     * Run the minimal-change permutation walk until the padlock accepts the input buffer.
+     *
+     * @return the key index written at each address of the accepted passcode, or null if no combination was accepted.
+     */
+    @Override
+    public int[] crack(IPadlock padlock) {
+        final int numpadSize = padlock.getNumpadSize();
+        final int[] permutation = new int[numpadSize];
+        final WriteBatch batch = new WriteBatch(numpadSize);
+        for (int address = 0; address < numpadSize; address++) {
+            permutation[address] = address;
+            batch.add(address, address);
+        }
+        batch.flush(padlock);
+        if (padlock.isPasscodeCorrect()) {
+            return permutation;
+        }
+        // Heap's algorithm: counters[i] encodes the loop counter of the (unrolled) recursion at level i
+        final int[] counters = new int[numpadSize];
+        int level = 1;
+        while (level < numpadSize) {
+            if (counters[level] < level) {
+                final int other = (level % 2 == 0) ? 0 : counters[level];
+                swap(padlock, batch, permutation, other, level);
+                if (padlock.isPasscodeCorrect()) {
+                    return permutation;
+                }
+                counters[level]++;
+                level = 1;
+            } else {
+                counters[level] = 0;
+                level++;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Swap the keys at two addresses, both in the local copy and in the padlock input buffer (one batch of 2 writes).
+     */
+    private static void swap(final IPadlock padlock, final WriteBatch batch, final int[] permutation, final int first, final int second) {
+        final int key = permutation[first];
+        permutation[first] = permutation[second];
+        permutation[second] = key;
+        batch.add(first, permutation[first]);
+        batch.add(second, permutation[second]);
+        batch.flush(padlock);
+    }
+}
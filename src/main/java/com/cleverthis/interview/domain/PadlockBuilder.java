@@ -2,18 +2,20 @@ package com.cleverthis.interview.domain;
 
 import com.cleverthis.interview.configuration.PadlockAccessType;
 import com.cleverthis.interview.configuration.PadlockConfiguration;
-import com.cleverthis.interview.padlock.PadlockImpl;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.ServiceLoader;
 
 /**
  * A Builder (factory) pattern, builds the padlock instance from the provided padlock configuration.
+ * The padlock of each access type is created by its {@link PadlockProvider}, the CUSTOM chain of constructors
+ * is compiled once per chain and reused by the later builds.
  */
 public class PadlockBuilder {
 
+    private static final Map<PadlockAccessType, PadlockProvider> PROVIDERS = loadProviders();
+
     private PadlockConfiguration padlockConfiguration = null;
     private Integer keypadSize = null;
 
@@ -60,73 +62,43 @@ public class PadlockBuilder {
         if (this.keypadSize != null) {
             _keypadSize = this.keypadSize; // explicitly given keypad size overrides the configuration file value
         }
-        // build the requested padlock type
-        switch (_accessType) {
-            case CLI: {
-                throw new IllegalArgumentException("This Padlock type is not supported in v1.0: " + _accessType);
-            }
-            case CUSTOM: {
-                IPadlock accessor = this.buildCustom();
-                if (accessor != null) {
-                    return accessor;
-                }
-                // if custom fails to build, fall-back through to the default
+        // build the requested padlock type by its provider
+        if (_accessType == PadlockAccessType.CUSTOM) {
+            final IPadlock accessor = this.buildCustom();
+            if (accessor != null) {
+                return accessor;
             }
-            case JAVA:
-            default:
-                return new PadlockImplDelegate(new PadlockImpl(_keypadSize));
+            // if custom fails to build, fall-back through to the default
+            return PROVIDERS.get(PadlockAccessType.JAVA).create(this.padlockConfiguration, _keypadSize);
+        }
+        final PadlockProvider provider = PROVIDERS.get(_accessType);
+        if (provider == null) {
+            throw new IllegalArgumentException("No padlock provider registered for access type: " + _accessType);
         }
+        return provider.create(this.padlockConfiguration, _keypadSize);
     }
 
     /**
-     * Build the Padlock instance for CUSTOM configuration.
+     * Build the Padlock instance for CUSTOM configuration by the chain of constructors compiled on the first use.
      *
      * @return IPadlock instance or null if not possible to build one.
      */
     private IPadlock buildCustom() {
         if (this.padlockConfiguration.instanceType() != null) {
-            return (IPadlock) instantiateInstanceType(this.padlockConfiguration.instanceType());
+            return InstanceTypeFactory.of(this.padlockConfiguration.instanceType())
+                    .map(factory -> (IPadlock) factory.newInstance())
+                    .orElse(null);
         }
         // if something went sideways....
         return null;
     }
 
-    /**
-     * Build the Padlock accessor class from the chain of constructor declarations
-     * This uses simplified logic to showcase how ths can be done
-     * There are no edge case checks here, as this methods should throw exception if it is not possible to build the Padlock instance.
-     * The method is called recursively if the constructor argument is a class instance.
-     *
-     * @param padlockInstanceType configuration - chain of constructors
-     * @return The instantiated class for the given invocation. Top invocation shall be the instance of IPadlock implementation class.
-     * @throws RuntimeException if it is not possible to build the accessor from the configuration.
-     */
-    private Object instantiateInstanceType(PadlockConfiguration.PadlockInstanceType padlockInstanceType) {
-        try {
-            final Class<?> instancClass = Class.forName(padlockInstanceType.type());
-            // this is for possible future cases, current implementation has no no-args constructors for existing candidates
-            if (padlockInstanceType.value() == null) {
-                final Constructor<?> noArgsCtr = instancClass.getDeclaredConstructor();
-                return noArgsCtr.newInstance();
-            }
-            // primitive values cannot be instantiated via reflection, needs special case here
-            if ("int".equals(padlockInstanceType.value().type())) {
-                final int ctrArg = Integer.parseInt(padlockInstanceType.value().literal());
-                final Constructor<?> intArgCtr = instancClass.getDeclaredConstructor(int.class);
-                return intArgCtr.newInstance(ctrArg);
-            }
-            // instantiate the class instance via reflection
-            final Object ctrArgument = this.instantiateInstanceType(padlockInstanceType.value());
-            final Constructor<?> classArgCtr =
-                    instancClass.getDeclaredConstructor(ctrArgument.getClass().getInterfaces().length > 0 ?
-                            ctrArgument.getClass().getInterfaces()[0] : ctrArgument.getClass());
-            return classArgCtr.newInstance(ctrArgument);
-        } catch (ClassNotFoundException | InvocationTargetException | NoSuchMethodException | InstantiationException | IllegalAccessException e) {
-            Logger logger = Logger.getLogger(PadlockBuilder.class.getName());
-            if (logger.isLoggable(Level.WARNING)) {
-                logger.warning("Failed to build Padlock Configuration due to %s".formatted(e.getMessage()));
-            }
+    private static Map<PadlockAccessType, PadlockProvider> loadProviders() {
+        final Map<PadlockAccessType, PadlockProvider> providers = new EnumMap<>(PadlockAccessType.class);
+        for (PadlockProvider provider : ServiceLoader.load(PadlockProvider.class)) {
+            providers.putIfAbsent(provider.getAccessType(), provider);
         }
-        return null;
+        providers.putIfAbsent(PadlockAccessType.JAVA, new JavaPadlockProvider());
+        return providers;
     }
 }
@@ -0,0 +1,44 @@
+package com.cleverthis.interview.domain;
+
+import java.util.Optional;
+
+/**
+ * Cost of the padlock operations used to estimate the wall-clock time of a cracking strategy.
+ *
+ * @param writeCostNanos average duration of one input buffer write in nanoseconds
+ * @param checkCostNanos average duration of one passcode check in nanoseconds
+ */
+public record PadlockCostModel(double writeCostNanos, double checkCostNanos) {
+
+    /**
+     * System property with the known write cost in milliseconds, e.g. -Dpadlock.writeCostMillis=1000
+     */
+    public static final String WRITE_COST_PROPERTY = "padlock.writeCostMillis";
+    /**
+     * System property with the known check cost in milliseconds, e.g. -Dpadlock.checkCostMillis=0.01
+     */
+    public static final String CHECK_COST_PROPERTY = "padlock.checkCostMillis";
+
+    /**
+     * Cost of the reference PadlockImpl: the write takes a second, the check is almost free.
+     */
+    public static final PadlockCostModel DEFAULT = new PadlockCostModel(1e9, 0);
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Reads the cost model from the system properties.
+     *
+     * @return the cost model or empty if the write cost property is not defined. Missing check cost is considered free.
+     * @throws NumberFormatException if the property values are not numeric
+     */
+    public static Optional<PadlockCostModel> fromSystemProperties() {
+        final String writeCost = System.getProperty(WRITE_COST_PROPERTY);
+        if (writeCost == null) {
+            return Optional.empty();
+        }
+        final String checkCost = System.getProperty(CHECK_COST_PROPERTY, "0");
+        return Optional.of(new PadlockCostModel(Double.parseDouble(writeCost) * NANOS_PER_MILLI,
+                Double.parseDouble(checkCost) * NANOS_PER_MILLI));
+    }
+}
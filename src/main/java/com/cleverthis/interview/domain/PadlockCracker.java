@@ -1,16 +1,21 @@
 package com.cleverthis.interview.domain;
 
+import java.time.Duration;
+
 /**
  * Implement the padlock cracking mechanism using brute force method (test all possible combinations sequentially).
- * It runs as single thread, but theoretically brute force algorithm may be parallelized by splitting the possible key/combination domain
- * to multiple threads. However, the PadlockImpl is not suitable for parallel execution, thus multithreaded solution
- * does not exist.
+ * The order in which the combinations are tested is given by the {@link CrackStrategy}, either one of the built-in
+ * {@link CrackerEngine} strategies, or any strategy chosen by the {@link CrackStrategySelector}.
+ * It runs as single thread. The brute force algorithm may be parallelized by splitting the possible key/combination domain
+ * to multiple threads, however a single PadlockImpl has one input buffer, thus it is not suitable for parallel execution.
+ * When several handles sharing the passcode are available, use the {@link ShardedPadlockCracker}.
  */
 public class PadlockCracker {
 
     private final IPadlock padlock;
-    private final int start;
-    private final int end;
+    private final CrackStrategy strategy;
+    private CrackProgressListener progressListener;
+    private Duration progressInterval;
 
     /**
      * Instantiate the Cracker algorithm instance for any padlock conforming to IPadlock signature.
@@ -18,89 +23,106 @@ public class PadlockCracker {
      * @param padlock the Padlock implementation accessor instance
      */
     public PadlockCracker(IPadlock padlock) {
-        this(padlock, 0, padlock.getNumpadSize());
+        this(padlock, CrackerEngine.BRUTE_FORCE);
     }
 
     /**
-     * Instantiate the algorithm instance, intended for eventual parallel execution (which is not feasible with current PadlockImpl).
+     * Instantiate the Cracker algorithm instance using the selected cracking engine.
      *
-     * @param padlock - the padlock accessor representing the 'physical' padlock
-     * @param start   - in single-threaded case, shall be 0, in multithreaded case - shall be the start index for the first digit
-     * @param end     - in single-threaded case, shall be 10, in multithreaded case - shall be the end index for the first digit
+     * @param padlock the Padlock implementation accessor instance
+     * @param engine  the engine defining the order in which the combinations are tested
      */
-    private PadlockCracker(IPadlock padlock, int start, int end) {
-        this.padlock = padlock;
-        this.start = start;
-        this.end = end;
+    public PadlockCracker(IPadlock padlock, CrackerEngine engine) {
+        this(padlock, engine.newStrategy());
     }
 
     /**
-     * Run the padlock crack algorithm.
-     * This method complies with Callable&lt;int[]> signature for use with Executor service for potential multithreaded use.
-     * While brute-force algorithm can be parallelized in general, due to the properties of the padlock (persistent internal buffer
-     * and the longest running operation being the push of input digits to padlock's buffer), the multithreaded solution is NOT FEASIBLE in this task.
+     * Instantiate the Cracker algorithm instance exploring only the given rank range of the padlock permutation space,
+     * intended for splitting the work between several workers.
      *
-     * @return - valid padlock combination or null if no such combination was found.
+     * @param padlock the Padlock implementation accessor instance
+     * @param range   the rank range of the candidates to be tested, see {@link PermutationSpace#split(int)}
      */
-    public int[] execute() {
-        final int numpadSize = this.padlock.getNumpadSize();
+    public PadlockCracker(IPadlock padlock, PermutationSpace.RankRange range) {
+        this(padlock, new RankRangeStrategy(range));
+    }
 
-        // Create an array with the digits applicable for our padlock
-        // Assume we can choose a digit in range 0-9, unless the keypad size is larger than 10
-        final int numDigits = Math.max(numpadSize, 10);
-        final int[] applicableDigits = new int[numDigits + 1];
-        for (int i = 0; i <= numDigits; i++) {
-            applicableDigits[i] = i;
-        }
+    /**
+     * Instantiate the Cracker algorithm instance testing the most likely combinations first.
+     *
+     * @param padlock the Padlock implementation accessor instance
+     * @param prior   the prior knowledge about the passcodes, see {@link PriorGuidedStrategy}
+     */
+    public PadlockCracker(IPadlock padlock, PasscodePrior prior) {
+        this(padlock, new PriorGuidedStrategy(prior));
+    }
 
-        // Generate permutations of the numbers
-        final boolean[] applied = new boolean[numDigits + 1];
-        final int[] currentPermutation = new int[numpadSize];
+    /**
+     * Instantiate the Cracker algorithm instance using the given cracking strategy.
+     *
+     * @param padlock  the Padlock implementation accessor instance
+     * @param strategy the strategy defining the order in which the combinations are tested
+     */
+    public PadlockCracker(IPadlock padlock, CrackStrategy strategy) {
+        this.padlock = padlock;
+        this.strategy = strategy;
+    }
 
-        // recursively try all available combination (brute force)
-        return backtrack(applicableDigits, applied, currentPermutation, this.padlock, 0, this.start, this.end);
+    /**
+     * Report the progress of the crack while it runs: the candidates tried out of n!, the writes, the rate and
+     * the projected time to try the rest. The listener is called at most once per interval, from the reporter thread,
+     * and once more when the crack returns.
+     *
+     * @param listener the progress listener
+     * @param interval the time between the reports
+     * @return this cracker for chained invocation
+     */
+    public PadlockCracker withProgressListener(CrackProgressListener listener, Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("progress interval must be positive: " + interval);
+        }
+        this.progressListener = listener;
+        this.progressInterval = interval;
+        return this;
     }
 
     /**
-     * Recursive num-pad incrementing, allows to explore each combination at given depth, and all permutations on lower depth.
+     * Run the padlock crack algorithm.
+     * This method complies with Callable&lt;int[]> signature for use with Executor service for potential multithreaded use.
+     * While brute-force algorithm can be parallelized in general, due to the properties of the padlock (persistent internal buffer
+     * and the longest running operation being the push of input digits to padlock's buffer), the multithreaded solution is
+     * feasible only with several padlock replicas, each of them cracking its own rank range (see {@link ShardedPadlockCracker}).
      *
-     * @param applicableDigits   array with digits to use
-     * @param applied            flag to indicate that the digit and all permutations of following digits were already explored
-     * @param currentPermutation stores current permutation to be tested with the padlock
-     * @param padlock            padlock accessor
-     * @param depth              current depth (at which digit we iterate)
-     * @param start              start range for the iteration (supplied from invoker for depth 0, otherwise 0)
-     * @param end                end range for the iteration  (supplied from invoker for depth 0, otherwise num of applicable digits)
-     * @return the correct permutation or null if permutation was rejected by the padlock
+     * The crack is reported as the "crack" {@link CrackPhaseEvent} to JFR.
+     *
+     * @return - valid padlock combination (key index at each address) or null if no such combination was found.
      */
-    private int[] backtrack(final int[] applicableDigits,
-                            final boolean[] applied,
-                            final int[] currentPermutation,
-                            final IPadlock padlock,
-                            final int depth,
-                            final int start,
-                            final int end) {
-        boolean done = false;
-        // Test if we are ready to unlock
-        if (depth == currentPermutation.length) {
-            // The currentPermutation is now a complete input candidate
-            if (padlock.isPasscodeCorrect()) {
-                // System.out.println("YES, We cracked the code: " + Arrays.toString(currentPermutation));
-                return currentPermutation;
-            }
-            return null;
+    public int[] execute() {
+        if (this.progressListener == null) {
+            return this.crack(this.padlock);
         }
+        final ProgressTrackingPadlock tracked = new ProgressTrackingPadlock(this.padlock);
+        final ProgressReporter reporter = new ProgressReporter(tracked, this.strategy.getName(), this.progressListener,
+                this.progressInterval);
+        try {
+            return this.crack(tracked);
+        } finally {
+            reporter.close();
+        }
+    }
 
-        // iterate over all digits on the current position (value of 'depth' variable) and on all subsequent positions
-        for (int i = start; i < end && i < padlock.getNumpadSize() && !done; i++) {
-            if (!applied[i]) {
-                applied[i] = true;
-                currentPermutation[depth] = applicableDigits[i];
-                padlock.writeInputBuffer(applicableDigits[i], depth);
-                done = backtrack(applicableDigits, applied, currentPermutation, padlock, depth + 1, 0, applicableDigits.length) != null;
-                applied[i] = false; // Backtrack
-            }
+    private int[] crack(IPadlock padlock) {
+        final CrackPhaseEvent phase = CrackPhaseEvent.start(this.strategy.getName(), "crack");
+        int[] solution = null;
+        try {
+            solution = this.strategy.crack(padlock);
+            return solution;
+        } finally {
+            phase.end(solution != null);
         }
-        return done ? currentPermutation : null;
+    }
+
+    public CrackStrategy getStrategy() {
+        return this.strategy;
     }
 }
@@ -23,6 +23,14 @@ public class PadlockImplDelegate implements IPadlock {
         return this.delegate.writeInputBuffer(address, keyIndex);
     }
 
+    /**
+     * Forward the batch to the padlock, so the padlock with the parallel lanes writes its addresses concurrently.
+     */
+    @Override
+    public Integer[] writeInputBuffer(int[] addresses, int[] keyIndexes) {
+        return this.delegate.writeInputBuffer(addresses, keyIndexes);
+    }
+
     @Override
     public boolean isPasscodeCorrect() {
         return this.delegate.isPasscodeCorrect();
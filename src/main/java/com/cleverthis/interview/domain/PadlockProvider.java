@@ -0,0 +1,27 @@
+package com.cleverthis.interview.domain;
+
+import com.cleverthis.interview.configuration.PadlockAccessType;
+import com.cleverthis.interview.configuration.PadlockConfiguration;
+
+/**
+ * Service provider interface of the padlock backends. The {@link PadlockBuilder} builds the padlock by the provider
+ * of the configured access type; the providers are registered in META-INF/services/com.cleverthis.interview.domain.PadlockProvider
+ * and loaded once by the ServiceLoader.
+ */
+public interface PadlockProvider {
+
+    /**
+     * @return the access type served by this provider
+     */
+    PadlockAccessType getAccessType();
+
+    /**
+     * Creates the padlock.
+     *
+     * @param configuration the padlock configuration, null if the padlock is built without one
+     * @param keypadSize    the keypad size resolved by the builder (explicit value, configuration or default)
+     * @return the padlock accessor
+     * @throws IllegalArgumentException if the configuration is not sufficient for this backend
+     */
+    IPadlock create(PadlockConfiguration configuration, int keypadSize);
+}
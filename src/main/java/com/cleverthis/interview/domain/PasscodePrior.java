@@ -0,0 +1,169 @@
+package com.cleverthis.interview.domain;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Prior knowledge about the passcodes chosen by people rather than by the uniform shuffle.
+ * The prior consists of the previously recovered codes, ordered by their frequency, and of the position model - the weight
+ * of each key at each position. The model is either counted from the recovered codes (with add-one smoothing, so no
+ * candidate gets zero weight) or given explicitly as a pattern model.
+ */
+public final class PasscodePrior {
+
+    private static final Logger logger = Logger.getLogger(PasscodePrior.class.getName());
+
+    private final int numpadSize;
+    private final double[][] weights;
+    private final List<int[]> knownCodes;
+
+    private PasscodePrior(int numpadSize, double[][] weights, List<int[]> knownCodes) {
+        this.numpadSize = numpadSize;
+        this.weights = weights;
+        this.knownCodes = Collections.unmodifiableList(knownCodes);
+    }
+
+    /**
+     * Builds the prior from the previously recovered codes.
+     *
+     * @param numpadSize the padlock keypad size
+     * @param codes      the recovered codes (key index at each address), codes of other keypad sizes or invalid ones are ignored
+     * @return the prior
+     */
+    public static PasscodePrior fromCodes(int numpadSize, Collection<int[]> codes) {
+        final double[][] weights = new double[numpadSize][numpadSize];
+        for (double[] positionWeights : weights) {
+            Arrays.fill(positionWeights, 1.0);
+        }
+        final Map<String, CodeCount> counts = new LinkedHashMap<>();
+        for (int[] code : codes) {
+            if (!isPermutation(code, numpadSize)) {
+                continue;
+            }
+            for (int position = 0; position < numpadSize; position++) {
+                weights[position][code[position]]++;
+            }
+            counts.computeIfAbsent(Arrays.toString(code), key -> new CodeCount(code.clone())).count++;
+        }
+        final List<int[]> knownCodes = new ArrayList<>(counts.size());
+        counts.values().stream()
+                .sorted(Comparator.comparingInt((CodeCount codeCount) -> codeCount.count).reversed())
+                .forEach(codeCount -> knownCodes.add(codeCount.code));
+        return new PasscodePrior(numpadSize, weights, knownCodes);
+    }
+
+    /**
+     * Reads the recovered codes from the text file, one code per line, keys separated by comma or whitespace.
+     * Empty lines and lines starting with '#' are skipped.
+     *
+     * @param file       the corpus file
+     * @param numpadSize the padlock keypad size
+     * @return the prior
+     * @throws IOException if the file cannot be read
+     */
+    public static PasscodePrior fromFile(Path file, int numpadSize) throws IOException {
+        final List<int[]> codes = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            final String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            try {
+                codes.add(Arrays.stream(trimmed.split("[,\\s]+")).mapToInt(Integer::parseInt).toArray());
+            } catch (NumberFormatException invalidCode) {
+                if (logger.isLoggable(Level.WARNING)) {
+                    logger.warning("Skipping invalid passcode in %s: %s".formatted(file, trimmed));
+                }
+            }
+        }
+        return fromCodes(numpadSize, codes);
+    }
+
+    /**
+     * Builds the prior from the pattern model.
+     *
+     * @param positionKeyWeights positive weight of each key (second index) at each position (first index)
+     * @return the prior without the known codes
+     */
+    public static PasscodePrior fromWeights(double[][] positionKeyWeights) {
+        final int numpadSize = positionKeyWeights.length;
+        final double[][] weights = new double[numpadSize][];
+        for (int position = 0; position < numpadSize; position++) {
+            if (positionKeyWeights[position].length != numpadSize) {
+                throw new IllegalArgumentException("Weights must be a square matrix of the keypad size");
+            }
+            weights[position] = positionKeyWeights[position].clone();
+        }
+        return new PasscodePrior(numpadSize, weights, new ArrayList<>());
+    }
+
+    public int getNumpadSize() {
+        return this.numpadSize;
+    }
+
+    /**
+     * @return the recovered codes, the most frequent first
+     */
+    public List<int[]> getKnownCodes() {
+        return this.knownCodes;
+    }
+
+    /**
+     * @param position the input buffer address
+     * @param key      the key index
+     * @return the weight of the key at the position
+     */
+    public double weight(int position, int key) {
+        return this.weights[position][key];
+    }
+
+    /**
+     * @return for each position the keys ordered from the most likely to the least likely one
+     */
+    int[][] keyOrder() {
+        final int[][] order = new int[this.numpadSize][];
+        for (int position = 0; position < this.numpadSize; position++) {
+            final double[] positionWeights = this.weights[position];
+            order[position] = IntStream.range(0, this.numpadSize).boxed()
+                    .sorted(Comparator.comparingDouble((Integer key) -> positionWeights[key]).reversed())
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        return order;
+    }
+
+    private static boolean isPermutation(int[] code, int numpadSize) {
+        if (code.length != numpadSize) {
+            return false;
+        }
+        final boolean[] used = new boolean[numpadSize];
+        for (int key : code) {
+            if (key < 0 || key >= numpadSize || used[key]) {
+                return false;
+            }
+            used[key] = true;
+        }
+        return true;
+    }
+
+    private static final class CodeCount {
+        private final int[] code;
+        private int count;
+
+        CodeCount(int[] code) {
+            this.code = code;
+        }
+    }
+}
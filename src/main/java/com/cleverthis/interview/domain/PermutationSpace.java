@@ -0,0 +1,285 @@
+package com.cleverthis.interview.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * The space of all candidate passcodes of a padlock, i.e. all permutations of the keys 0..numpadSize-1.
+ * Every candidate is mapped to its 64-bit lexicographic rank and back using the Lehmer code (factorial number system),
+ * so candidate generation, sharding, progress and resume points can all be expressed as rank ranges.
+ * The rank of the largest keypad, 20! - 1, still fits into the long.
+ */
+public final class PermutationSpace {
+
+    public static final int MAX_NUMPAD_SIZE = 20;
+
+    private final int numpadSize;
+    private final long[] factorials;
+
+    /**
+     * Instantiate the permutation space of the padlock.
+     *
+     * @param numpadSize the padlock keypad size. Range: [1, 20]
+     */
+    public PermutationSpace(int numpadSize) {
+        if (numpadSize < 1 || numpadSize > MAX_NUMPAD_SIZE) {
+            throw new IllegalArgumentException("numpadSize must be in range [1, %d]: %d".formatted(MAX_NUMPAD_SIZE, numpadSize));
+        }
+        this.numpadSize = numpadSize;
+        this.factorials = new long[numpadSize + 1];
+        this.factorials[0] = 1;
+        for (int i = 1; i <= numpadSize; i++) {
+            this.factorials[i] = this.factorials[i - 1] * i;
+        }
+    }
+
+    public int getNumpadSize() {
+        return this.numpadSize;
+    }
+
+    /**
+     * @return number of candidates, numpadSize!
+     */
+    public long size() {
+        return this.factorials[this.numpadSize];
+    }
+
+    /**
+     * @param length length of the permutation
+     * @return length!
+     */
+    long factorial(int length) {
+        return this.factorials[length];
+    }
+
+    /**
+     * Lexicographic rank of the candidate.
+     *
+     * @param permutation the candidate, key index at each address
+     * @return rank in range [0, size())
+     */
+    public long rank(int[] permutation) {
+        long rank = 0;
+        int used = 0;
+        for (int position = 0; position < this.numpadSize; position++) {
+            final int key = permutation[position];
+            // number of smaller keys not used yet is the Lehmer code digit of this position
+            final int smallerUnused = key - Integer.bitCount(used & ((1 << key) - 1));
+            rank += smallerUnused * this.factorials[this.numpadSize - 1 - position];
+            used |= 1 << key;
+        }
+        return rank;
+    }
+
+    /**
+     * Candidate of the given rank.
+     *
+     * @param rank rank in range [0, size())
+     * @return new array with the candidate
+     */
+    public int[] unrank(long rank) {
+        final int[] permutation = new int[this.numpadSize];
+        this.unrank(rank, permutation);
+        return permutation;
+    }
+
+    /**
+     * Candidate of the given rank, written into the provided array.
+     *
+     * @param rank        rank in range [0, size())
+     * @param permutation array of numpadSize length to store the candidate into
+     */
+    public void unrank(long rank, int[] permutation) {
+        if (rank < 0 || rank >= this.size()) {
+            throw new IllegalArgumentException("rank out of range [0, %d): %d".formatted(this.size(), rank));
+        }
+        int used = 0;
+        long remainder = rank;
+        for (int position = 0; position < this.numpadSize; position++) {
+            final long weight = this.factorials[this.numpadSize - 1 - position];
+            int digit = (int) (remainder / weight);
+            remainder %= weight;
+            // pick the digit-th unused key
+            int key = 0;
+            while ((used & (1 << key)) != 0 || digit > 0) {
+                if ((used & (1 << key)) == 0) {
+                    digit--;
+                }
+                key++;
+            }
+            permutation[position] = key;
+            used |= 1 << key;
+        }
+    }
+
+    /**
+     * Advance the candidate to the lexicographically next one in place.
+     *
+     * @param permutation the candidate to advance
+     * @return the lowest position changed by the step, or -1 if the candidate was the last one (and is left unchanged).
+     */
+    public static int next(int[] permutation) {
+        int pivot = permutation.length - 2;
+        while (pivot >= 0 && permutation[pivot] > permutation[pivot + 1]) {
+            pivot--;
+        }
+        if (pivot < 0) {
+            return -1;
+        }
+        int successor = permutation.length - 1;
+        while (permutation[successor] < permutation[pivot]) {
+            successor--;
+        }
+        swap(permutation, pivot, successor);
+        for (int left = pivot + 1, right = permutation.length - 1; left < right; left++, right--) {
+            swap(permutation, left, right);
+        }
+        return pivot;
+    }
+
+    /**
+     * Progress of the walk in rank order.
+     *
+     * @param rank the next rank to be visited
+     * @return percentage of the space already visited
+     */
+    public double progress(long rank) {
+        return 100.0 * rank / this.size();
+    }
+
+    /**
+     * @return spliterator over the whole space.
+     */
+    public RankRange range() {
+        return new RankRange(this, 0, this.size());
+    }
+
+    /**
+     * @param fromRank first rank of the range (inclusive)
+     * @param toRank   last rank of the range (exclusive)
+     * @return spliterator over the given rank range
+     */
+    public RankRange range(long fromRank, long toRank) {
+        if (fromRank < 0 || toRank > this.size() || fromRank > toRank) {
+            throw new IllegalArgumentException("Invalid rank range [%d, %d) of [0, %d)".formatted(fromRank, toRank, this.size()));
+        }
+        return new RankRange(this, fromRank, toRank);
+    }
+
+    /**
+     * Split the whole space into ranges of (almost) equal size, e.g. one per worker or shard.
+     *
+     * @param parts number of ranges
+     * @return list of consecutive ranges covering the whole space, empty ranges are omitted.
+     */
+    public List<RankRange> split(int parts) {
+        if (parts < 1) {
+            throw new IllegalArgumentException("parts must be a positive number");
+        }
+        final List<RankRange> ranges = new ArrayList<>(parts);
+        final long size = this.size();
+        for (int part = 0; part < parts; part++) {
+            final long from = size / parts * part + Math.min(part, size % parts);
+            final long to = size / parts * (part + 1) + Math.min(part + 1, size % parts);
+            if (from < to) {
+                ranges.add(new RankRange(this, from, to));
+            }
+        }
+        return ranges;
+    }
+
+    private static void swap(int[] permutation, int first, int second) {
+        final int key = permutation[first];
+        permutation[first] = permutation[second];
+        permutation[second] = key;
+    }
+
+    /**
+     * Spliterator over the candidates of a rank range in the rank (lexicographic) order.
+     * Splitting halves the remaining rank range. Each candidate is handed over as a new array.
+     * The position of the spliterator is the next rank to be visited, so it can be used as the resume point.
+     */
+    public static final class RankRange implements Spliterator<int[]> {
+
+        private final PermutationSpace space;
+        private long fromRank;
+        private final long toRank;
+        private long position;
+        private int[] current;
+
+        private RankRange(PermutationSpace space, long fromRank, long toRank) {
+            this.space = space;
+            this.fromRank = fromRank;
+            this.toRank = toRank;
+            this.position = fromRank;
+        }
+
+        public PermutationSpace getSpace() {
+            return this.space;
+        }
+
+        public long getFromRank() {
+            return this.fromRank;
+        }
+
+        public long getToRank() {
+            return this.toRank;
+        }
+
+        /**
+         * @return the next rank to be visited
+         */
+        public long getPosition() {
+            return this.position;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super int[]> action) {
+            if (this.position >= this.toRank) {
+                return false;
+            }
+            if (this.current == null) {
+                this.current = this.space.unrank(this.position);
+            } else {
+                next(this.current);
+            }
+            this.position++;
+            action.accept(this.current.clone());
+            return true;
+        }
+
+        /**
+         * Split off the first half of the remaining ranks.
+         */
+        @Override
+        public RankRange trySplit() {
+            final long remaining = this.toRank - this.position;
+            if (remaining < 2) {
+                return null;
+            }
+            final long middle = this.position + remaining / 2;
+            final RankRange prefix = new RankRange(this.space, this.position, middle);
+            this.fromRank = middle;
+            this.position = middle;
+            this.current = null;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.toRank - this.position;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+
+        @Override
+        public String toString() {
+            return "RankRange[%d, %d) of %d".formatted(this.fromRank, this.toRank, this.space.size());
+        }
+    }
+}
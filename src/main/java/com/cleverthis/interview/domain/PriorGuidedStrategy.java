@@ -0,0 +1,133 @@
+package com.cleverthis.interview.domain;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cracking strategy searching the most likely passcodes first according to the {@link PasscodePrior}.
+ * <ol>
+ *     <li>The previously recovered codes are tried first, the most frequent one first.</li>
+ *     <li>Then the complete permutation space is walked depth-first, trying the keys at each position from the most likely
+ *     to the least likely one. This still guarantees the full coverage, the codes tried in the first phase are skipped.</li>
+ * </ol>
+ * Consecutive candidates of the depth-first walk share their prefix, and only the addresses whose key differs from
+ * the input buffer are written, which keeps the number of writes between the candidates low.
+ */
+public class PriorGuidedStrategy implements CrackStrategy {
+
+    private final PasscodePrior prior;
+
+    public PriorGuidedStrategy(PasscodePrior prior) {
+        this.prior = prior;
+    }
+
+    @Override
+    public String getName() {
+        return "prior-guided";
+    }
+
+    /**
+     * For the uniformly chosen passcode the walk is the brute force in a different key order, plus the known codes.
+     */
+    @Override
+    public double expectedWrites(int numpadSize) {
+        return new BruteForceStrategy().expectedWrites(numpadSize) + numpadSize * this.prior.getKnownCodes().size();
+    }
+
+    @Override
+    public double expectedChecks(int numpadSize) {
+        return new BruteForceStrategy().expectedChecks(numpadSize) + this.prior.getKnownCodes().size();
+    }
+
+    @Override
+    public int[] crack(IPadlock padlock) {
+        final int numpadSize = padlock.getNumpadSize();
+        if (numpadSize != this.prior.getNumpadSize()) {
+            throw new IllegalArgumentException("The prior was built for keypad size %d, not %d"
+                    .formatted(this.prior.getNumpadSize(), numpadSize));
+        }
+        final PermutationSpace space = new PermutationSpace(numpadSize);
+        final List<int[]> knownCodes = this.prior.getKnownCodes();
+        // the known codes are distinct, only their ranks are kept to skip them in the second phase
+        final long[] knownRanks = new long[knownCodes.size()];
+        for (int i = 0; i < knownRanks.length; i++) {
+            knownRanks[i] = space.rank(knownCodes.get(i));
+        }
+        Arrays.sort(knownRanks);
+        final Walk walk = new Walk(padlock, space, this.prior.keyOrder(), knownRanks);
+        for (int[] knownCode : knownCodes) {
+            System.arraycopy(knownCode, 0, walk.candidate, 0, numpadSize);
+            if (walk.tryCandidate()) {
+                return walk.candidate;
+            }
+        }
+        return walk.depthFirst(0) ? walk.candidate : null;
+    }
+
+    /**
+     * State of a single crack: the known input buffer contents and the current candidate.
+     */
+    private static final class Walk {
+        private final IPadlock padlock;
+        private final PermutationSpace space;
+        private final int[][] keyOrder;
+        private final int[] candidate;
+        private final int[] written;
+        private final boolean[] used;
+        private final WriteBatch batch;
+        private final long[] knownRanks;
+        private boolean initialized;
+
+        Walk(IPadlock padlock, PermutationSpace space, int[][] keyOrder, long[] knownRanks) {
+            final int numpadSize = padlock.getNumpadSize();
+            this.padlock = padlock;
+            this.space = space;
+            this.keyOrder = keyOrder;
+            this.candidate = new int[numpadSize];
+            this.written = new int[numpadSize];
+            this.used = new boolean[numpadSize];
+            this.batch = new WriteBatch(numpadSize);
+            this.knownRanks = knownRanks;
+        }
+
+        /**
+         * Depth-first walk, the keys of each position in the prior order.
+         */
+        boolean depthFirst(int depth) {
+            if (depth == this.candidate.length) {
+                // the known codes were already tried in the first phase
+                if (this.knownRanks.length > 0 && Arrays.binarySearch(this.knownRanks, this.space.rank(this.candidate)) >= 0) {
+                    return false;
+                }
+                return this.tryCandidate();
+            }
+            for (int key : this.keyOrder[depth]) {
+                if (!this.used[key]) {
+                    this.used[key] = true;
+                    this.candidate[depth] = key;
+                    final boolean found = this.depthFirst(depth + 1);
+                    this.used[key] = false;
+                    if (found) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Write the addresses differing from the input buffer as one batch and check the candidate.
+         */
+        boolean tryCandidate() {
+            for (int address = 0; address < this.candidate.length; address++) {
+                if (!this.initialized || this.written[address] != this.candidate[address]) {
+                    this.batch.add(address, this.candidate[address]);
+                    this.written[address] = this.candidate[address];
+                }
+            }
+            this.initialized = true;
+            this.batch.flush(this.padlock);
+            return this.padlock.isPasscodeCorrect();
+        }
+    }
+}
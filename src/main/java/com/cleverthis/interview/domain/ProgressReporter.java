@@ -0,0 +1,89 @@
+package com.cleverthis.interview.domain;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reports the progress of one crack to the listener at a fixed interval from its own daemon thread.
+ */
+final class ProgressReporter implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(ProgressReporter.class.getName());
+
+    private final ProgressTrackingPadlock padlock;
+    private final String strategy;
+    private final CrackProgressListener listener;
+    private final long candidateCount;
+    private final long start = System.nanoTime();
+    private final ScheduledExecutorService scheduler;
+    private long previousNanos = this.start;
+    private long previousChecks;
+
+    ProgressReporter(ProgressTrackingPadlock padlock, String strategy, CrackProgressListener listener, Duration interval) {
+        this.padlock = padlock;
+        this.strategy = strategy;
+        this.listener = listener;
+        final int numpadSize = padlock.getNumpadSize();
+        this.candidateCount = numpadSize <= PermutationSpace.MAX_NUMPAD_SIZE ? new PermutationSpace(numpadSize).size() : Long.MAX_VALUE;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "padlock-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long intervalNanos = interval.toNanos();
+        this.scheduler.scheduleAtFixedRate(() -> this.report(false), intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops the periodic reports and sends the finished one.
+     */
+    @Override
+    public void close() {
+        this.scheduler.shutdownNow();
+        try {
+            this.scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        this.report(true);
+    }
+
+    private synchronized void report(boolean finished) {
+        try {
+            this.listener.onProgress(this.snapshot(finished));
+        } catch (RuntimeException listenerException) {
+            // a failing listener must not stop the reports nor the crack
+            logger.log(Level.WARNING, "Crack progress listener failed", listenerException);
+        }
+    }
+
+    CrackProgress snapshot(boolean finished) {
+        final long now = System.nanoTime();
+        final long checks = this.padlock.getChecks();
+        final long writes = this.padlock.getWrites();
+        final Duration writeLatency = this.padlock.getWriteLatency();
+        final double candidatesPerSecond = now > this.previousNanos
+                ? (checks - this.previousChecks) * 1e9 / (now - this.previousNanos)
+                : 0;
+        this.previousNanos = now;
+        this.previousChecks = checks;
+        return new CrackProgress(this.strategy, checks, this.candidateCount, writes, candidatesPerSecond, writeLatency,
+                Duration.ofNanos(now - this.start), finished ? Duration.ZERO : this.remaining(checks, writes, writeLatency),
+                finished);
+    }
+
+    /**
+     * The remaining candidates times the writes per candidate observed so far times the observed write latency.
+     */
+    private Duration remaining(long checks, long writes, Duration writeLatency) {
+        if (checks == 0 || writeLatency.isZero() || this.candidateCount == Long.MAX_VALUE) {
+            return null;
+        }
+        final double remainingWrites = Math.max(0, this.candidateCount - checks) * (writes / (double) checks);
+        return Duration.ofNanos((long) Math.min(Long.MAX_VALUE, remainingWrites * writeLatency.toNanos()));
+    }
+}
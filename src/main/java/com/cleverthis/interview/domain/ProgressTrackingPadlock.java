@@ -0,0 +1,104 @@
+package com.cleverthis.interview.domain;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A decorator counting the writes and checks of the crack for the progress reports, read by the reporter thread.
+ * The hot path pays only the counter increments; the write latency is sampled on every {@value #LATENCY_SAMPLE_PERIOD}th
+ * write, so the clock is not read on the others.
+ */
+final class ProgressTrackingPadlock implements IPadlock {
+
+    private static final int LATENCY_SAMPLE_PERIOD = 64;
+
+    private final IPadlock delegate;
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder sampledWriteNanos = new LongAdder();
+    private final LongAdder sampledWrites = new LongAdder();
+    private int untilSample;
+
+    ProgressTrackingPadlock(IPadlock delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int getNumpadSize() {
+        return this.delegate.getNumpadSize();
+    }
+
+    @Override
+    public Integer writeInputBuffer(int address, int keyIndex) {
+        this.writes.increment();
+        if (--this.untilSample > 0) {
+            return this.delegate.writeInputBuffer(address, keyIndex);
+        }
+        this.untilSample = LATENCY_SAMPLE_PERIOD;
+        final long start = System.nanoTime();
+        final Integer oldValue = this.delegate.writeInputBuffer(address, keyIndex);
+        this.sampledWriteNanos.add(System.nanoTime() - start);
+        this.sampledWrites.increment();
+        return oldValue;
+    }
+
+    @Override
+    public Integer[] writeInputBuffer(int[] addresses, int[] keyIndexes) {
+        this.writes.add(addresses.length);
+        if (--this.untilSample > 0 || addresses.length == 0) {
+            return this.delegate.writeInputBuffer(addresses, keyIndexes);
+        }
+        this.untilSample = LATENCY_SAMPLE_PERIOD;
+        final long start = System.nanoTime();
+        final Integer[] oldValues = this.delegate.writeInputBuffer(addresses, keyIndexes);
+        // the batch is sampled as its writes of the average duration
+        this.sampledWriteNanos.add(System.nanoTime() - start);
+        this.sampledWrites.add(addresses.length);
+        return oldValues;
+    }
+
+    @Override
+    public CompletableFuture<Integer> writeInputBufferAsync(int address, int keyIndex) {
+        this.writes.increment();
+        return this.delegate.writeInputBufferAsync(address, keyIndex);
+    }
+
+    @Override
+    public boolean isPasscodeCorrect() {
+        final boolean correct = this.delegate.isPasscodeCorrect();
+        this.checks.increment();
+        return correct;
+    }
+
+    @Override
+    public long getWriteCounter() {
+        return this.delegate.getWriteCounter();
+    }
+
+    @Override
+    public long getCheckCounter() {
+        return this.delegate.getCheckCounter();
+    }
+
+    @Override
+    public void resetCounter() {
+        this.delegate.resetCounter();
+    }
+
+    long getWrites() {
+        return this.writes.sum();
+    }
+
+    long getChecks() {
+        return this.checks.sum();
+    }
+
+    /**
+     * @return the average duration of the sampled writes, zero if none was sampled yet
+     */
+    Duration getWriteLatency() {
+        final long samples = this.sampledWrites.sum();
+        return samples == 0 ? Duration.ZERO : Duration.ofNanos(this.sampledWriteNanos.sum() / samples);
+    }
+}
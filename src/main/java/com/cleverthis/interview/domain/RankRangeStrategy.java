@@ -0,0 +1,140 @@
+package com.cleverthis.interview.domain;
+
+/**
+ * Cracking strategy exploring a single rank range of the {@link PermutationSpace}, which allows to split the work
+ * evenly between threads, padlock replicas or machines.
+ * <br/>
+ * The range is decomposed into aligned blocks: a block of (numpadSize - k)! consecutive ranks consists of all candidates
+ * sharing the same prefix of length k. Within a block the suffix is walked in the minimal-change order (Heap's algorithm),
+ * so each candidate costs two writes, and only the changed addresses are written when moving to the next block.
+ */
+public class RankRangeStrategy implements CrackStrategy {
+
+    private final long fromRank;
+    private final long toRank;
+
+    /**
+     * Instantiate the strategy for the rank range of the padlock permutation space.
+     *
+     * @param range the rank range, its current position is used as the start of the range
+     */
+    public RankRangeStrategy(PermutationSpace.RankRange range) {
+        this(range.getPosition(), range.getToRank());
+    }
+
+    /**
+     * Instantiate the strategy for the rank range.
+     *
+     * @param fromRank first rank of the range (inclusive)
+     * @param toRank   last rank of the range (exclusive)
+     */
+    public RankRangeStrategy(long fromRank, long toRank) {
+        if (fromRank < 0 || fromRank > toRank) {
+            throw new IllegalArgumentException("Invalid rank range [%d, %d)".formatted(fromRank, toRank));
+        }
+        this.fromRank = fromRank;
+        this.toRank = toRank;
+    }
+
+    @Override
+    public String getName() {
+        return "rank-range";
+    }
+
+    @Override
+    public double expectedWrites(int numpadSize) {
+        return numpadSize + 2 * (this.expectedChecks(numpadSize) - 1);
+    }
+
+    @Override
+    public double expectedChecks(int numpadSize) {
+        final double candidates = Math.min(this.toRank, CrackStrategy.permutationCount(numpadSize)) - this.fromRank;
+        return (candidates + 1) / 2;
+    }
+
+    public long getFromRank() {
+        return this.fromRank;
+    }
+
+    public long getToRank() {
+        return this.toRank;
+    }
+
+    /**
+     * Walk the rank range until the padlock accepts the input buffer.
+     *
+     * @return the key index written at each address of the accepted passcode, or null if the passcode is not in the range.
+     */
+    @Override
+    public int[] crack(IPadlock padlock) {
+        final int numpadSize = padlock.getNumpadSize();
+        final PermutationSpace space = new PermutationSpace(numpadSize);
+        final long end = Math.min(this.toRank, space.size());
+        final int[] written = new int[numpadSize];
+        final int[] permutation = new int[numpadSize];
+        final int[] counters = new int[numpadSize];
+        final WriteBatch batch = new WriteBatch(numpadSize);
+        boolean initialized = false;
+        long rank = this.fromRank;
+        while (rank < end) {
+            // the largest aligned block starting at the rank and fitting into the range
+            int prefixLength = 0;
+            while (rank % space.factorial(numpadSize - prefixLength) != 0
+                    || rank + space.factorial(numpadSize - prefixLength) > end) {
+                prefixLength++;
+            }
+            space.unrank(rank, permutation);
+            for (int address = 0; address < numpadSize; address++) {
+                if (!initialized || written[address] != permutation[address]) {
+                    batch.add(address, permutation[address]);
+                }
+            }
+            batch.flush(padlock);
+            initialized = true;
+            if (walkBlock(padlock, batch, permutation, counters, prefixLength)) {
+                return permutation;
+            }
+            System.arraycopy(permutation, 0, written, 0, numpadSize);
+            rank += space.factorial(numpadSize - prefixLength);
+        }
+        return null;
+    }
+
+    /**
+     * Heap's algorithm over the suffix of the permutation, the prefix stays fixed. The first candidate is expected
+     * to be written already.
+     *
+     * @return true if the padlock accepted the permutation
+     */
+    private static boolean walkBlock(final IPadlock padlock, final WriteBatch batch, final int[] permutation, final int[] counters, final int offset) {
+        if (padlock.isPasscodeCorrect()) {
+            return true;
+        }
+        final int length = permutation.length - offset;
+        for (int i = 0; i < length; i++) {
+            counters[i] = 0;
+        }
+        int level = 1;
+        while (level < length) {
+            if (counters[level] < level) {
+                final int first = offset + ((level % 2 == 0) ? 0 : counters[level]);
+                final int second = offset + level;
+                final int key = permutation[first];
+                permutation[first] = permutation[second];
+                permutation[second] = key;
+                batch.add(first, permutation[first]);
+                batch.add(second, permutation[second]);
+                batch.flush(padlock);
+                if (padlock.isPasscodeCorrect()) {
+                    return true;
+                }
+                counters[level]++;
+                level = 1;
+            } else {
+                counters[level] = 0;
+                level++;
+            }
+        }
+        return false;
+    }
+}
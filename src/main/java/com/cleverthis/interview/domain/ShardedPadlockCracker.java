@@ -0,0 +1,170 @@
+package com.cleverthis.interview.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cracks the padlock in parallel using several independent handles known to share the same passcode, e.g. hardware
+ * exposing several input buffers or replica units. The single PadlockImpl has one input buffer, so the parallel crack
+ * is not feasible with it, but with K replicas each handle gets its own shard of the {@link PermutationSpace} and
+ * the wall-clock time drops by close to a factor of K.
+ * All shards run concurrently and all of them are cancelled as soon as one of them succeeds.
+ */
+public class ShardedPadlockCracker {
+
+    private static final Logger logger = Logger.getLogger(ShardedPadlockCracker.class.getName());
+
+    private final List<IPadlock> replicas;
+
+    /**
+     * Instantiate the cracker for the replicas of the same padlock.
+     *
+     * @param replicas non-empty list of handles sharing the passcode, all of the same keypad size
+     */
+    public ShardedPadlockCracker(List<IPadlock> replicas) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one padlock replica is required");
+        }
+        final int numpadSize = replicas.get(0).getNumpadSize();
+        for (IPadlock replica : replicas) {
+            if (replica.getNumpadSize() != numpadSize) {
+                throw new IllegalArgumentException("All padlock replicas must have the same keypad size");
+            }
+        }
+        this.replicas = List.copyOf(replicas);
+    }
+
+    /**
+     * Run the sharded crack, one thread per replica.
+     *
+     * @return the key index at each address of the accepted passcode, or null if every shard was searched without
+     * finding an accepted combination.
+     * @throws IllegalStateException if no shard found the passcode and one of them failed before searching its whole
+     *                               range, with the shard failure as the cause (runtime exceptions of the padlock are
+     *                               rethrown as they are)
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the shards
+     */
+    public int[] execute() throws InterruptedException {
+        final List<PermutationSpace.RankRange> shards =
+                new PermutationSpace(this.replicas.get(0).getNumpadSize()).split(this.replicas.size());
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        final List<Callable<int[]>> tasks = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            final IPadlock replica = new CancellablePadlock(this.replicas.get(shard), cancelled);
+            final PermutationSpace.RankRange range = shards.get(shard);
+            final RankRangeStrategy strategy = new RankRangeStrategy(range);
+            tasks.add(() -> {
+                final int[] solution = strategy.crack(replica);
+                if (solution == null) {
+                    throw new NoSuchElementException("Passcode is not in the shard " + range);
+                }
+                cancelled.set(true);
+                return solution;
+            });
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        try {
+            final CompletionService<int[]> completion = new ExecutorCompletionService<>(executor);
+            for (Callable<int[]> task : tasks) {
+                completion.submit(task);
+            }
+            // the first shard returning the solution wins, the shards without the passcode complete exceptionally
+            Throwable shardFailure = null;
+            for (int completed = 0; completed < tasks.size(); completed++) {
+                try {
+                    return completion.take().get();
+                } catch (ExecutionException failed) {
+                    final Throwable cause = failed.getCause();
+                    final boolean exhausted = cause instanceof NoSuchElementException
+                            || cause instanceof CancellationException && cancelled.get();
+                    if (!exhausted && shardFailure == null) {
+                        // the other shards may still find the passcode, the failure is reported only if none does
+                        shardFailure = cause;
+                    }
+                }
+            }
+            if (shardFailure instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (shardFailure != null) {
+                // the crashed shard left its range unexplored, so the crack is not known to be exhausted
+                throw new IllegalStateException("Shard failed before searching its range", shardFailure);
+            }
+            if (logger.isLoggable(Level.WARNING)) {
+                logger.warning("No shard found the passcode in %d shards".formatted(tasks.size()));
+            }
+            return null;
+        } finally {
+            // the padlock writes may ignore the interrupts, so the shards are stopped at their next operation
+            cancelled.set(true);
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Decorator stopping the shard at the next padlock operation once any shard succeeded.
+     */
+    private static final class CancellablePadlock implements IPadlock {
+        private final IPadlock delegate;
+        private final AtomicBoolean cancelled;
+
+        CancellablePadlock(IPadlock delegate, AtomicBoolean cancelled) {
+            this.delegate = delegate;
+            this.cancelled = cancelled;
+        }
+
+        private void ensureNotCancelled() {
+            if (this.cancelled.get()) {
+                throw new CancellationException("Passcode found by another shard");
+            }
+        }
+
+        @Override
+        public int getNumpadSize() {
+            return this.delegate.getNumpadSize();
+        }
+
+        @Override
+        public Integer writeInputBuffer(int address, int keyIndex) {
+            this.ensureNotCancelled();
+            return this.delegate.writeInputBuffer(address, keyIndex);
+        }
+
+        @Override
+        public Integer[] writeInputBuffer(int[] addresses, int[] keyIndexes) {
+            this.ensureNotCancelled();
+            return this.delegate.writeInputBuffer(addresses, keyIndexes);
+        }
+
+        @Override
+        public boolean isPasscodeCorrect() {
+            this.ensureNotCancelled();
+            return this.delegate.isPasscodeCorrect();
+        }
+
+        @Override
+        public long getWriteCounter() {
+            return this.delegate.getWriteCounter();
+        }
+
+        @Override
+        public long getCheckCounter() {
+            return this.delegate.getCheckCounter();
+        }
+
+        @Override
+        public void resetCounter() {
+            this.delegate.resetCounter();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.cleverthis.interview.domain;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Persistent cache of the recovered passcodes keyed by the lock identity, evicting the least recently used lock when
+ * the capacity is exceeded.
+ * <p>
+ * The index file is compact binary: the magic "PDLC", the format version, the number of entries, then the entries from
+ * the least to the most recently used one, each being the lock identity (modified UTF-8), the keypad size and the key index
+ * at each address as one unsigned byte. The file is replaced atomically on every save, so a crash leaves either
+ * the old or the new index.
+ */
+public class SolvedPasscodeCache {
+
+    /**
+     * Default maximum number of cached locks.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int MAGIC = 0x50444C43;
+    private static final int VERSION = 1;
+    private static final int MAX_KEY = 0xFF;
+
+    private final Path file;
+    private final Map<String, int[]> entries;
+
+    private SolvedPasscodeCache(Path file, int capacity) {
+        this.file = file;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Opens the cache, reading the index file if it exists.
+     *
+     * @param file     the index file, it is created on the first save
+     * @param capacity the maximum number of cached locks
+     * @return the cache
+     * @throws IOException if the index file cannot be read or is not a passcode cache
+     */
+    public static SolvedPasscodeCache open(Path file, int capacity) throws IOException {
+        final SolvedPasscodeCache cache = new SolvedPasscodeCache(file, capacity);
+        if (Files.exists(file)) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (input.readInt() != MAGIC || input.readUnsignedByte() != VERSION) {
+                    throw new IOException("Not a solved passcode cache: " + file);
+                }
+                final int count = input.readInt();
+                for (int entry = 0; entry < count; entry++) {
+                    final String lockIdentity = input.readUTF();
+                    final int[] passcode = new int[input.readUnsignedShort()];
+                    for (int address = 0; address < passcode.length; address++) {
+                        passcode[address] = input.readUnsignedByte();
+                    }
+                    cache.entries.put(lockIdentity, passcode);
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * @param lockIdentity the lock identity
+     * @return the cached passcode of the lock, the lock becomes the most recently used one
+     */
+    public synchronized Optional<int[]> get(String lockIdentity) {
+        final int[] passcode = this.entries.get(lockIdentity);
+        return passcode != null ? Optional.of(passcode.clone()) : Optional.empty();
+    }
+
+    /**
+     * @param lockIdentity the lock identity
+     * @return true if the passcode of the lock is cached, the recency of the lock is not changed
+     */
+    public synchronized boolean contains(String lockIdentity) {
+        return this.entries.containsKey(lockIdentity);
+    }
+
+    /**
+     * Caches the recovered passcode, the keypads larger than 256 keys are not cached.
+     *
+     * @param lockIdentity the lock identity
+     * @param passcode     the key index at each address
+     */
+    public synchronized void put(String lockIdentity, int[] passcode) {
+        if (passcode.length <= MAX_KEY + 1) {
+            this.entries.put(lockIdentity, passcode.clone());
+        }
+    }
+
+    /**
+     * @param lockIdentity the lock identity whose cached passcode is no longer valid
+     */
+    public synchronized void remove(String lockIdentity) {
+        this.entries.remove(lockIdentity);
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Writes the index file.
+     *
+     * @throws IOException if the index file cannot be written
+     */
+    public synchronized void save() throws IOException {
+        final Path parent = this.file.toAbsolutePath().getParent();
+        final Path temporary = Files.createTempFile(parent, this.file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeInt(MAGIC);
+                output.writeByte(VERSION);
+                output.writeInt(this.entries.size());
+                for (Map.Entry<String, int[]> entry : this.entries.entrySet()) {
+                    output.writeUTF(entry.getKey());
+                    output.writeShort(entry.getValue().length);
+                    for (int key : entry.getValue()) {
+                        output.writeByte(key);
+                    }
+                }
+            }
+            Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
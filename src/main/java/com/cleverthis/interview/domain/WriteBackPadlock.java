@@ -0,0 +1,160 @@
+package com.cleverthis.interview.domain;
+
+/**
+ * A write-back decorator: the writes are recorded in the dirty map and reach the padlock only right before the check,
+ * so repeated writes to the same address between two checks cost at most one device write, and the writes restoring
+ * the value the device already holds cost none. The net changes are flushed as one batch.
+ * <p>
+ * The old value returned by the write is answered from the device value learned on the first write to the address
+ * (which is written through for that reason) and from the pending value of the dirty map. The counters are the ones
+ * of the padlock, so they show the device writes only.
+ * It has the single-argument IPadlock constructor, so it can be used in the CUSTOM chain of the PadlockBuilder.
+ */
+public class WriteBackPadlock implements IPadlock {
+
+    private final IPadlock delegate;
+    private final int numpadSize;
+    private final int[] deviceBuffer;
+    private final boolean[] known;
+    private final int[] pendingBuffer;
+    private final boolean[] dirty;
+    private int dirtyCount;
+    private long writesCoalesced;
+
+    public WriteBackPadlock(IPadlock delegate) {
+        this.delegate = delegate;
+        this.numpadSize = delegate.getNumpadSize();
+        this.deviceBuffer = new int[this.numpadSize];
+        this.known = new boolean[this.numpadSize];
+        this.pendingBuffer = new int[this.numpadSize];
+        this.dirty = new boolean[this.numpadSize];
+    }
+
+    @Override
+    public int getNumpadSize() {
+        return this.numpadSize;
+    }
+
+    /**
+     * Record the write in the dirty map, unless the address was never written, then the write goes through.
+     *
+     * @param address  The digits you want to write. Range: [0, numpadSize)
+     * @param keyIndex The key/button index you want to put here. Range: [0, numpadSize)
+     * @return The old value, null if not initialized.
+     */
+    @Override
+    public synchronized Integer writeInputBuffer(int address, int keyIndex) {
+        if (address < 0 || address >= this.numpadSize || !this.known[address]) {
+            final Integer oldValue = this.delegate.writeInputBuffer(address, keyIndex);
+            this.deviceBuffer[address] = keyIndex;
+            this.known[address] = true;
+            return oldValue;
+        }
+        if (keyIndex < 0 || keyIndex >= this.numpadSize) {
+            throw new IllegalArgumentException(
+                    "keyIndex out of range. Keypad size: " + this.numpadSize + ", keyIndex: " + keyIndex);
+        }
+        final int oldValue = this.dirty[address] ? this.pendingBuffer[address] : this.deviceBuffer[address];
+        if (this.dirty[address]) {
+            this.writesCoalesced++;
+        }
+        if (keyIndex == this.deviceBuffer[address]) {
+            if (this.dirty[address]) {
+                this.dirty[address] = false;
+                this.dirtyCount--;
+            }
+        } else {
+            if (!this.dirty[address]) {
+                this.dirty[address] = true;
+                this.dirtyCount++;
+            }
+            this.pendingBuffer[address] = keyIndex;
+        }
+        return oldValue;
+    }
+
+    /**
+     * Record the writes of the batch in order, the old values see the earlier writes of the same batch.
+     */
+    @Override
+    public synchronized Integer[] writeInputBuffer(int[] addresses, int[] keyIndexes) {
+        if (addresses.length != keyIndexes.length) {
+            throw new IllegalArgumentException("addresses and keyIndexes lengths differ: %d != %d"
+                    .formatted(addresses.length, keyIndexes.length));
+        }
+        final Integer[] oldValues = new Integer[addresses.length];
+        for (int i = 0; i < addresses.length; i++) {
+            oldValues[i] = this.writeInputBuffer(addresses[i], keyIndexes[i]);
+        }
+        return oldValues;
+    }
+
+    /**
+     * Flush the net changes, then check the passcode.
+     */
+    @Override
+    public synchronized boolean isPasscodeCorrect() {
+        this.flush();
+        return this.delegate.isPasscodeCorrect();
+    }
+
+    /**
+     * Write the pending net changes to the padlock as one batch.
+     */
+    public synchronized void flush() {
+        if (this.dirtyCount == 0) {
+            return;
+        }
+        final int[] addresses = new int[this.dirtyCount];
+        final int[] keyIndexes = new int[this.dirtyCount];
+        int count = 0;
+        for (int address = 0; address < this.numpadSize; address++) {
+            if (this.dirty[address]) {
+                addresses[count] = address;
+                keyIndexes[count] = this.pendingBuffer[address];
+                count++;
+                this.dirty[address] = false;
+            }
+        }
+        this.dirtyCount = 0;
+        try {
+            this.delegate.writeInputBuffer(addresses, keyIndexes);
+        } catch (RuntimeException writeException) {
+            // the batch may be applied partially, the addresses are written through again next time
+            for (int address : addresses) {
+                this.known[address] = false;
+            }
+            throw writeException;
+        }
+        for (int i = 0; i < count; i++) {
+            this.deviceBuffer[addresses[i]] = keyIndexes[i];
+        }
+    }
+
+    @Override
+    public long getWriteCounter() {
+        return this.delegate.getWriteCounter();
+    }
+
+    @Override
+    public long getCheckCounter() {
+        return this.delegate.getCheckCounter();
+    }
+
+    /**
+     * Reset the delegate counters as well as the coalesced counter of this decorator.
+     * The dirty map and the device buffer are kept.
+     */
+    @Override
+    public synchronized void resetCounter() {
+        this.delegate.resetCounter();
+        this.writesCoalesced = 0;
+    }
+
+    /**
+     * @return number of writes overwriting the pending write to the same address since the last counter reset.
+     */
+    public synchronized long getWritesCoalesced() {
+        return this.writesCoalesced;
+    }
+}
@@ -0,0 +1,56 @@
+package com.cleverthis.interview.domain;
+
+/**
+ * Collects the writes of one candidate, so the strategies submit the whole write set to the padlock as one batch
+ * right before the check. The exact-length arrays required by the batched write are allocated once per batch size,
+ * so the batch does not allocate in the hot loop.
+ */
+final class WriteBatch {
+
+    private final int[][] addressesBySize;
+    private final int[][] keysBySize;
+    private final int[] pendingAddresses;
+    private final int[] pendingKeys;
+    private int size;
+
+    /**
+     * @param capacity the maximum number of writes in the batch, i.e. the keypad size
+     */
+    WriteBatch(int capacity) {
+        this.addressesBySize = new int[capacity + 1][];
+        this.keysBySize = new int[capacity + 1][];
+        this.pendingAddresses = new int[capacity];
+        this.pendingKeys = new int[capacity];
+    }
+
+    void add(int address, int keyIndex) {
+        this.pendingAddresses[this.size] = address;
+        this.pendingKeys[this.size] = keyIndex;
+        this.size++;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Submit the pending writes to the padlock as one batch. Nothing is written if the batch is empty.
+     *
+     * @param padlock the padlock
+     */
+    void flush(IPadlock padlock) {
+        if (this.size == 0) {
+            return;
+        }
+        if (this.addressesBySize[this.size] == null) {
+            this.addressesBySize[this.size] = new int[this.size];
+            this.keysBySize[this.size] = new int[this.size];
+        }
+        final int[] addresses = this.addressesBySize[this.size];
+        final int[] keys = this.keysBySize[this.size];
+        System.arraycopy(this.pendingAddresses, 0, addresses, 0, this.size);
+        System.arraycopy(this.pendingKeys, 0, keys, 0, this.size);
+        this.size = 0;
+        padlock.writeInputBuffer(addresses, keys);
+    }
+}
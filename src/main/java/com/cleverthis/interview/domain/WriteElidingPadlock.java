@@ -0,0 +1,147 @@
+package com.cleverthis.interview.domain;
+
+/**
+ * A decorator keeping a shadow copy of the padlock input buffer, so writes that would store the value already present
+ * at the address are skipped without touching the device.
+ * The shadow buffer holds the key index of every write forwarded to the padlock (the old value returned by the write
+ * only describes the previous contents), thus an address is known only after it was written through this decorator at
+ * least once. Since the padlock does not reset the input buffer on rejected attempts, the shadow stays valid for the
+ * lifetime of the decorator.
+ * It has the single-argument IPadlock constructor, so it can be used in the CUSTOM chain of the PadlockBuilder.
+ */
+public class WriteElidingPadlock implements IPadlock {
+
+    private final IPadlock delegate;
+    private final int[] shadowBuffer;
+    private final boolean[] known;
+    private long writesIssued;
+    private long writesElided;
+
+    public WriteElidingPadlock(IPadlock delegate) {
+        this.delegate = delegate;
+        this.shadowBuffer = new int[delegate.getNumpadSize()];
+        this.known = new boolean[delegate.getNumpadSize()];
+    }
+
+    @Override
+    public int getNumpadSize() {
+        return this.delegate.getNumpadSize();
+    }
+
+    /**
+     * Write the digit to the padlock input buffer unless the shadow buffer proves it is already there.
+     *
+     * @param address  The digits you want to write. Range: [0, numpadSize)
+     * @param keyIndex The key/button index you want to put here. Range: [0, numpadSize)
+     * @return The old value, null if not initialized.
+     */
+    @Override
+    public synchronized Integer writeInputBuffer(int address, int keyIndex) {
+        if (address >= 0 && address < this.known.length && this.known[address] && this.shadowBuffer[address] == keyIndex) {
+            this.writesElided++;
+            return keyIndex;
+        }
+        final Integer oldValue = this.delegate.writeInputBuffer(address, keyIndex);
+        this.writesIssued++;
+        this.shadowBuffer[address] = keyIndex;
+        this.known[address] = true;
+        return oldValue;
+    }
+
+    /**
+     * Forward only the writes of the batch changing the input buffer, still as one batch.
+     *
+     * @param addresses  The digits you want to write. Range: [0, numpadSize)
+     * @param keyIndexes The key/button indexes you want to put there, same length as the addresses.
+     * @return The old values in the order of the addresses, null if not initialized.
+     */
+    @Override
+    public synchronized Integer[] writeInputBuffer(int[] addresses, int[] keyIndexes) {
+        if (addresses.length != keyIndexes.length) {
+            throw new IllegalArgumentException("addresses and keyIndexes lengths differ: %d != %d"
+                    .formatted(addresses.length, keyIndexes.length));
+        }
+        final Integer[] oldValues = new Integer[addresses.length];
+        final int[] forwarded = new int[addresses.length];
+        int forwardedCount = 0;
+        for (int i = 0; i < addresses.length; i++) {
+            final int address = addresses[i];
+            if (address >= 0 && address < this.known.length && this.known[address] && this.shadowBuffer[address] == keyIndexes[i]) {
+                oldValues[i] = keyIndexes[i];
+            } else {
+                forwarded[forwardedCount++] = i;
+                if (address >= 0 && address < this.known.length) {
+                    // later writes of the batch to the same address see this value
+                    this.shadowBuffer[address] = keyIndexes[i];
+                    this.known[address] = true;
+                }
+            }
+        }
+        if (forwardedCount > 0) {
+            final int[] forwardedAddresses = new int[forwardedCount];
+            final int[] forwardedKeys = new int[forwardedCount];
+            for (int i = 0; i < forwardedCount; i++) {
+                forwardedAddresses[i] = addresses[forwarded[i]];
+                forwardedKeys[i] = keyIndexes[forwarded[i]];
+            }
+            final Integer[] forwardedOldValues;
+            try {
+                forwardedOldValues = this.delegate.writeInputBuffer(forwardedAddresses, forwardedKeys);
+            } catch (RuntimeException writeException) {
+                // the batch may be applied partially, forget what it was supposed to write
+                for (int address : forwardedAddresses) {
+                    if (address >= 0 && address < this.known.length) {
+                        this.known[address] = false;
+                    }
+                }
+                throw writeException;
+            }
+            for (int i = 0; i < forwardedCount; i++) {
+                oldValues[forwarded[i]] = forwardedOldValues[i];
+            }
+        }
+        this.writesIssued += forwardedCount;
+        this.writesElided += addresses.length - forwardedCount;
+        return oldValues;
+    }
+
+    @Override
+    public boolean isPasscodeCorrect() {
+        return this.delegate.isPasscodeCorrect();
+    }
+
+    @Override
+    public long getWriteCounter() {
+        return this.delegate.getWriteCounter();
+    }
+
+    @Override
+    public long getCheckCounter() {
+        return this.delegate.getCheckCounter();
+    }
+
+    /**
+     * Reset the delegate counters as well as the issued / elided counters of this decorator.
+     * The shadow buffer is kept, it reflects the device state, not the statistics.
+     */
+    @Override
+    public synchronized void resetCounter() {
+        this.delegate.resetCounter();
+        this.writesIssued = 0;
+        this.writesElided = 0;
+    }
+
+    /**
+     * @return number of writes forwarded to the padlock since the last counter reset.
+     */
+    public synchronized long getWritesIssued() {
+        return this.writesIssued;
+    }
+
+    /**
+     * @return number of writes skipped because the value was already at the address since the last counter reset.
+     */
+    public synchronized long getWritesElided() {
+        return this.writesElided;
+    }
+}
@@ -0,0 +1,32 @@
+package com.cleverthis.interview.fleet;
+
+import com.cleverthis.interview.configuration.PadlockConfiguration;
+
+import java.time.Duration;
+
+/**
+ * Result of cracking a single padlock of the fleet.
+ *
+ * @param index         position of the padlock configuration in the fleet
+ * @param configuration the padlock configuration
+ * @param strategy      name of the strategy used to crack the padlock, null if the padlock failed to build
+ * @param solution      the key index at each address of the passcode, null if not cracked
+ * @param writes        number of writes made on the padlock
+ * @param checks        number of checks made on the padlock
+ * @param elapsed       wall-clock time of the crack
+ * @param failure       the exception that stopped the crack, null on success
+ */
+public record FleetResult(
+        int index,
+        PadlockConfiguration configuration,
+        String strategy,
+        int[] solution,
+        long writes,
+        long checks,
+        Duration elapsed,
+        Throwable failure
+) {
+    public boolean isSolved() {
+        return this.solution != null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.cleverthis.interview.fleet;
+
+import java.time.Duration;
+
+/**
+ * Overall statistics of the fleet crack.
+ *
+ * @param locks   number of padlocks in the fleet
+ * @param solved  number of cracked padlocks
+ * @param failed  number of padlocks that failed to build or crack
+ * @param writes  total number of writes made on all padlocks
+ * @param elapsed wall-clock time of the whole fleet
+ */
+public record FleetSummary(int locks, int solved, int failed, long writes, Duration elapsed) {
+
+    /**
+     * @return cracked padlocks per second
+     */
+    public double throughput() {
+        final double seconds = this.elapsed.toNanos() / 1e9;
+        return seconds > 0 ? this.solved / seconds : 0;
+    }
+}
@@ -0,0 +1,166 @@
+package com.cleverthis.interview.fleet;
+
+import com.cleverthis.interview.configuration.PadlockConfiguration;
+import com.cleverthis.interview.domain.CrackStrategy;
+import com.cleverthis.interview.domain.CrackStrategySelector;
+import com.cleverthis.interview.domain.IPadlock;
+import com.cleverthis.interview.domain.PadlockBuilder;
+import com.cleverthis.interview.domain.PadlockCracker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cracks many independent padlocks at once. Each padlock is built through the PadlockBuilder and cracked by its own
+ * PadlockCracker on its own virtual thread (see {@link VirtualThreads}), so thousands of padlocks blocked in slow writes
+ * cost almost nothing in threads.
+ * The results are streamed to the consumer on the calling thread as soon as each padlock is solved.
+ * At most the given number of padlocks are in flight; once reached, the next configuration is not read before a result
+ * is delivered, so a lazily parsed manifest is never held in memory as a whole (and on the JVMs without virtual threads
+ * the fleet does not start a platform thread per padlock).
+ */
+public class PadlockFleet {
+
+    /**
+     * Default maximum number of padlocks cracked at once.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+    private static final Logger logger = Logger.getLogger(PadlockFleet.class.getName());
+
+    private final Function<IPadlock, CrackStrategy> strategyFactory;
+    private final int maxInFlight;
+
+    /**
+     * Instantiate the fleet selecting the cheapest registered strategy for each padlock.
+     */
+    public PadlockFleet() {
+        this(CrackStrategySelector.fromServiceLoader()::select);
+    }
+
+    /**
+     * Instantiate the fleet with custom strategy choice, cracking at most {@value #DEFAULT_MAX_IN_FLIGHT} padlocks at once.
+     *
+     * @param strategyFactory provides the strategy for each built padlock, called on the padlock thread
+     */
+    public PadlockFleet(Function<IPadlock, CrackStrategy> strategyFactory) {
+        this(strategyFactory, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Instantiate the fleet with custom strategy choice.
+     *
+     * @param strategyFactory provides the strategy for each built padlock, called on the padlock thread
+     * @param maxInFlight     maximum number of padlocks cracked at once
+     */
+    public PadlockFleet(Function<IPadlock, CrackStrategy> strategyFactory, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be a positive number");
+        }
+        this.strategyFactory = strategyFactory;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Crack all padlocks of the fleet. The configurations are dispatched as they are iterated, so the iterable may be
+     * a lazily parsed manifest. The iteration advances only while fewer than maxInFlight padlocks are being cracked.
+     *
+     * @param configurations the padlock configurations
+     * @param resultConsumer receives the result of each padlock in the order of completion, on the calling thread
+     * @return the overall statistics
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the results
+     */
+    public FleetSummary crack(Iterable<PadlockConfiguration> configurations, Consumer<FleetResult> resultConsumer)
+            throws InterruptedException {
+        final long start = System.nanoTime();
+        final ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor();
+        final CompletionService<FleetResult> completionService = new ExecutorCompletionService<>(executor);
+        final Tally tally = new Tally();
+        try {
+            int submitted = 0;
+            for (PadlockConfiguration configuration : configurations) {
+                final int index = submitted++;
+                completionService.submit(() -> this.crackOne(index, configuration));
+                // backpressure: the next configuration is read only when a padlock slot is free
+                while (submitted - tally.delivered >= this.maxInFlight) {
+                    tally.deliver(completionService.take(), resultConsumer);
+                }
+                // stream the results already available while the configurations are still being dispatched
+                for (Future<FleetResult> done = completionService.poll(); done != null; done = completionService.poll()) {
+                    tally.deliver(done, resultConsumer);
+                }
+            }
+            while (tally.delivered < submitted) {
+                tally.deliver(completionService.take(), resultConsumer);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new FleetSummary(tally.delivered, tally.solved, tally.delivered - tally.solved, tally.writes,
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Build and crack a single padlock, any failure is reported in the result. The closeable padlock (e.g. the CLI tool
+     * process or the metrics MBean) is closed once cracked.
+     */
+    private FleetResult crackOne(int index, PadlockConfiguration configuration) {
+        final long start = System.nanoTime();
+        IPadlock padlock = null;
+        String strategyName = null;
+        try {
+            padlock = PadlockBuilder.newBuilder().withPadlockConfiguration(configuration).build();
+            final CrackStrategy strategy = this.strategyFactory.apply(padlock);
+            strategyName = strategy.getName();
+            final int[] solution = new PadlockCracker(padlock, strategy).execute();
+            return new FleetResult(index, configuration, strategyName, solution, padlock.getWriteCounter(),
+                    padlock.getCheckCounter(), Duration.ofNanos(System.nanoTime() - start), null);
+        } catch (RuntimeException crackException) {
+            return new FleetResult(index, configuration, strategyName, null,
+                    padlock != null ? padlock.getWriteCounter() : 0, padlock != null ? padlock.getCheckCounter() : 0,
+                    Duration.ofNanos(System.nanoTime() - start), crackException);
+        } finally {
+            if (padlock instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (IOException | RuntimeException closeException) {
+                    logger.log(Level.WARNING, "Failed to close padlock #" + index, closeException);
+                }
+            }
+        }
+    }
+
+    /**
+     * Running statistics, only touched by the calling thread.
+     */
+    private static final class Tally {
+        private int delivered;
+        private int solved;
+        private long writes;
+
+        void deliver(Future<FleetResult> done, Consumer<FleetResult> resultConsumer) throws InterruptedException {
+            final FleetResult result;
+            try {
+                result = done.get();
+            } catch (ExecutionException unexpected) {
+                // crackOne reports all failures in the result
+                throw new IllegalStateException(unexpected.getCause());
+            }
+            this.delivered++;
+            this.writes += result.writes();
+            if (result.isSolved()) {
+                this.solved++;
+            }
+            resultConsumer.accept(result);
+        }
+    }
+}
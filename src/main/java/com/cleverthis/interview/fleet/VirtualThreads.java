@@ -0,0 +1,57 @@
+package com.cleverthis.interview.fleet;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Access to the virtual-thread-per-task executor. The project is compiled for Java 17, so the executor is looked up
+ * at runtime: on Java 21+ every task gets its own virtual thread, on older runtimes it falls back to the cached pool
+ * of platform threads.
+ */
+public final class VirtualThreads {
+
+    private static final Logger logger = Logger.getLogger(VirtualThreads.class.getName());
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = lookupVirtualThreadExecutor();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return true if the runtime supports virtual threads.
+     */
+    public static boolean isSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor that starts a new (virtual if supported) thread for each task.
+     *
+     * @return the executor, to be shut down by the caller.
+     */
+    public static ExecutorService newThreadPerTaskExecutor() {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact();
+            } catch (Throwable invocationException) {
+                if (logger.isLoggable(Level.WARNING)) {
+                    logger.warning("Failed to create virtual thread executor due to %s".formatted(invocationException.getMessage()));
+                }
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+
+    private static MethodHandle lookupVirtualThreadExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException notSupported) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.cleverthis.interview.metrics;
+
+import com.cleverthis.interview.domain.IPadlock;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An instrumenting decorator recording the latency histograms, the rates and the in-flight operations of the padlock
+ * (see {@link PadlockMetrics}), published as a JMX MBean until closed, and emitting the JFR events of each write
+ * ({@link PadlockWriteEvent}) and each check ({@link PadlockCheckEvent}).
+ * The hot path costs two nanoTime reads, a few atomic increments and the JFR enabled check, so it can be left on.
+ * It has the single-argument IPadlock constructor, so it can be used in the CUSTOM chain of the PadlockBuilder, that one
+ * names the MBean by a sequence number. Both constructors register the MBean, so the owner of the padlock has to
+ * {@link #close()} it, as the fleet does with every Closeable padlock it builds.
+ */
+public class MetricsPadlock implements IPadlock, Closeable {
+
+    private static final Logger logger = Logger.getLogger(MetricsPadlock.class.getName());
+    private static final AtomicInteger anonymousLocks = new AtomicInteger();
+
+    private final IPadlock delegate;
+    private final PadlockMetrics metrics;
+    private final ObjectName objectName;
+
+    /**
+     * Instantiate the decorator publishing the metrics as the MBean named padlock-N until closed.
+     *
+     * @param delegate the instrumented padlock
+     */
+    public MetricsPadlock(IPadlock delegate) {
+        this(delegate, "padlock-" + anonymousLocks.incrementAndGet());
+    }
+
+    /**
+     * Instantiate the decorator publishing the metrics as the MBean until closed.
+     *
+     * @param delegate the instrumented padlock
+     * @param lockName the name of the MBean, e.g. the lock identity
+     */
+    public MetricsPadlock(IPadlock delegate, String lockName) {
+        this.delegate = delegate;
+        this.metrics = new PadlockMetrics(lockName);
+        this.objectName = register(this.metrics);
+    }
+
+    @Override
+    public int getNumpadSize() {
+        return this.delegate.getNumpadSize();
+    }
+
+    @Override
+    public Integer writeInputBuffer(int address, int keyIndex) {
+        final PadlockWriteEvent event = new PadlockWriteEvent();
+        event.begin();
+        final long start = this.metrics.begin();
+        try {
+            return this.delegate.writeInputBuffer(address, keyIndex);
+        } finally {
+            this.metrics.endWrite(start, 1);
+            if (event.shouldCommit()) {
+                event.lockName = this.metrics.getLockName();
+                event.address = address;
+                event.keyIndex = keyIndex;
+                event.digits = 1;
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public Integer[] writeInputBuffer(int[] addresses, int[] keyIndexes) {
+        final PadlockWriteEvent event = new PadlockWriteEvent();
+        event.begin();
+        final long start = this.metrics.begin();
+        try {
+            return this.delegate.writeInputBuffer(addresses, keyIndexes);
+        } finally {
+            this.metrics.endWrite(start, addresses.length);
+            if (event.shouldCommit()) {
+                event.lockName = this.metrics.getLockName();
+                event.address = -1;
+                event.keyIndex = -1;
+                event.digits = addresses.length;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Forward the asynchronous write, so a pipelining delegate keeps pipelining. The write is in flight until the
+     * future completes.
+     */
+    @Override
+    public CompletableFuture<Integer> writeInputBufferAsync(int address, int keyIndex) {
+        final PadlockWriteEvent event = new PadlockWriteEvent();
+        event.begin();
+        final long start = this.metrics.begin();
+        final CompletableFuture<Integer> oldValue;
+        try {
+            oldValue = this.delegate.writeInputBufferAsync(address, keyIndex);
+        } catch (RuntimeException writeException) {
+            this.metrics.endWrite(start, 1);
+            throw writeException;
+        }
+        return oldValue.whenComplete((value, failure) -> {
+            this.metrics.endWrite(start, 1);
+            if (event.shouldCommit()) {
+                event.lockName = this.metrics.getLockName();
+                event.address = address;
+                event.keyIndex = keyIndex;
+                event.digits = 1;
+                event.commit();
+            }
+        });
+    }
+
+    @Override
+    public boolean isPasscodeCorrect() {
+        final PadlockCheckEvent event = new PadlockCheckEvent();
+        event.begin();
+        final long start = this.metrics.begin();
+        boolean correct = false;
+        try {
+            correct = this.delegate.isPasscodeCorrect();
+            return correct;
+        } finally {
+            this.metrics.endCheck(start);
+            if (event.shouldCommit()) {
+                event.lockName = this.metrics.getLockName();
+                event.correct = correct;
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public long getWriteCounter() {
+        return this.delegate.getWriteCounter();
+    }
+
+    @Override
+    public long getCheckCounter() {
+        return this.delegate.getCheckCounter();
+    }
+
+    @Override
+    public void resetCounter() {
+        this.delegate.resetCounter();
+    }
+
+    /**
+     * @return the metrics of this padlock
+     */
+    public PadlockMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * @return the JMX name of the metrics, null if it was not registered
+     */
+    public ObjectName getObjectName() {
+        return this.objectName;
+    }
+
+    /**
+     * Unregister the MBean, the delegate is not closed.
+     */
+    @Override
+    public void close() {
+        if (this.objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+        } catch (InstanceNotFoundException alreadyUnregistered) {
+            // closed twice
+        } catch (JMException jmxException) {
+            logger.log(Level.WARNING, "Failed to unregister padlock metrics " + this.objectName, jmxException);
+        }
+    }
+
+    /**
+     * @return the name of the registered MBean, null if it cannot be registered (the metrics are still recorded)
+     */
+    private static ObjectName register(PadlockMetrics metrics) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName("%s:type=Padlock,name=%s"
+                    .formatted(PadlockMetrics.DOMAIN, ObjectName.quote(metrics.getLockName())));
+            server.registerMBean(metrics, name);
+            return name;
+        } catch (InstanceAlreadyExistsException duplicate) {
+            if (logger.isLoggable(Level.WARNING)) {
+                logger.warning("Padlock metrics %s already registered, the new padlock is not published"
+                        .formatted(metrics.getLockName()));
+            }
+        } catch (JMException jmxException) {
+            logger.log(Level.WARNING, "Failed to register padlock metrics " + metrics.getLockName(), jmxException);
+        }
+        return null;
+    }
+}
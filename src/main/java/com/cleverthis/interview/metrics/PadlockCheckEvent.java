@@ -0,0 +1,23 @@
+package com.cleverthis.interview.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a passcode check.
+ */
+@Name("com.cleverthis.interview.PadlockCheck")
+@Label("Padlock Check")
+@Category("Padlock")
+@Description("Check of the passcode in the padlock input buffer")
+public class PadlockCheckEvent extends Event {
+
+    @Label("Lock Name")
+    String lockName;
+
+    @Label("Correct")
+    boolean correct;
+}
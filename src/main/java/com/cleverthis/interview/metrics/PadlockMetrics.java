@@ -0,0 +1,169 @@
+package com.cleverthis.interview.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of one padlock: the latency histograms of the writes and checks, the operation rates and the number
+ * of operations in flight. Recording is lock-free, the reading side does all the computation.
+ */
+public final class PadlockMetrics implements PadlockMetricsMBean {
+
+    /**
+     * The JMX domain of the padlock metrics.
+     */
+    public static final String DOMAIN = "com.cleverthis.interview";
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    private final String lockName;
+    private final LatencyHistogram writeLatency = new LatencyHistogram();
+    private final LatencyHistogram checkLatency = new LatencyHistogram();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder checks = new LongAdder();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final Rate writeRate = new Rate(this.writes);
+    private final Rate checkRate = new Rate(this.checks);
+
+    public PadlockMetrics(String lockName) {
+        this.lockName = lockName;
+    }
+
+    /**
+     * @return the start time of the operation to be passed to the matching end method
+     */
+    long begin() {
+        this.inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    void endWrite(long start, int count) {
+        final long elapsed = System.nanoTime() - start;
+        this.inFlight.decrementAndGet();
+        // a batch is recorded as count writes of the average duration
+        final long perWrite = elapsed / Math.max(1, count);
+        for (int i = 0; i < count; i++) {
+            this.writeLatency.record(perWrite);
+        }
+        this.writes.add(count);
+    }
+
+    void endCheck(long start) {
+        final long elapsed = System.nanoTime() - start;
+        this.inFlight.decrementAndGet();
+        this.checkLatency.record(elapsed);
+        this.checks.increment();
+    }
+
+    public LatencyHistogram getWriteLatency() {
+        return this.writeLatency;
+    }
+
+    public LatencyHistogram getCheckLatency() {
+        return this.checkLatency;
+    }
+
+    @Override
+    public String getLockName() {
+        return this.lockName;
+    }
+
+    @Override
+    public long getWriteCount() {
+        return this.writes.sum();
+    }
+
+    @Override
+    public long getCheckCount() {
+        return this.checks.sum();
+    }
+
+    @Override
+    public long getInFlight() {
+        return this.inFlight.get();
+    }
+
+    @Override
+    public double getWritesPerSecond() {
+        return this.writeRate.perSecond();
+    }
+
+    @Override
+    public double getChecksPerSecond() {
+        return this.checkRate.perSecond();
+    }
+
+    @Override
+    public double getWriteP50Micros() {
+        return this.writeLatency.getPercentile(0.5) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getWriteP99Micros() {
+        return this.writeLatency.getPercentile(0.99) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getWriteP999Micros() {
+        return this.writeLatency.getPercentile(0.999) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getCheckP50Micros() {
+        return this.checkLatency.getPercentile(0.5) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getCheckP99Micros() {
+        return this.checkLatency.getPercentile(0.99) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getCheckP999Micros() {
+        return this.checkLatency.getPercentile(0.999) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public void resetStatistics() {
+        this.writeLatency.reset();
+        this.checkLatency.reset();
+        this.writes.reset();
+        this.checks.reset();
+        this.writeRate.reset();
+        this.checkRate.reset();
+    }
+
+    /**
+     * Rate of the counter over the interval since the previous reading, the interval is at least one second,
+     * shorter ones report the rate of the previous interval.
+     */
+    private static final class Rate {
+        private final LongAdder counter;
+        private long intervalStart = System.nanoTime();
+        private long intervalCount;
+        private double perSecond;
+
+        Rate(LongAdder counter) {
+            this.counter = counter;
+        }
+
+        synchronized double perSecond() {
+            final long now = System.nanoTime();
+            final long elapsed = now - this.intervalStart;
+            if (elapsed >= NANOS_PER_SECOND) {
+                final long count = this.counter.sum();
+                this.perSecond = (count - this.intervalCount) * (double) NANOS_PER_SECOND / elapsed;
+                this.intervalStart = now;
+                this.intervalCount = count;
+            }
+            return this.perSecond;
+        }
+
+        synchronized void reset() {
+            this.intervalStart = System.nanoTime();
+            this.intervalCount = 0;
+            this.perSecond = 0;
+        }
+    }
+}
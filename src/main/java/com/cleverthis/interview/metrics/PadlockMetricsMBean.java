@@ -0,0 +1,39 @@
+package com.cleverthis.interview.metrics;
+
+/**
+ * JMX view of the metrics of one padlock, registered by the {@link MetricsPadlock} as
+ * {@value PadlockMetrics#DOMAIN}:type=Padlock,name=&lt;lock name&gt;.
+ * The latencies are in microseconds, the rates are measured over the interval since the previous rate reading
+ * (at least one second), so a monitoring tool polling the bean sees the recent rates.
+ */
+public interface PadlockMetricsMBean {
+
+    String getLockName();
+
+    long getWriteCount();
+
+    long getCheckCount();
+
+    long getInFlight();
+
+    double getWritesPerSecond();
+
+    double getChecksPerSecond();
+
+    double getWriteP50Micros();
+
+    double getWriteP99Micros();
+
+    double getWriteP999Micros();
+
+    double getCheckP50Micros();
+
+    double getCheckP99Micros();
+
+    double getCheckP999Micros();
+
+    /**
+     * Forget the recorded latencies and counts, the padlock counters are not touched.
+     */
+    void resetStatistics();
+}
@@ -0,0 +1,31 @@
+package com.cleverthis.interview.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a write to the padlock input buffer, a batch is one event with the number of the written digits.
+ */
+@Name("com.cleverthis.interview.PadlockWrite")
+@Label("Padlock Write")
+@Category("Padlock")
+@Description("Write to the padlock input buffer")
+public class PadlockWriteEvent extends Event {
+
+    @Label("Lock Name")
+    String lockName;
+
+    @Label("Address")
+    @Description("The written address, -1 for a batch")
+    int address;
+
+    @Label("Key Index")
+    @Description("The written key index, -1 for a batch")
+    int keyIndex;
+
+    @Label("Digits")
+    int digits;
+}
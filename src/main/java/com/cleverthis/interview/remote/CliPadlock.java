@@ -0,0 +1,251 @@
+package com.cleverthis.interview.remote;
+
+import com.cleverthis.interview.configuration.PadlockConfiguration;
+import com.cleverthis.interview.domain.IPadlock;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The padlock accessed through the vendor command line tool.
+ * The tool is started once and kept alive, the commands of the {@link CliProtocol} are streamed to its standard input
+ * and the answers read from its standard output, so an operation costs a line round trip instead of a process start.
+ * A batched write is sent as one command line.
+ * <p>
+ * If the tool dies or its pipes break, it is restarted and the failed command is sent once more. The restarted tool may
+ * not have the input buffer contents (e.g. when it keeps them itself), so the values written so far are kept in a shadow
+ * buffer and replayed to the restarted tool as one batch before the failed command. The replayed writes are idempotent
+ * when the device kept its buffer, and they are counted by the device write counter.
+ * The restart keeps the input buffer, not the passcode: a tool serving the same device keeps it, but a simulating tool
+ * such as {@link PadlockCliStub} serves a new padlock with a new passcode after the restart.
+ */
+public class CliPadlock implements IPadlock, Closeable {
+
+    private static final Logger logger = Logger.getLogger(CliPadlock.class.getName());
+    private static final int UNSET = -1;
+
+    private final List<String> command;
+    private Process process;
+    private BufferedWriter toolInput;
+    private BufferedReader toolOutput;
+    private int numpadSize = -1;
+    private int restarts;
+    // key index written at each address, UNSET if not written yet
+    private int[] shadow = new int[0];
+
+    /**
+     * Starts the tool.
+     *
+     * @param command the command line of the padlock tool
+     * @throws UncheckedIOException if the tool cannot be started
+     */
+    public CliPadlock(List<String> command) {
+        this.command = List.copyOf(command);
+        this.start();
+    }
+
+    /**
+     * Starts the tool of the endpoint configuration.
+     *
+     * @param endpoint the endpoint configuration with the command line of the tool
+     * @return the CLI padlock
+     * @throws IllegalArgumentException if the endpoint or its command is missing
+     */
+    public static CliPadlock from(PadlockConfiguration.PadlockEndpoint endpoint) {
+        if (endpoint == null || endpoint.command() == null || endpoint.command().isEmpty()) {
+            throw new IllegalArgumentException("CLI padlock requires the endpoint command in the configuration");
+        }
+        return new CliPadlock(endpoint.command());
+    }
+
+    @Override
+    public synchronized int getNumpadSize() {
+        if (this.numpadSize < 0) {
+            this.numpadSize = Integer.parseInt(this.call(CliProtocol.NUMPAD_SIZE));
+        }
+        return this.numpadSize;
+    }
+
+    @Override
+    public synchronized Integer writeInputBuffer(int address, int keyIndex) {
+        final Integer oldValue = oldValue(this.call(CliProtocol.WRITE + " " + address + " " + keyIndex));
+        this.shadow(address, keyIndex);
+        return oldValue;
+    }
+
+    @Override
+    public synchronized Integer[] writeInputBuffer(int[] addresses, int[] keyIndexes) {
+        if (addresses.length != keyIndexes.length) {
+            throw new IllegalArgumentException("addresses and keyIndexes lengths differ: %d != %d"
+                    .formatted(addresses.length, keyIndexes.length));
+        }
+        final StringBuilder line = new StringBuilder(CliProtocol.BATCH);
+        for (int i = 0; i < addresses.length; i++) {
+            line.append(' ').append(addresses[i]).append(':').append(keyIndexes[i]);
+        }
+        final String answer = this.call(line.toString());
+        for (int i = 0; i < addresses.length; i++) {
+            this.shadow(addresses[i], keyIndexes[i]);
+        }
+        final String[] values = answer.isEmpty() ? new String[0] : answer.split(" ");
+        final Integer[] oldValues = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            oldValues[i] = oldValue(values[i]);
+        }
+        return oldValues;
+    }
+
+    @Override
+    public boolean isPasscodeCorrect() {
+        return Boolean.parseBoolean(this.call(CliProtocol.CHECK));
+    }
+
+    @Override
+    public long getWriteCounter() {
+        return Long.parseLong(this.call(CliProtocol.COUNTERS).split(" ")[0]);
+    }
+
+    @Override
+    public long getCheckCounter() {
+        return Long.parseLong(this.call(CliProtocol.COUNTERS).split(" ")[1]);
+    }
+
+    @Override
+    public void resetCounter() {
+        this.call(CliProtocol.RESET_COUNTERS);
+    }
+
+    /**
+     * @return the number of the tool restarts
+     */
+    public synchronized int getRestarts() {
+        return this.restarts;
+    }
+
+    /**
+     * Closes the tool input, so the tool can exit, and kills it if it does not.
+     */
+    @Override
+    public synchronized void close() {
+        this.closePipes();
+        this.process.destroy();
+    }
+
+    synchronized Process getProcess() {
+        return this.process;
+    }
+
+    /**
+     * Sends the command and reads the answer, restarting the tool once if it failed.
+     *
+     * @return the answer without the OK status
+     */
+    private synchronized String call(String line) {
+        String answer;
+        try {
+            answer = this.exchange(line);
+        } catch (IOException toolFailure) {
+            if (logger.isLoggable(Level.WARNING)) {
+                logger.warning("Padlock tool failed (%s), restarting %s".formatted(toolFailure.getMessage(), this.command));
+            }
+            this.process.destroyForcibly();
+            this.closePipes();
+            this.start();
+            this.restarts++;
+            try {
+                this.replayShadow();
+                answer = this.exchange(line);
+            } catch (IOException repeatedFailure) {
+                throw new UncheckedIOException(repeatedFailure);
+            }
+        }
+        return parse(answer);
+    }
+
+    /**
+     * Restores the input buffer contents in the restarted tool.
+     */
+    private void replayShadow() throws IOException {
+        final StringBuilder line = new StringBuilder(CliProtocol.BATCH);
+        for (int address = 0; address < this.shadow.length; address++) {
+            if (this.shadow[address] != UNSET) {
+                line.append(' ').append(address).append(':').append(this.shadow[address]);
+            }
+        }
+        if (line.length() > CliProtocol.BATCH.length()) {
+            parse(this.exchange(line.toString()));
+        }
+    }
+
+    private void shadow(int address, int keyIndex) {
+        if (address >= this.shadow.length) {
+            final int length = this.shadow.length;
+            this.shadow = Arrays.copyOf(this.shadow, address + 1);
+            Arrays.fill(this.shadow, length, this.shadow.length, UNSET);
+        }
+        this.shadow[address] = keyIndex;
+    }
+
+    private static String parse(String answer) {
+        final int separator = answer.indexOf(' ');
+        final String status = separator < 0 ? answer : answer.substring(0, separator);
+        final String value = separator < 0 ? "" : answer.substring(separator + 1);
+        return switch (status) {
+            case CliProtocol.OK -> value;
+            case CliProtocol.ILLEGAL_ARGUMENT -> throw new IllegalArgumentException(value);
+            case CliProtocol.ILLEGAL_STATE -> throw new IllegalStateException(value);
+            default -> throw new UncheckedIOException(new IOException("Padlock tool failed: " + answer));
+        };
+    }
+
+    private String exchange(String line) throws IOException {
+        this.toolInput.write(line);
+        this.toolInput.newLine();
+        this.toolInput.flush();
+        final String answer = this.toolOutput.readLine();
+        if (answer == null) {
+            throw new EOFException("Padlock tool closed its output");
+        }
+        return answer;
+    }
+
+    private void start() {
+        try {
+            this.process = new ProcessBuilder(this.command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+        } catch (IOException startException) {
+            throw new UncheckedIOException(startException);
+        }
+        this.toolInput = new BufferedWriter(new OutputStreamWriter(this.process.getOutputStream(), StandardCharsets.UTF_8));
+        this.toolOutput = new BufferedReader(new InputStreamReader(this.process.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private void closePipes() {
+        try {
+            this.toolInput.close();
+        } catch (IOException closeException) {
+            logger.log(Level.FINE, "Failed to close the padlock tool input", closeException);
+        }
+        try {
+            this.toolOutput.close();
+        } catch (IOException closeException) {
+            logger.log(Level.FINE, "Failed to close the padlock tool output", closeException);
+        }
+    }
+
+    private static Integer oldValue(String value) {
+        return CliProtocol.NULL_VALUE.equals(value) ? null : Integer.valueOf(value);
+    }
+}
@@ -0,0 +1,22 @@
+package com.cleverthis.interview.remote;
+
+import com.cleverthis.interview.configuration.PadlockAccessType;
+import com.cleverthis.interview.configuration.PadlockConfiguration;
+import com.cleverthis.interview.domain.IPadlock;
+import com.cleverthis.interview.domain.PadlockProvider;
+
+/**
+ * Provider of the {@link CliPadlock}, configured by the endpoint section of the padlock configuration.
+ */
+public class CliPadlockProvider implements PadlockProvider {
+
+    @Override
+    public PadlockAccessType getAccessType() {
+        return PadlockAccessType.CLI;
+    }
+
+    @Override
+    public IPadlock create(PadlockConfiguration configuration, int keypadSize) {
+        return CliPadlock.from(configuration != null ? configuration.endpoint() : null);
+    }
+}
@@ -0,0 +1,34 @@
+package com.cleverthis.interview.remote;
+
+/**
+ * The line protocol of the padlock command line tool shared by the {@link CliPadlock} and the {@link PadlockCliStub}.
+ * The tool reads one command per line on its standard input and answers each one with one line on its standard output.
+ * <pre>
+ * W address keyIndex               -> OK oldValue (or OK null)
+ * B address:keyIndex ...           -> OK oldValue ...
+ * C                                -> OK true | OK false
+ * N                                -> OK numpadSize
+ * S                                -> OK writeCounter checkCounter
+ * R                                -> OK
+ * </pre>
+ * The failures are answered by IAE message (IllegalArgumentException), ISE message (IllegalStateException)
+ * or ERR message (any other failure).
+ */
+final class CliProtocol {
+
+    static final String WRITE = "W";
+    static final String BATCH = "B";
+    static final String CHECK = "C";
+    static final String NUMPAD_SIZE = "N";
+    static final String COUNTERS = "S";
+    static final String RESET_COUNTERS = "R";
+
+    static final String OK = "OK";
+    static final String ILLEGAL_ARGUMENT = "IAE";
+    static final String ILLEGAL_STATE = "ISE";
+    static final String FAILURE = "ERR";
+    static final String NULL_VALUE = "null";
+
+    private CliProtocol() {
+    }
+}
@@ -0,0 +1,62 @@
+package com.cleverthis.interview.remote;
+
+import com.cleverthis.interview.domain.IPadlock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * One simulated padlock of the {@link PadlockFarm}.
+ * The operation takes effect on arrival, but its response is released only when the simulated device would finish it:
+ * the device handles one operation at a time, each write takes the write latency and the check is immediate.
+ * No thread waits for the latency, the delayed responses are released by the farm scheduler.
+ */
+final class FarmSession {
+
+    private final PadlockFarm farm;
+    private final IPadlock padlock;
+    private long busyUntilNanos;
+
+    FarmSession(PadlockFarm farm, IPadlock padlock) {
+        this.farm = farm;
+        this.padlock = padlock;
+    }
+
+    IPadlock getPadlock() {
+        return this.padlock;
+    }
+
+    CompletableFuture<Integer> write(int address, int keyIndex) {
+        return this.delayed(1, () -> this.padlock.writeInputBuffer(address, keyIndex));
+    }
+
+    CompletableFuture<Integer[]> write(int[] addresses, int[] keyIndexes) {
+        return this.delayed(addresses.length, () -> this.padlock.writeInputBuffer(addresses, keyIndexes));
+    }
+
+    CompletableFuture<Boolean> check() {
+        return this.delayed(0, this.padlock::isPasscodeCorrect);
+    }
+
+    /**
+     * Runs the operation now and releases its result (or failure) after the device finished all preceding writes
+     * and the given number of the writes of this operation.
+     */
+    private <T> CompletableFuture<T> delayed(int writes, Supplier<T> operation) {
+        final long delayNanos;
+        T result = null;
+        RuntimeException failure = null;
+        synchronized (this) {
+            try {
+                result = operation.get();
+            } catch (RuntimeException operationFailure) {
+                failure = operationFailure;
+            }
+            final long now = System.nanoTime();
+            final long start = Math.max(now, this.busyUntilNanos);
+            this.busyUntilNanos = start + (failure == null ? writes * this.farm.getWriteLatency().toNanos() : 0);
+            delayNanos = this.busyUntilNanos - now;
+        }
+        return this.farm.release(result, failure, delayNanos);
+    }
+}
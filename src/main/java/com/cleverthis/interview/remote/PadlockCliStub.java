@@ -0,0 +1,91 @@
+package com.cleverthis.interview.remote;
+
+import com.cleverthis.interview.domain.IPadlock;
+import com.cleverthis.interview.domain.PadlockImplDelegate;
+import com.cleverthis.interview.padlock.PadlockImpl;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Stand-in of the vendor padlock command line tool: serves a new PadlockImpl over the {@link CliProtocol}
+ * on the standard input and output until the input is closed.
+ */
+public final class PadlockCliStub {
+
+    private final IPadlock padlock;
+
+    PadlockCliStub(IPadlock padlock) {
+        this.padlock = padlock;
+    }
+
+    /**
+     * @param argv the keypad size
+     * @throws IOException if the standard streams fail
+     */
+    public static void main(String[] argv) throws IOException {
+        new PadlockCliStub(new PadlockImplDelegate(new PadlockImpl(Integer.parseInt(argv[0]))))
+                .serve(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)),
+                        new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Answers the commands until the input is closed, the answers are flushed once no further command is waiting.
+     */
+    void serve(BufferedReader input, BufferedWriter output) throws IOException {
+        String command;
+        while ((command = input.readLine()) != null) {
+            output.write(this.answer(command));
+            output.newLine();
+            if (!input.ready()) {
+                output.flush();
+            }
+        }
+        output.flush();
+    }
+
+    private String answer(String command) {
+        final String[] words = command.trim().split(" ");
+        try {
+            return CliProtocol.OK + switch (words[0]) {
+                case CliProtocol.WRITE -> " " + this.padlock.writeInputBuffer(Integer.parseInt(words[1]), Integer.parseInt(words[2]));
+                case CliProtocol.BATCH -> {
+                    final int[] addresses = new int[words.length - 1];
+                    final int[] keyIndexes = new int[words.length - 1];
+                    for (int i = 1; i < words.length; i++) {
+                        final int separator = words[i].indexOf(':');
+                        addresses[i - 1] = Integer.parseInt(words[i].substring(0, separator));
+                        keyIndexes[i - 1] = Integer.parseInt(words[i].substring(separator + 1));
+                    }
+                    yield Arrays.stream(this.padlock.writeInputBuffer(addresses, keyIndexes))
+                            .map(oldValue -> " " + oldValue)
+                            .collect(Collectors.joining());
+                }
+                case CliProtocol.CHECK -> " " + this.padlock.isPasscodeCorrect();
+                case CliProtocol.NUMPAD_SIZE -> " " + this.padlock.getNumpadSize();
+                case CliProtocol.COUNTERS -> " " + this.padlock.getWriteCounter() + " " + this.padlock.getCheckCounter();
+                case CliProtocol.RESET_COUNTERS -> {
+                    this.padlock.resetCounter();
+                    yield "";
+                }
+                default -> throw new UnsupportedOperationException("Unknown command: " + command);
+            };
+        } catch (IllegalArgumentException | IndexOutOfBoundsException invalidArgument) {
+            return CliProtocol.ILLEGAL_ARGUMENT + " " + singleLine(invalidArgument);
+        } catch (IllegalStateException invalidState) {
+            return CliProtocol.ILLEGAL_STATE + " " + singleLine(invalidState);
+        } catch (RuntimeException failure) {
+            return CliProtocol.FAILURE + " " + singleLine(failure);
+        }
+    }
+
+    private static String singleLine(RuntimeException exception) {
+        return String.valueOf(exception.getMessage()).replace('\n', ' ');
+    }
+}
@@ -0,0 +1,113 @@
+package com.cleverthis.interview.remote;
+
+import com.cleverthis.interview.domain.PadlockImplDelegate;
+import com.cleverthis.interview.padlock.PadlockImpl;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hosts many simulated PadlockImpl sessions in one JVM for the capacity tests of the cracking clients.
+ * A session costs the PadlockImpl itself (two buffers of the keypad size) and a few fields.
+ * <p>
+ * The write latency is simulated by the farm: the PadlockImpl write must return immediately (run with -Dfast=true)
+ * and the farm releases the response when the simulated device would finish the write. The responses are released
+ * by a single scheduler thread, so thousands of sleeping writes occupy no thread at all.
+ */
+public class PadlockFarm implements AutoCloseable {
+
+    /**
+     * Default simulated write latency, the one of PadlockImpl.
+     */
+    public static final Duration DEFAULT_WRITE_LATENCY = Duration.ofSeconds(1);
+
+    private final Duration writeLatency;
+    private final Map<Long, FarmSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong sessionIds = new AtomicLong();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "padlock-farm-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PadlockFarm() {
+        this(DEFAULT_WRITE_LATENCY);
+    }
+
+    /**
+     * @param writeLatency the simulated duration of one write
+     * @throws IllegalStateException if the PadlockImpl latency is not disabled with -Dfast=true
+     */
+    public PadlockFarm(Duration writeLatency) {
+        if (!Boolean.getBoolean("fast")) {
+            throw new IllegalStateException("The farm simulates the write latency itself, run it with -Dfast=true");
+        }
+        this.writeLatency = writeLatency;
+    }
+
+    public Duration getWriteLatency() {
+        return this.writeLatency;
+    }
+
+    /**
+     * Creates the session with a new PadlockImpl.
+     *
+     * @param numpadSize the keypad size
+     * @return the session id
+     */
+    public long createSession(int numpadSize) {
+        final long id = this.sessionIds.incrementAndGet();
+        this.sessions.put(id, new FarmSession(this, new PadlockImplDelegate(new PadlockImpl(numpadSize))));
+        return id;
+    }
+
+    /**
+     * @param id the session id
+     * @return true if the session existed
+     */
+    public boolean closeSession(long id) {
+        return this.sessions.remove(id) != null;
+    }
+
+    public int getSessionCount() {
+        return this.sessions.size();
+    }
+
+    /**
+     * Stops releasing the delayed responses and drops all sessions.
+     */
+    @Override
+    public void close() {
+        this.scheduler.shutdownNow();
+        this.sessions.clear();
+    }
+
+    /**
+     * @throws NoSuchElementException if there is no such session
+     */
+    FarmSession session(long id) {
+        final FarmSession session = this.sessions.get(id);
+        if (session == null) {
+            throw new NoSuchElementException("No such padlock session: " + id);
+        }
+        return session;
+    }
+
+    <T> CompletableFuture<T> release(T result, RuntimeException failure, long delayNanos) {
+        final CompletableFuture<T> response = new CompletableFuture<>();
+        final Runnable complete = failure == null ? () -> response.complete(result) : () -> response.completeExceptionally(failure);
+        if (delayNanos <= 0) {
+            complete.run();
+        } else {
+            this.scheduler.schedule(complete, delayNanos, TimeUnit.NANOSECONDS);
+        }
+        return response;
+    }
+}
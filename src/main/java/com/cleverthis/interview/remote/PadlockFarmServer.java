@@ -0,0 +1,343 @@
+package com.cleverthis.interview.remote;
+
+import com.cleverthis.interview.fleet.VirtualThreads;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the sessions of the {@link PadlockFarm} over HTTP and over the binary socket protocol.
+ * <ul>
+ *     <li>POST /farm/sessions?numpadSize=n - creates the session, responds with its id</li>
+ *     <li>GET /farm/sessions - responds with the number of the sessions</li>
+ *     <li>DELETE /farm/sessions/{id} - closes the session</li>
+ *     <li>/farm/sessions/{id}/padlock - the {@link RestProtocol} resources of the session, see {@link RestPadlock}</li>
+ *     <li>socket: the {@link SocketProtocol} after the ATTACH request selecting the session, see {@link SocketPadlock}
+ *     with the tcp://host:port/sessions/{id} uri</li>
+ * </ul>
+ * Every HTTP exchange and every socket connection runs on its own virtual thread (platform thread before Java 21),
+ * but none of them waits for the simulated write latency, the delayed responses are sent once released by the farm.
+ */
+public class PadlockFarmServer implements Closeable {
+
+    /**
+     * The base path of the farm resources.
+     */
+    public static final String BASE_PATH = "/farm/sessions";
+
+    private static final Logger logger = Logger.getLogger(PadlockFarmServer.class.getName());
+    private static final String PADLOCK_PATH = PadlockHttpServer.BASE_PATH;
+
+    private final PadlockFarm farm;
+    private final HttpServer httpServer;
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+
+    private PadlockFarmServer(PadlockFarm farm, HttpServer httpServer, ServerSocket serverSocket, ExecutorService executor) {
+        this.farm = farm;
+        this.httpServer = httpServer;
+        this.serverSocket = serverSocket;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts serving the farm on the loopback interface.
+     *
+     * @param farm       the served farm
+     * @param httpPort   the HTTP port, 0 for any free port
+     * @param socketPort the socket protocol port, 0 for any free port
+     * @return the running server
+     * @throws IOException if the server cannot be bound
+     */
+    public static PadlockFarmServer start(PadlockFarm farm, int httpPort, int socketPort) throws IOException {
+        final ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor();
+        final HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), httpPort), 0);
+        final ServerSocket serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), socketPort), 1024);
+        final PadlockFarmServer server = new PadlockFarmServer(farm, httpServer, serverSocket, executor);
+        httpServer.createContext(BASE_PATH, server::handle);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        executor.execute(server::accept);
+        return server;
+    }
+
+    /**
+     * Serves a new farm until the process is killed.
+     *
+     * @param argv optionally the HTTP port (defaults to 8080), the socket port (defaults to 9090)
+     *             and the write latency in milliseconds (defaults to 1000)
+     * @throws IOException if the server cannot be bound
+     */
+    public static void main(String[] argv) throws IOException {
+        System.setProperty("fast", "true");
+        PadlockHttpServer.enableNoDelay();
+        final int httpPort = argv.length > 0 ? Integer.parseInt(argv[0]) : 8080;
+        final int socketPort = argv.length > 1 ? Integer.parseInt(argv[1]) : 9090;
+        final Duration latency = argv.length > 2 ? Duration.ofMillis(Long.parseLong(argv[2])) : PadlockFarm.DEFAULT_WRITE_LATENCY;
+        final PadlockFarmServer server = start(new PadlockFarm(latency), httpPort, socketPort);
+        if (logger.isLoggable(Level.INFO)) {
+            logger.info("Serving padlock farm at %s and %s".formatted(server.getUri(), server.getSocketUri()));
+        }
+    }
+
+    /**
+     * @return the base URI of the farm sessions resource
+     */
+    public URI getUri() {
+        final InetSocketAddress address = this.httpServer.getAddress();
+        return URI.create("http://%s:%d%s".formatted(address.getHostString(), address.getPort(), BASE_PATH));
+    }
+
+    /**
+     * @return the socket protocol URI, the session is selected by the /sessions/{id} path
+     */
+    public URI getSocketUri() {
+        return URI.create("tcp://%s:%d".formatted(this.serverSocket.getInetAddress().getHostAddress(), this.serverSocket.getLocalPort()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.httpServer.stop(0);
+        this.serverSocket.close();
+        this.executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) {
+        final String[] path = exchange.getRequestURI().getPath().substring(BASE_PATH.length()).split("/", 3);
+        final String method = exchange.getRequestMethod();
+        CompletableFuture<?> response;
+        boolean nullValue = false;
+        try {
+            if (path.length == 1 && "POST".equals(method)) {
+                response = CompletableFuture.completedFuture(this.farm.createSession(numpadSize(exchange)));
+            } else if (path.length == 1 && "GET".equals(method)) {
+                response = CompletableFuture.completedFuture(this.farm.getSessionCount());
+            } else if (path.length == 2 && "DELETE".equals(method)) {
+                if (!this.farm.closeSession(Long.parseLong(path[1]))) {
+                    throw new NoSuchElementException("No such padlock session: " + path[1]);
+                }
+                response = CompletableFuture.completedFuture(null);
+            } else if (path.length == 3 && path[2].startsWith(PADLOCK_PATH.substring(1))) {
+                final String resource = path[2].substring(PADLOCK_PATH.length() - 1);
+                nullValue = resource.startsWith(RestProtocol.BUFFER);
+                response = this.dispatch(this.farm.session(Long.parseLong(path[1])), method, resource, exchange.getRequestBody());
+            } else {
+                throw new UnsupportedOperationException(method + " " + exchange.getRequestURI());
+            }
+        } catch (RuntimeException | JsonProcessingException failure) {
+            response = CompletableFuture.failedFuture(failure);
+        } catch (IOException readFailure) {
+            exchange.close();
+            return;
+        }
+        final boolean nullValueResponse = nullValue;
+        response.whenCompleteAsync((result, failure) -> {
+            try (exchange) {
+                if (failure == null) {
+                    RestProtocol.respond(exchange, result, nullValueResponse);
+                } else {
+                    RestProtocol.respondError(exchange, failure instanceof Exception exception ? exception : new RuntimeException(failure));
+                }
+            } catch (IOException responseFailure) {
+                logger.log(Level.FINE, "Failed to send the farm response", responseFailure);
+            }
+        }, this.executor);
+    }
+
+    private static int numpadSize(HttpExchange exchange) {
+        final String query = exchange.getRequestURI().getQuery();
+        final Map<String, String> parameters = query == null ? Map.of() : Arrays.stream(query.split("&"))
+                .map(parameter -> parameter.split("=", 2))
+                .filter(parameter -> parameter.length == 2)
+                .collect(Collectors.toMap(parameter -> parameter[0], parameter -> parameter[1], (first, second) -> second));
+        if (!parameters.containsKey("numpadSize")) {
+            throw new IllegalArgumentException("numpadSize query parameter is required");
+        }
+        return Integer.parseInt(parameters.get("numpadSize"));
+    }
+
+    private CompletableFuture<?> dispatch(FarmSession session, String method, String resource, InputStream body) throws IOException {
+        if ("GET".equals(method) && RestProtocol.NUMPAD_SIZE.equals(resource)) {
+            return CompletableFuture.completedFuture(session.getPadlock().getNumpadSize());
+        }
+        if ("PUT".equals(method) && resource.startsWith(RestProtocol.BUFFER + "/")) {
+            final int address = Integer.parseInt(resource.substring(RestProtocol.BUFFER.length() + 1));
+            return session.write(address, RestProtocol.MAPPER.readValue(body, Integer.class));
+        }
+        if ("POST".equals(method) && RestProtocol.BUFFER.equals(resource)) {
+            final RestProtocol.BatchWrite batch = RestProtocol.MAPPER.readValue(body, RestProtocol.BatchWrite.class);
+            return session.write(batch.addresses(), batch.keyIndexes());
+        }
+        if ("POST".equals(method) && RestProtocol.CHECK.equals(resource)) {
+            return session.check();
+        }
+        if ("GET".equals(method) && RestProtocol.COUNTERS.equals(resource)) {
+            return CompletableFuture.completedFuture(
+                    new RestProtocol.Counters(session.getPadlock().getWriteCounter(), session.getPadlock().getCheckCounter()));
+        }
+        if ("DELETE".equals(method) && RestProtocol.COUNTERS.equals(resource)) {
+            session.getPadlock().resetCounter();
+            return CompletableFuture.completedFuture(null);
+        }
+        throw new UnsupportedOperationException(method + " " + resource);
+    }
+
+    private void accept() {
+        while (!this.serverSocket.isClosed()) {
+            try {
+                final Socket socket = this.serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                this.executor.execute(() -> this.serve(socket));
+            } catch (IOException acceptException) {
+                if (!this.serverSocket.isClosed() && logger.isLoggable(Level.WARNING)) {
+                    logger.log(Level.WARNING, "Failed to accept the farm connection", acceptException);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the requests of the connection, the responses are sent by the executor once released by the farm,
+     * possibly out of the request order.
+     */
+    private void serve(Socket socket) {
+        try (socket;
+             DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            FarmSession session = null;
+            while (true) {
+                input.readInt();
+                final int sequence = input.readInt();
+                final byte op = input.readByte();
+                CompletableFuture<?> response;
+                try {
+                    if (op == SocketProtocol.ATTACH) {
+                        session = this.farm.session(input.readLong());
+                        response = CompletableFuture.completedFuture(null);
+                    } else {
+                        response = this.dispatch(session, op, input);
+                    }
+                } catch (RuntimeException failure) {
+                    response = CompletableFuture.failedFuture(failure);
+                }
+                response.whenCompleteAsync((result, failure) -> send(output, op, sequence, result, failure), this.executor);
+            }
+        } catch (EOFException closedByClient) {
+            // the client closed the connection
+        } catch (IOException connectionException) {
+            if (!this.serverSocket.isClosed() && logger.isLoggable(Level.WARNING)) {
+                logger.log(Level.WARNING, "Farm connection failed", connectionException);
+            }
+        }
+    }
+
+    private CompletableFuture<?> dispatch(FarmSession session, byte op, DataInputStream input) throws IOException {
+        // the payload is read before the session is checked, so a failure leaves the stream in sync
+        switch (op) {
+            case SocketProtocol.WRITE -> {
+                final int address = input.readShort();
+                final int keyIndex = input.readShort();
+                return attached(session).write(address, keyIndex);
+            }
+            case SocketProtocol.BATCH -> {
+                final int count = input.readUnsignedShort();
+                final int[] addresses = new int[count];
+                final int[] keyIndexes = new int[count];
+                for (int i = 0; i < count; i++) {
+                    addresses[i] = input.readShort();
+                    keyIndexes[i] = input.readShort();
+                }
+                return attached(session).write(addresses, keyIndexes);
+            }
+            case SocketProtocol.CHECK -> {
+                return attached(session).check();
+            }
+            case SocketProtocol.NUMPAD_SIZE -> {
+                return CompletableFuture.completedFuture(attached(session).getPadlock().getNumpadSize());
+            }
+            case SocketProtocol.COUNTERS -> {
+                return CompletableFuture.completedFuture(new RestProtocol.Counters(
+                        attached(session).getPadlock().getWriteCounter(), attached(session).getPadlock().getCheckCounter()));
+            }
+            case SocketProtocol.RESET_COUNTERS -> {
+                attached(session).getPadlock().resetCounter();
+                return CompletableFuture.completedFuture(null);
+            }
+            default -> throw new UnsupportedOperationException("Unknown op code: " + op);
+        }
+    }
+
+    private static FarmSession attached(FarmSession session) {
+        if (session == null) {
+            throw new IllegalStateException("No padlock session attached to the connection");
+        }
+        return session;
+    }
+
+    /**
+     * Encodes the response of the op, the responses of one connection are sent one at a time.
+     */
+    private static void send(DataOutputStream output, byte op, int sequence, Object result, Throwable failure) {
+        synchronized (output) {
+            try {
+                if (failure != null) {
+                    SocketProtocol.writeError(output, sequence,
+                            failure instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(failure));
+                } else {
+                    switch (op) {
+                        case SocketProtocol.WRITE, SocketProtocol.NUMPAD_SIZE -> {
+                            SocketProtocol.writeHeader(output, 4, sequence, SocketProtocol.OK);
+                            SocketProtocol.writeOldValue(output, (Integer) result);
+                        }
+                        case SocketProtocol.BATCH -> {
+                            final Integer[] oldValues = (Integer[]) result;
+                            SocketProtocol.writeHeader(output, 2 + 4 * oldValues.length, sequence, SocketProtocol.OK);
+                            output.writeShort(oldValues.length);
+                            for (Integer oldValue : oldValues) {
+                                SocketProtocol.writeOldValue(output, oldValue);
+                            }
+                        }
+                        case SocketProtocol.CHECK -> {
+                            SocketProtocol.writeHeader(output, 1, sequence, SocketProtocol.OK);
+                            output.writeByte((Boolean) result ? 1 : 0);
+                        }
+                        case SocketProtocol.COUNTERS -> {
+                            final RestProtocol.Counters counters = (RestProtocol.Counters) result;
+                            SocketProtocol.writeHeader(output, 16, sequence, SocketProtocol.OK);
+                            output.writeLong(counters.writes());
+                            output.writeLong(counters.checks());
+                        }
+                        default -> SocketProtocol.writeHeader(output, 0, sequence, SocketProtocol.OK);
+                    }
+                }
+                output.flush();
+            } catch (IOException sendFailure) {
+                logger.log(Level.FINE, "Failed to send the farm response", sendFailure);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.cleverthis.interview.remote;
+
+import com.cleverthis.interview.domain.IPadlock;
+import com.cleverthis.interview.domain.PadlockImplDelegate;
+import com.cleverthis.interview.fleet.VirtualThreads;
+import com.cleverthis.interview.padlock.PadlockImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Local stand-in of the remote padlock: serves the {@link RestProtocol} resources of one padlock over HTTP/1.1.
+ * Every exchange runs on its own (virtual if supported) thread, the padlock itself serializes the operations.
+ */
+public class PadlockHttpServer implements Closeable {
+
+    /**
+     * The base path of the padlock resources.
+     */
+    public static final String BASE_PATH = "/padlock";
+
+    /**
+     * JVM-wide system property of the JDK HTTP server disabling Nagle's algorithm. The server writes the headers and
+     * the body separately, so without it every small response waits for the delayed ACK of the client (tens of
+     * milliseconds). It is read when the first server starts, so it is set by the launchers (the main methods and the
+     * build's test and analysis tasks), an embedding application passes -Dsun.net.httpserver.nodelay=true.
+     */
+    static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private static final Logger logger = Logger.getLogger(PadlockHttpServer.class.getName());
+
+    private final IPadlock padlock;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private PadlockHttpServer(IPadlock padlock, HttpServer server, ExecutorService executor) {
+        this.padlock = padlock;
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts serving the padlock.
+     *
+     * @param padlock the served padlock
+     * @param port    the port on the loopback interface, 0 for any free port
+     * @return the running server
+     * @throws IOException if the server cannot be bound
+     */
+    public static PadlockHttpServer start(IPadlock padlock, int port) throws IOException {
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        final ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor();
+        final PadlockHttpServer padlockServer = new PadlockHttpServer(padlock, server, executor);
+        server.createContext(BASE_PATH, padlockServer::handle);
+        server.setExecutor(executor);
+        server.start();
+        return padlockServer;
+    }
+
+    /**
+     * Serves a new PadlockImpl until the process is killed.
+     *
+     * @param argv the keypad size and optionally the port, defaults to 8080
+     * @throws IOException if the server cannot be bound
+     */
+    public static void main(String[] argv) throws IOException {
+        enableNoDelay();
+        final int numpadSize = Integer.parseInt(argv[0]);
+        final int port = argv.length > 1 ? Integer.parseInt(argv[1]) : 8080;
+        final PadlockHttpServer server = start(new PadlockImplDelegate(new PadlockImpl(numpadSize)), port);
+        if (logger.isLoggable(Level.INFO)) {
+            logger.info("Serving padlock of keypad size %d at %s".formatted(numpadSize, server.getUri()));
+        }
+    }
+
+    /**
+     * Disables Nagle's algorithm of the JDK HTTP server unless configured otherwise, see {@link #NODELAY_PROPERTY}.
+     * Called by the launchers before the first server starts.
+     */
+    static void enableNoDelay() {
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+    }
+
+    /**
+     * @return the base URI of the padlock resources
+     */
+    public URI getUri() {
+        final InetSocketAddress address = this.server.getAddress();
+        return URI.create("http://%s:%d%s".formatted(address.getHostString(), address.getPort(), BASE_PATH));
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            final String resource = exchange.getRequestURI().getPath().substring(BASE_PATH.length());
+            try {
+                final Object response = this.dispatch(exchange.getRequestMethod(), resource, exchange.getRequestBody());
+                RestProtocol.respond(exchange, response, resource.startsWith(RestProtocol.BUFFER));
+            } catch (RuntimeException | JsonProcessingException failure) {
+                RestProtocol.respondError(exchange, failure);
+            }
+        }
+    }
+
+    private Object dispatch(String method, String resource, InputStream body) throws IOException {
+        if ("GET".equals(method) && RestProtocol.NUMPAD_SIZE.equals(resource)) {
+            return this.padlock.getNumpadSize();
+        }
+        if ("PUT".equals(method) && resource.startsWith(RestProtocol.BUFFER + "/")) {
+            final int address = Integer.parseInt(resource.substring(RestProtocol.BUFFER.length() + 1));
+            return this.padlock.writeInputBuffer(address, RestProtocol.MAPPER.readValue(body, Integer.class));
+        }
+        if ("POST".equals(method) && RestProtocol.BUFFER.equals(resource)) {
+            final RestProtocol.BatchWrite batch = RestProtocol.MAPPER.readValue(body, RestProtocol.BatchWrite.class);
+            return this.padlock.writeInputBuffer(batch.addresses(), batch.keyIndexes());
+        }
+        if ("POST".equals(method) && RestProtocol.CHECK.equals(resource)) {
+            return this.padlock.isPasscodeCorrect();
+        }
+        if ("GET".equals(method) && RestProtocol.COUNTERS.equals(resource)) {
+            return new RestProtocol.Counters(this.padlock.getWriteCounter(), this.padlock.getCheckCounter());
+        }
+        if ("DELETE".equals(method) && RestProtocol.COUNTERS.equals(resource)) {
+            this.padlock.resetCounter();
+            return null;
+        }
+        throw new UnsupportedOperationException(method + " " + resource);
+    }
+}
@@ -0,0 +1,181 @@
+package com.cleverthis.interview.remote;
+
+import com.cleverthis.interview.domain.IPadlock;
+import com.cleverthis.interview.domain.PadlockImplDelegate;
+import com.cleverthis.interview.fleet.VirtualThreads;
+import com.cleverthis.interview.padlock.PadlockImpl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Local stand-in of the remote padlock: serves one padlock over the {@link SocketProtocol} on the loopback interface.
+ * Each connection is served by its own (virtual if supported) thread; the requests of one connection are processed
+ * in order and the responses are flushed once no further pipelined request is waiting.
+ */
+public class PadlockSocketServer implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(PadlockSocketServer.class.getName());
+
+    private final IPadlock padlock;
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+
+    private PadlockSocketServer(IPadlock padlock, ServerSocket serverSocket, ExecutorService executor) {
+        this.padlock = padlock;
+        this.serverSocket = serverSocket;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts serving the padlock.
+     *
+     * @param padlock the served padlock
+     * @param port    the port on the loopback interface, 0 for any free port
+     * @return the running server
+     * @throws IOException if the server cannot be bound
+     */
+    public static PadlockSocketServer start(IPadlock padlock, int port) throws IOException {
+        final ServerSocket serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        final PadlockSocketServer server = new PadlockSocketServer(padlock, serverSocket, VirtualThreads.newThreadPerTaskExecutor());
+        server.executor.execute(server::accept);
+        return server;
+    }
+
+    /**
+     * Serves a new PadlockImpl until the process is killed.
+     *
+     * @param argv the keypad size and optionally the port, defaults to 9090
+     * @throws IOException if the server cannot be bound
+     */
+    public static void main(String[] argv) throws IOException {
+        final int numpadSize = Integer.parseInt(argv[0]);
+        final int port = argv.length > 1 ? Integer.parseInt(argv[1]) : 9090;
+        final PadlockSocketServer server = start(new PadlockImplDelegate(new PadlockImpl(numpadSize)), port);
+        if (logger.isLoggable(Level.INFO)) {
+            logger.info("Serving padlock of keypad size %d at %s".formatted(numpadSize, server.getUri()));
+        }
+    }
+
+    /**
+     * @return the server URI, e.g. tcp://127.0.0.1:9090
+     */
+    public URI getUri() {
+        return URI.create("tcp://%s:%d".formatted(this.serverSocket.getInetAddress().getHostAddress(), this.serverSocket.getLocalPort()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+        this.executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!this.serverSocket.isClosed()) {
+            try {
+                final Socket socket = this.serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                this.executor.execute(() -> this.serve(socket));
+            } catch (IOException acceptException) {
+                if (!this.serverSocket.isClosed() && logger.isLoggable(Level.WARNING)) {
+                    logger.log(Level.WARNING, "Failed to accept the padlock connection", acceptException);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            while (true) {
+                input.readInt(); // the frame length, the op code defines the payload
+                final int sequence = input.readInt();
+                final byte op = input.readByte();
+                this.respond(sequence, op, input, output);
+                if (input.available() == 0) {
+                    output.flush();
+                }
+            }
+        } catch (EOFException closedByClient) {
+            // the client closed the connection
+        } catch (IOException connectionException) {
+            if (!this.serverSocket.isClosed() && logger.isLoggable(Level.WARNING)) {
+                logger.log(Level.WARNING, "Padlock connection failed", connectionException);
+            }
+        }
+    }
+
+    private void respond(int sequence, byte op, DataInputStream input, DataOutputStream output) throws IOException {
+        // the request payload is read completely before the padlock is touched, so a failure leaves the stream in sync
+        final int[] addresses;
+        final int[] keyIndexes;
+        if (op == SocketProtocol.WRITE) {
+            addresses = new int[]{input.readShort()};
+            keyIndexes = new int[]{input.readShort()};
+        } else if (op == SocketProtocol.BATCH) {
+            final int count = input.readUnsignedShort();
+            addresses = new int[count];
+            keyIndexes = new int[count];
+            for (int i = 0; i < count; i++) {
+                addresses[i] = input.readShort();
+                keyIndexes[i] = input.readShort();
+            }
+        } else {
+            addresses = null;
+            keyIndexes = null;
+        }
+        try {
+            switch (op) {
+                case SocketProtocol.WRITE -> {
+                    final Integer oldValue = this.padlock.writeInputBuffer(addresses[0], keyIndexes[0]);
+                    SocketProtocol.writeHeader(output, 4, sequence, SocketProtocol.OK);
+                    SocketProtocol.writeOldValue(output, oldValue);
+                }
+                case SocketProtocol.BATCH -> {
+                    final Integer[] oldValues = this.padlock.writeInputBuffer(addresses, keyIndexes);
+                    SocketProtocol.writeHeader(output, 2 + 4 * oldValues.length, sequence, SocketProtocol.OK);
+                    output.writeShort(oldValues.length);
+                    for (Integer oldValue : oldValues) {
+                        SocketProtocol.writeOldValue(output, oldValue);
+                    }
+                }
+                case SocketProtocol.CHECK -> {
+                    final boolean correct = this.padlock.isPasscodeCorrect();
+                    SocketProtocol.writeHeader(output, 1, sequence, SocketProtocol.OK);
+                    output.writeByte(correct ? 1 : 0);
+                }
+                case SocketProtocol.NUMPAD_SIZE -> {
+                    SocketProtocol.writeHeader(output, 4, sequence, SocketProtocol.OK);
+                    output.writeInt(this.padlock.getNumpadSize());
+                }
+                case SocketProtocol.COUNTERS -> {
+                    SocketProtocol.writeHeader(output, 16, sequence, SocketProtocol.OK);
+                    output.writeLong(this.padlock.getWriteCounter());
+                    output.writeLong(this.padlock.getCheckCounter());
+                }
+                case SocketProtocol.RESET_COUNTERS -> {
+                    this.padlock.resetCounter();
+                    SocketProtocol.writeHeader(output, 0, sequence, SocketProtocol.OK);
+                }
+                default -> throw new UnsupportedOperationException("Unknown op code: " + op);
+            }
+        } catch (RuntimeException failure) {
+            SocketProtocol.writeError(output, sequence, failure);
+        }
+    }
+}
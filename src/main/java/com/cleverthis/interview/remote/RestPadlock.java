@@ -0,0 +1,215 @@
+package com.cleverthis.interview.remote;
+
+import com.cleverthis.interview.configuration.PadlockConfiguration;
+import com.cleverthis.interview.domain.IPadlock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The padlock accessed over the {@link RestProtocol} resources.
+ * A single HttpClient keeps the connections alive and reuses them for all requests; it negotiates HTTP/2 where the server
+ * supports it (multiplexing the requests over one connection), otherwise it pools the HTTP/1.1 keep-alive connections.
+ * At most maxConcurrency requests are in flight at once, the further ones wait for a free slot.
+ * The batched write is sent as a single request.
+ */
+public class RestPadlock implements IPadlock, Closeable {
+
+    /**
+     * Default maximum number of the requests in flight.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 1;
+    /**
+     * Default connect and request timeout.
+     */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUri;
+    private final Duration timeout;
+    private final HttpClient client;
+    private final Semaphore inFlight;
+    private volatile int numpadSize = -1;
+
+    /**
+     * @param baseUri        the padlock base URI, e.g. http://localhost:8080/padlock
+     * @param maxConcurrency the maximum number of the requests in flight
+     * @param timeout        the connect and request timeout
+     */
+    public RestPadlock(URI baseUri, int maxConcurrency, Duration timeout) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be a positive number: " + maxConcurrency);
+        }
+        this.baseUri = baseUri;
+        this.timeout = timeout;
+        this.inFlight = new Semaphore(maxConcurrency, true);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * Creates the padlock from the endpoint configuration.
+     *
+     * @param endpoint the endpoint configuration
+     * @return the REST padlock
+     * @throws IllegalArgumentException if the endpoint or its URI is missing
+     */
+    public static RestPadlock from(PadlockConfiguration.PadlockEndpoint endpoint) {
+        if (endpoint == null || endpoint.uri() == null) {
+            throw new IllegalArgumentException("REST padlock requires the endpoint uri in the configuration");
+        }
+        return new RestPadlock(URI.create(endpoint.uri()),
+                endpoint.maxConcurrency() != null ? endpoint.maxConcurrency() : DEFAULT_MAX_CONCURRENCY,
+                endpoint.timeoutMillis() != null ? Duration.ofMillis(endpoint.timeoutMillis()) : DEFAULT_TIMEOUT);
+    }
+
+    @Override
+    public int getNumpadSize() {
+        if (this.numpadSize < 0) {
+            this.numpadSize = this.send(this.request(RestProtocol.NUMPAD_SIZE).GET(), Integer.class);
+        }
+        return this.numpadSize;
+    }
+
+    @Override
+    public Integer writeInputBuffer(int address, int keyIndex) {
+        return this.send(this.writeRequest(address, keyIndex), Integer.class);
+    }
+
+    /**
+     * Sends the write without waiting, the request waits only for a free slot of the maxConcurrency ones.
+     */
+    @Override
+    public CompletableFuture<Integer> writeInputBufferAsync(int address, int keyIndex) {
+        this.acquire();
+        try {
+            return this.client.sendAsync(this.writeRequest(address, keyIndex).build(), HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> this.read(response, Integer.class))
+                    .whenComplete((oldValue, failure) -> this.inFlight.release());
+        } catch (RuntimeException sendException) {
+            this.inFlight.release();
+            throw sendException;
+        }
+    }
+
+    @Override
+    public Integer[] writeInputBuffer(int[] addresses, int[] keyIndexes) {
+        if (addresses.length != keyIndexes.length) {
+            throw new IllegalArgumentException("addresses and keyIndexes lengths differ: %d != %d"
+                    .formatted(addresses.length, keyIndexes.length));
+        }
+        return this.send(this.request(RestProtocol.BUFFER)
+                .POST(this.json(new RestProtocol.BatchWrite(addresses, keyIndexes))), Integer[].class);
+    }
+
+    @Override
+    public boolean isPasscodeCorrect() {
+        return this.send(this.request(RestProtocol.CHECK).POST(HttpRequest.BodyPublishers.noBody()), Boolean.class);
+    }
+
+    @Override
+    public long getWriteCounter() {
+        return this.send(this.request(RestProtocol.COUNTERS).GET(), RestProtocol.Counters.class).writes();
+    }
+
+    @Override
+    public long getCheckCounter() {
+        return this.send(this.request(RestProtocol.COUNTERS).GET(), RestProtocol.Counters.class).checks();
+    }
+
+    @Override
+    public void resetCounter() {
+        this.send(this.request(RestProtocol.COUNTERS).DELETE(), Void.class);
+    }
+
+    /**
+     * Releases the connections of the client. The HttpClient can be closed since Java 21, on the older runtimes its
+     * connections and selector thread are released once the client becomes unreachable.
+     */
+    @Override
+    public void close() {
+        if (this.client instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception closeException) {
+                throw new UncheckedIOException(new IOException("Failed to close the HTTP client", closeException));
+            }
+        }
+    }
+
+    private HttpRequest.Builder writeRequest(int address, int keyIndex) {
+        return this.request(RestProtocol.BUFFER + "/" + address).PUT(this.json(keyIndex));
+    }
+
+    private HttpRequest.Builder request(String resource) {
+        return HttpRequest.newBuilder(URI.create(this.baseUri + resource))
+                .timeout(this.timeout)
+                .header("Content-Type", RestProtocol.JSON);
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(RestProtocol.MAPPER.writeValueAsBytes(body));
+        } catch (IOException serializationException) {
+            throw new UncheckedIOException(serializationException);
+        }
+    }
+
+    private <T> T send(HttpRequest.Builder request, Class<T> responseType) {
+        this.acquire();
+        try {
+            return this.read(this.client.send(request.build(), HttpResponse.BodyHandlers.ofString()), responseType);
+        } catch (IOException sendException) {
+            throw new UncheckedIOException(sendException);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted while waiting for the padlock"));
+        } finally {
+            this.inFlight.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            this.inFlight.acquire();
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted while waiting for a free connection"));
+        }
+    }
+
+    /**
+     * Maps the response to the result or to the exception thrown by the padlock.
+     */
+    private <T> T read(HttpResponse<String> response, Class<T> responseType) {
+        final int status = response.statusCode();
+        if (status == RestProtocol.BAD_REQUEST) {
+            throw new IllegalArgumentException(response.body());
+        }
+        if (status == RestProtocol.CONFLICT) {
+            throw new IllegalStateException(response.body());
+        }
+        if (status / 100 != 2) {
+            throw new UncheckedIOException(new IOException("Padlock %s responded %d".formatted(response.uri(), status)));
+        }
+        if (responseType == Void.class || response.body().isEmpty()) {
+            return null;
+        }
+        try {
+            return RestProtocol.MAPPER.readValue(response.body().getBytes(StandardCharsets.UTF_8), responseType);
+        } catch (IOException parseException) {
+            throw new UncheckedIOException(parseException);
+        }
+    }
+}
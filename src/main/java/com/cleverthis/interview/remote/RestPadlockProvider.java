@@ -0,0 +1,22 @@
+package com.cleverthis.interview.remote;
+
+import com.cleverthis.interview.configuration.PadlockAccessType;
+import com.cleverthis.interview.configuration.PadlockConfiguration;
+import com.cleverthis.interview.domain.IPadlock;
+import com.cleverthis.interview.domain.PadlockProvider;
+
+/**
+ * Provider of the {@link RestPadlock}, configured by the endpoint section of the padlock configuration.
+ */
+public class RestPadlockProvider implements PadlockProvider {
+
+    @Override
+    public PadlockAccessType getAccessType() {
+        return PadlockAccessType.REST;
+    }
+
+    @Override
+    public IPadlock create(PadlockConfiguration configuration, int keypadSize) {
+        return RestPadlock.from(configuration != null ? configuration.endpoint() : null);
+    }
+}
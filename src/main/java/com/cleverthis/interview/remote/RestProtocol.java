@@ -0,0 +1,93 @@
+package com.cleverthis.interview.remote;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ * The REST padlock resources shared by the {@link RestPadlock} client and the {@link PadlockHttpServer}.
+ * <ul>
+ *     <li>GET {base}/numpad-size - the keypad size</li>
+ *     <li>PUT {base}/buffer/{address} with the key index - writes the key, responds with the old value or null</li>
+ *     <li>POST {base}/buffer with the {@link BatchWrite} - writes all keys in order, responds with the old values</li>
+ *     <li>POST {base}/check - responds true if the input buffer holds the passcode</li>
+ *     <li>GET {base}/counters - responds with the {@link Counters}, DELETE resets them</li>
+ * </ul>
+ * The bodies are JSON. The padlock contract violations are reported as 400 Bad Request (IllegalArgumentException)
+ * and 409 Conflict (IllegalStateException) with the exception message as the plain text body.
+ */
+final class RestProtocol {
+
+    static final String NUMPAD_SIZE = "/numpad-size";
+    static final String BUFFER = "/buffer";
+    static final String CHECK = "/check";
+    static final String COUNTERS = "/counters";
+    static final String JSON = "application/json";
+    static final int BAD_REQUEST = 400;
+    static final int CONFLICT = 409;
+    static final int NOT_FOUND = 404;
+
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private RestProtocol() {
+    }
+
+    /**
+     * Sends the JSON response, or 204 No Content for the null response unless null is the value of the resource.
+     */
+    static void respond(HttpExchange exchange, Object response, boolean nullValue) throws IOException {
+        if (response == null && !nullValue) {
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            respond(exchange, 200, JSON, MAPPER.writeValueAsBytes(response));
+        }
+    }
+
+    /**
+     * Sends the error response, the status is chosen by the exception type.
+     */
+    static void respondError(HttpExchange exchange, Exception failure) throws IOException {
+        if (failure instanceof UnsupportedOperationException || failure instanceof NoSuchElementException) {
+            exchange.sendResponseHeaders(NOT_FOUND, -1);
+            return;
+        }
+        final String message = failure instanceof JsonProcessingException invalidBody
+                ? invalidBody.getOriginalMessage()
+                : String.valueOf(failure.getMessage());
+        final int status = failure instanceof IllegalStateException ? CONFLICT
+                : failure instanceof IllegalArgumentException || failure instanceof IndexOutOfBoundsException
+                || failure instanceof JsonProcessingException ? BAD_REQUEST : 500;
+        respond(exchange, status, "text/plain", message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    /**
+     * Body of the batched write.
+     *
+     * @param addresses  the addresses to be written
+     * @param keyIndexes the key indexes, same length as the addresses
+     */
+    record BatchWrite(int[] addresses, int[] keyIndexes) {
+    }
+
+    /**
+     * Body of the counters resource.
+     *
+     * @param writes the write counter
+     * @param checks the check counter
+     */
+    record Counters(long writes, long checks) {
+    }
+}
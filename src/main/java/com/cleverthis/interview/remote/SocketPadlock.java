@@ -0,0 +1,370 @@
+package com.cleverthis.interview.remote;
+
+import com.cleverthis.interview.configuration.PadlockConfiguration;
+import com.cleverthis.interview.domain.IPadlock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The padlock accessed over the binary {@link SocketProtocol}.
+ * The requests are encoded by the calling threads and queued, a single I/O thread drives the non-blocking SocketChannel:
+ * it coalesces all queued frames into as few socket writes as possible and matches the responses to the waiting
+ * requests by their sequence id. So the writes issued through {@link #writeInputBufferAsync(int, int)} are pipelined,
+ * at most maxConcurrency requests are in flight at once.
+ */
+public class SocketPadlock implements IPadlock, Closeable {
+
+    /**
+     * Default maximum number of the requests in flight.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 16;
+    /**
+     * Default connect and request timeout.
+     */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final Logger logger = Logger.getLogger(SocketPadlock.class.getName());
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String SESSIONS_PATH = "/sessions/";
+
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final Duration timeout;
+    private final Semaphore inFlight;
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, CompletableFuture<ByteBuffer>> pending = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+    private volatile int numpadSize = -1;
+    // owned by the I/O thread
+    private ByteBuffer staging = ByteBuffer.allocateDirect(BUFFER_SIZE).flip();
+    private ByteBuffer inbound = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * Connects to the padlock server.
+     *
+     * @param address        the server address
+     * @param maxConcurrency the maximum number of the requests in flight
+     * @param timeout        the connect and request timeout
+     * @throws UncheckedIOException if the connection cannot be established
+     */
+    public SocketPadlock(InetSocketAddress address, int maxConcurrency, Duration timeout) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be a positive number: " + maxConcurrency);
+        }
+        this.timeout = timeout;
+        this.inFlight = new Semaphore(maxConcurrency, true);
+        try {
+            this.channel = SocketChannel.open();
+            this.channel.socket().connect(address, (int) timeout.toMillis());
+            this.channel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+            this.channel.configureBlocking(false);
+            this.selector = Selector.open();
+            this.channel.register(this.selector, SelectionKey.OP_READ);
+        } catch (IOException connectException) {
+            throw new UncheckedIOException(connectException);
+        }
+        final Thread ioThread = new Thread(this::run, "padlock-socket-" + address);
+        ioThread.setDaemon(true);
+        ioThread.start();
+    }
+
+    /**
+     * Connects to the padlock server of the endpoint configuration.
+     *
+     * @param endpoint the endpoint configuration, the uri is tcp://host:port, or tcp://host:port/sessions/{id}
+     *                 for the session of the {@link PadlockFarmServer}
+     * @return the socket padlock
+     * @throws IllegalArgumentException if the endpoint or its URI is missing
+     */
+    public static SocketPadlock from(PadlockConfiguration.PadlockEndpoint endpoint) {
+        if (endpoint == null || endpoint.uri() == null) {
+            throw new IllegalArgumentException("SOCKET padlock requires the endpoint uri in the configuration");
+        }
+        final URI uri = URI.create(endpoint.uri());
+        final SocketPadlock padlock = new SocketPadlock(new InetSocketAddress(uri.getHost(), uri.getPort()),
+                endpoint.maxConcurrency() != null ? endpoint.maxConcurrency() : DEFAULT_MAX_CONCURRENCY,
+                endpoint.timeoutMillis() != null ? Duration.ofMillis(endpoint.timeoutMillis()) : DEFAULT_TIMEOUT);
+        final String path = uri.getPath();
+        if (path != null && path.startsWith(SESSIONS_PATH)) {
+            padlock.attach(Long.parseLong(path.substring(SESSIONS_PATH.length())));
+        }
+        return padlock;
+    }
+
+    /**
+     * Selects the farm session served on this connection.
+     *
+     * @param sessionId the session id, see {@link PadlockFarm#createSession(int)}
+     * @return this padlock
+     */
+    public SocketPadlock attach(long sessionId) {
+        this.await(this.call(SocketProtocol.ATTACH, 8, frame -> frame.putLong(sessionId)));
+        return this;
+    }
+
+    @Override
+    public int getNumpadSize() {
+        if (this.numpadSize < 0) {
+            this.numpadSize = this.await(this.call(SocketProtocol.NUMPAD_SIZE, 0, null)).getInt();
+        }
+        return this.numpadSize;
+    }
+
+    @Override
+    public Integer writeInputBuffer(int address, int keyIndex) {
+        return this.await(this.writeInputBufferAsync(address, keyIndex));
+    }
+
+    @Override
+    public CompletableFuture<Integer> writeInputBufferAsync(int address, int keyIndex) {
+        return this.call(SocketProtocol.WRITE, 4, frame -> frame.putShort((short) address).putShort((short) keyIndex))
+                .thenApply(SocketPadlock::oldValue);
+    }
+
+    @Override
+    public Integer[] writeInputBuffer(int[] addresses, int[] keyIndexes) {
+        if (addresses.length != keyIndexes.length) {
+            throw new IllegalArgumentException("addresses and keyIndexes lengths differ: %d != %d"
+                    .formatted(addresses.length, keyIndexes.length));
+        }
+        final ByteBuffer response = this.await(this.call(SocketProtocol.BATCH, 2 + 4 * addresses.length, frame -> {
+            frame.putShort((short) addresses.length);
+            for (int i = 0; i < addresses.length; i++) {
+                frame.putShort((short) addresses[i]).putShort((short) keyIndexes[i]);
+            }
+        }));
+        final Integer[] oldValues = new Integer[response.getShort() & 0xFFFF];
+        for (int i = 0; i < oldValues.length; i++) {
+            oldValues[i] = oldValue(response);
+        }
+        return oldValues;
+    }
+
+    @Override
+    public boolean isPasscodeCorrect() {
+        return this.await(this.call(SocketProtocol.CHECK, 0, null)).get() != 0;
+    }
+
+    @Override
+    public long getWriteCounter() {
+        return this.await(this.call(SocketProtocol.COUNTERS, 0, null)).getLong();
+    }
+
+    @Override
+    public long getCheckCounter() {
+        final ByteBuffer counters = this.await(this.call(SocketProtocol.COUNTERS, 0, null));
+        counters.getLong();
+        return counters.getLong();
+    }
+
+    @Override
+    public void resetCounter() {
+        this.await(this.call(SocketProtocol.RESET_COUNTERS, 0, null));
+    }
+
+    /**
+     * Closes the connection, the requests in flight fail.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.selector.wakeup();
+    }
+
+    /**
+     * Encodes and queues the request.
+     *
+     * @return the future completed with the response payload, failed if no response came within the timeout
+     */
+    private CompletableFuture<ByteBuffer> call(byte op, int payloadLength, Consumer<ByteBuffer> payload) {
+        if (this.closed) {
+            throw new UncheckedIOException(new IOException("Padlock connection closed"));
+        }
+        try {
+            if (!this.inFlight.tryAcquire(this.timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new UncheckedIOException(new SocketTimeoutException("No free slot for the padlock request"));
+            }
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted while waiting for a free slot"));
+        }
+        final int id = this.sequence.incrementAndGet();
+        final ByteBuffer frame = ByteBuffer.allocate(4 + SocketProtocol.HEADER_LENGTH + payloadLength)
+                .putInt(SocketProtocol.HEADER_LENGTH + payloadLength)
+                .putInt(id)
+                .put(op);
+        if (payload != null) {
+            payload.accept(frame);
+        }
+        final CompletableFuture<ByteBuffer> response = new CompletableFuture<>();
+        this.pending.put(id, response);
+        // answered, failed or timed out, the request gives up its sequence entry and its slot, a late response is dropped
+        response.orTimeout(this.timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((result, failure) -> {
+            this.pending.remove(id, response);
+            this.inFlight.release();
+        });
+        this.outbound.add(frame.flip());
+        this.selector.wakeup();
+        return response;
+    }
+
+    private <T> T await(CompletableFuture<T> response) {
+        try {
+            return response.get(this.timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException failed) {
+            if (failed.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (failed.getCause() instanceof TimeoutException) {
+                throw new UncheckedIOException(new SocketTimeoutException("Padlock did not respond in " + this.timeout));
+            }
+            throw new UncheckedIOException(new IOException(failed.getCause()));
+        } catch (TimeoutException timedOut) {
+            throw new UncheckedIOException(new SocketTimeoutException("Padlock did not respond in " + this.timeout));
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted while waiting for the padlock"));
+        }
+    }
+
+    private static Integer oldValue(ByteBuffer response) {
+        final int oldValue = response.getInt();
+        return oldValue == SocketProtocol.NULL_VALUE ? null : oldValue;
+    }
+
+    /**
+     * The I/O thread loop.
+     */
+    private void run() {
+        IOException failure = null;
+        try {
+            final SelectionKey key = this.channel.keyFor(this.selector);
+            while (!this.closed) {
+                this.selector.select();
+                this.selector.selectedKeys().clear();
+                if (key.isReadable()) {
+                    this.read();
+                }
+                key.interestOps(this.write() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        } catch (IOException ioException) {
+            failure = ioException;
+            if (!this.closed && logger.isLoggable(Level.WARNING)) {
+                logger.log(Level.WARNING, "Padlock connection failed", ioException);
+            }
+        } finally {
+            this.closed = true;
+            try {
+                this.selector.close();
+                this.channel.close();
+            } catch (IOException closeException) {
+                logger.log(Level.FINE, "Failed to close the padlock connection", closeException);
+            }
+            final UncheckedIOException closedException = new UncheckedIOException(
+                    failure != null ? failure : new IOException("Padlock connection closed"));
+            this.pending.values().forEach(response -> response.completeExceptionally(closedException));
+            this.pending.clear();
+        }
+    }
+
+    /**
+     * Writes the queued frames, several frames are coalesced into one socket write.
+     *
+     * @return true if all queued frames were written
+     */
+    private boolean write() throws IOException {
+        while (true) {
+            if (!this.staging.hasRemaining()) {
+                ByteBuffer frame = this.outbound.peek();
+                if (frame == null) {
+                    return true;
+                }
+                if (frame.remaining() > this.staging.capacity()) {
+                    this.staging = ByteBuffer.allocateDirect(frame.remaining());
+                }
+                this.staging.clear();
+                while (frame != null && frame.remaining() <= this.staging.remaining()) {
+                    this.staging.put(this.outbound.poll());
+                    frame = this.outbound.peek();
+                }
+                this.staging.flip();
+            }
+            this.channel.write(this.staging);
+            if (this.staging.hasRemaining()) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Reads the available bytes and completes the requests of all complete response frames.
+     */
+    private void read() throws IOException {
+        if (this.channel.read(this.inbound) < 0) {
+            throw new IOException("Padlock server closed the connection");
+        }
+        this.inbound.flip();
+        while (this.inbound.remaining() >= 4) {
+            final int length = this.inbound.getInt(this.inbound.position());
+            if (this.inbound.remaining() < 4 + length) {
+                if (4 + length > this.inbound.capacity()) {
+                    this.inbound = ByteBuffer.allocate(4 + length).put(this.inbound).flip();
+                }
+                break;
+            }
+            this.inbound.getInt();
+            final int id = this.inbound.getInt();
+            final byte status = this.inbound.get();
+            final byte[] payload = new byte[length - SocketProtocol.HEADER_LENGTH];
+            this.inbound.get(payload);
+            this.complete(id, status, ByteBuffer.wrap(payload));
+        }
+        this.inbound.compact();
+    }
+
+    private void complete(int id, byte status, ByteBuffer payload) {
+        final CompletableFuture<ByteBuffer> response = this.pending.remove(id);
+        if (response == null) {
+            return;
+        }
+        if (status == SocketProtocol.OK) {
+            response.complete(payload);
+            return;
+        }
+        final byte[] message = new byte[payload.getShort() & 0xFFFF];
+        payload.get(message);
+        final String text = new String(message, StandardCharsets.UTF_8);
+        response.completeExceptionally(switch (status) {
+            case SocketProtocol.ILLEGAL_ARGUMENT -> new IllegalArgumentException(text);
+            case SocketProtocol.ILLEGAL_STATE -> new IllegalStateException(text);
+            default -> new UncheckedIOException(new IOException("Padlock server failed: " + text));
+        });
+    }
+}
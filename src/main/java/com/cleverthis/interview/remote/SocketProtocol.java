@@ -0,0 +1,71 @@
+package com.cleverthis.interview.remote;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The binary framed protocol shared by the {@link SocketPadlock} client and the {@link PadlockSocketServer}.
+ * All numbers are big-endian. Every frame starts with its length (int, excluding the length itself) and the sequence id
+ * (int) chosen by the client, the response carries the sequence id of its request, so several requests may be in flight.
+ * <pre>
+ * request:  length | seq | op (byte) | payload
+ *   WRITE        address (short) | keyIndex (short)                    - 13 bytes on the wire
+ *   BATCH        count (short) | count * (address (short) | keyIndex (short))
+ *   ATTACH       sessionId (long)                                      - farm only, selects the session of the connection
+ *   CHECK, NUMPAD_SIZE, COUNTERS, RESET_COUNTERS                        - no payload
+ * response: length | seq | status (byte) | payload
+ *   OK           WRITE: old value (int, -1 if not initialized), BATCH: count (short) | count * old value (int),
+ *                CHECK: 1 or 0 (byte), NUMPAD_SIZE: int, COUNTERS: writes (long) | checks (long), RESET_COUNTERS, ATTACH: none
+ *   otherwise    message length (short) | UTF-8 message
+ * </pre>
+ */
+final class SocketProtocol {
+
+    static final byte WRITE = 1;
+    static final byte BATCH = 2;
+    static final byte CHECK = 3;
+    static final byte NUMPAD_SIZE = 4;
+    static final byte COUNTERS = 5;
+    static final byte RESET_COUNTERS = 6;
+    static final byte ATTACH = 7;
+
+    static final byte OK = 0;
+    static final byte ILLEGAL_ARGUMENT = 1;
+    static final byte ILLEGAL_STATE = 2;
+    static final byte FAILURE = 3;
+
+    /**
+     * Length of the sequence id and op/status byte following the frame length.
+     */
+    static final int HEADER_LENGTH = 5;
+    static final int NULL_VALUE = -1;
+    static final int MAX_MESSAGE_LENGTH = 0xFFFF;
+
+    private SocketProtocol() {
+    }
+
+    static void writeHeader(DataOutputStream output, int payloadLength, int sequence, byte status) throws IOException {
+        output.writeInt(HEADER_LENGTH + payloadLength);
+        output.writeInt(sequence);
+        output.writeByte(status);
+    }
+
+    static void writeOldValue(DataOutputStream output, Integer oldValue) throws IOException {
+        output.writeInt(oldValue != null ? oldValue : NULL_VALUE);
+    }
+
+    /**
+     * Writes the error response, the status is chosen by the exception type.
+     */
+    static void writeError(DataOutputStream output, int sequence, RuntimeException exception) throws IOException {
+        final byte status = exception instanceof IllegalArgumentException || exception instanceof IndexOutOfBoundsException
+                ? ILLEGAL_ARGUMENT
+                : exception instanceof IllegalStateException ? ILLEGAL_STATE : FAILURE;
+        final byte[] message = String.valueOf(exception.getMessage()).getBytes(StandardCharsets.UTF_8);
+        final int length = Math.min(message.length, MAX_MESSAGE_LENGTH);
+        writeHeader(output, 2 + length, sequence, status);
+        output.writeShort(length);
+        output.write(message, 0, length);
+    }
+}
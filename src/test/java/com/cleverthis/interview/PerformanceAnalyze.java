@@ -1,6 +1,31 @@
 package com.cleverthis.interview;
 
+import com.cleverthis.interview.domain.CrackerEngine;
+import com.cleverthis.interview.domain.IPadlock;
+import com.cleverthis.interview.domain.MinimalChangeStrategy;
+import com.cleverthis.interview.domain.PadlockCracker;
+import com.cleverthis.interview.domain.PasscodePrior;
+import com.cleverthis.interview.domain.PriorGuidedStrategy;
+import com.cleverthis.interview.domain.PadlockImplDelegate;
+import com.cleverthis.interview.padlock.LatencyModel;
 import com.cleverthis.interview.padlock.PadlockImpl;
+import com.cleverthis.interview.padlock.VirtualClock;
+import com.cleverthis.interview.remote.PadlockHttpServer;
+import com.cleverthis.interview.remote.PadlockSocketServer;
+import com.cleverthis.interview.remote.RestPadlock;
+import com.cleverthis.interview.remote.SocketPadlock;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Performance test but not mean to run in unit test.
@@ -9,14 +34,22 @@ public class PerformanceAnalyze {
 
     private static final int TOTAL_RUN = 500;
     private static final int NUMPAD_SIZE = 9;
+    private static final int MAX_WRITE_COUNT_NUMPAD_SIZE = 12;
+    private static final int PRIOR_NUMPAD_SIZE = 8;
+    private static final int PRIOR_CORPUS_SIZE = 1000;
+    private static final int REMOTE_OPERATIONS = 5_000;
 
     static {
         System.out.println("Total run: " + TOTAL_RUN);
         System.out.println("Numpad size: " + NUMPAD_SIZE);
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         new PerformanceAnalyze().analyze(args);
+        new PerformanceAnalyze().analyzeWriteCountDrop();
+        new PerformanceAnalyze().analyzePriorGuided();
+        new PerformanceAnalyze().analyzeRemoteOverhead();
+        new PerformanceAnalyze().analyzeSimulatedWallTime();
     }
 
     private void solve(PadlockImpl padlock) {
@@ -26,6 +59,7 @@ public class PerformanceAnalyze {
     private void analyze(String... args) {
         long timeSum = 0;
         long writeSum = 0;
+        long simulatedNanosSum = 0;
         for (int i = 0; i < TOTAL_RUN; i++) {
             PadlockImpl padlock = new PadlockImpl(NUMPAD_SIZE);
             padlock.resetCounter();
@@ -37,6 +71,8 @@ public class PerformanceAnalyze {
             long dT = end - start;
             timeSum += dT;
             writeSum += padlock.getWriteCounter();
+            // with -Dfast=true the padlock accounts its one second per write on the virtual clock
+            simulatedNanosSum += padlock.getClock().elapsedNanos();
             System.out.println("Run #" + (i + 1) + ": time: " + dT + "ms; write: " + padlock.getWriteCounter());
         }
         System.out.println("Run time sum: " + timeSum + "ms");
@@ -46,5 +82,208 @@ public class PerformanceAnalyze {
         System.out.println("Avg run time: " + avgTime + "ms");
         System.out.println("Avg write: " + avgWrite);
         System.out.println("Calculated estimate avg run time: " + (avgTime / 1000 + avgWrite) + "s");
+        System.out.println("Simulated avg device time: " + simulatedNanosSum / (double) TOTAL_RUN / 1e9 + "s");
+    }
+
+    /**
+     * Compare the simulated wall time of the cracker engines on padlocks with the real-cost latency models,
+     * on the serial padlock and on the padlock with the parallel address lanes (the batches take their slowest lane).
+     * The time is accounted on the virtual clock, so the hours of device time are simulated in milliseconds.
+     */
+    private void analyzeSimulatedWallTime() {
+        final long second = TimeUnit.SECONDS.toNanos(1);
+        final long[] perAddress = new long[NUMPAD_SIZE];
+        for (int address = 0; address < NUMPAD_SIZE; address++) {
+            // the farther the address, the longer the hardware needs to find it
+            perAddress[address] = second / 2 + address * second / 4;
+        }
+        final Map<String, LatencyModel> models = new LinkedHashMap<>();
+        models.put("fixed 1s", LatencyModel.DEFAULT);
+        models.put("per address 0.5-2.5s", LatencyModel.perAddress(perAddress));
+        models.put("exponential mean 1s", LatencyModel.exponential(second, 42));
+        System.out.println("Simulated avg wall time to open, numpad size " + NUMPAD_SIZE + ":");
+        for (Map.Entry<String, LatencyModel> model : models.entrySet()) {
+            simulateWallTime(model.getKey(), model.getValue(), false);
+            simulateWallTime(model.getKey() + ", parallel lanes", model.getValue(), true);
+        }
+    }
+
+    private void simulateWallTime(String name, LatencyModel model, boolean parallelLanes) {
+        for (CrackerEngine engine : CrackerEngine.values()) {
+            final long start = System.nanoTime();
+            long simulatedNanos = 0;
+            for (int i = 0; i < TOTAL_RUN; i++) {
+                final VirtualClock clock = new VirtualClock();
+                new PadlockCracker(new PadlockImplDelegate(new PadlockImpl(NUMPAD_SIZE, model, clock, parallelLanes)), engine)
+                        .execute();
+                simulatedNanos += clock.elapsedNanos();
+            }
+            System.out.println(name + ", " + engine + ": "
+                    + String.format("%.2fh", simulatedNanos / (double) TOTAL_RUN / TimeUnit.HOURS.toNanos(1))
+                    + " simulated in " + String.format("%.1fms", (System.nanoTime() - start) / 1e6 / TOTAL_RUN));
+        }
+    }
+
+    /**
+     * Compare the worst case (exhaustive search) write count of the cracker engines for numpad sizes 1-12.
+     * Uses a padlock that rejects every candidate, so each engine has to walk the complete permutation space.
+     */
+    private void analyzeWriteCountDrop() {
+        System.out.println("Worst case write count per engine:");
+        for (int size = 1; size <= MAX_WRITE_COUNT_NUMPAD_SIZE; size++) {
+            final long bruteForceWrites = countWrites(size, CrackerEngine.BRUTE_FORCE);
+            final long minimalChangeWrites = countWrites(size, CrackerEngine.MINIMAL_CHANGE);
+            System.out.println("Numpad size " + size
+                    + ": brute force: " + bruteForceWrites
+                    + "; minimal change: " + minimalChangeWrites
+                    + "; drop: " + String.format("%.1f%%", 100.0 * (bruteForceWrites - minimalChangeWrites) / bruteForceWrites));
+        }
+    }
+
+    private long countWrites(int numpadSize, CrackerEngine engine) {
+        final SimulatedPadlock padlock = new SimulatedPadlock(numpadSize, null);
+        new PadlockCracker(padlock, engine).execute();
+        return padlock.getWriteCounter();
+    }
+
+    /**
+     * Compare the average writes and checks to open the padlock of the minimal change and the prior guided strategy
+     * for passcodes chosen by people rather than by the uniform shuffle.
+     * The prior is built from one sample of the biased passcodes, the strategies are measured on another one.
+     */
+    private void analyzePriorGuided() {
+        final Random random = new Random(42);
+        final List<int[]> corpus = new ArrayList<>();
+        for (int i = 0; i < PRIOR_CORPUS_SIZE; i++) {
+            corpus.add(biasedPasscode(random, PRIOR_NUMPAD_SIZE));
+        }
+        final PasscodePrior prior = PasscodePrior.fromCodes(PRIOR_NUMPAD_SIZE, corpus);
+        long minimalChangeWrites = 0;
+        long minimalChangeChecks = 0;
+        long priorGuidedWrites = 0;
+        long priorGuidedChecks = 0;
+        for (int i = 0; i < TOTAL_RUN; i++) {
+            final int[] passcode = biasedPasscode(random, PRIOR_NUMPAD_SIZE);
+            final SimulatedPadlock minimalChange = new SimulatedPadlock(PRIOR_NUMPAD_SIZE, passcode);
+            new PadlockCracker(minimalChange, new MinimalChangeStrategy()).execute();
+            minimalChangeWrites += minimalChange.getWriteCounter();
+            minimalChangeChecks += minimalChange.getCheckCounter();
+            final SimulatedPadlock priorGuided = new SimulatedPadlock(PRIOR_NUMPAD_SIZE, passcode);
+            new PadlockCracker(priorGuided, new PriorGuidedStrategy(prior)).execute();
+            priorGuidedWrites += priorGuided.getWriteCounter();
+            priorGuidedChecks += priorGuided.getCheckCounter();
+        }
+        System.out.println("Biased passcodes, numpad size " + PRIOR_NUMPAD_SIZE + ", avg writes/checks to open:");
+        System.out.println("Minimal change: " + minimalChangeWrites / (double) TOTAL_RUN
+                + " / " + minimalChangeChecks / (double) TOTAL_RUN);
+        System.out.println("Prior guided: " + priorGuidedWrites / (double) TOTAL_RUN
+                + " / " + priorGuidedChecks / (double) TOTAL_RUN);
+    }
+
+    /**
+     * Compare the per-operation overhead of the REST and SOCKET access types, both served on the loopback interface
+     * by the PadlockImpl, so (with -Dfast=true) the measured time is the protocol overhead only.
+     */
+    private void analyzeRemoteOverhead() throws IOException {
+        final PadlockImplDelegate served = new PadlockImplDelegate(new PadlockImpl(NUMPAD_SIZE));
+        try (PadlockHttpServer httpServer = PadlockHttpServer.start(served, 0);
+             PadlockSocketServer socketServer = PadlockSocketServer.start(served, 0);
+             RestPadlock rest = new RestPadlock(httpServer.getUri(), 1, Duration.ofSeconds(30));
+             SocketPadlock socket = new SocketPadlock(new InetSocketAddress(socketServer.getUri().getHost(),
+                     socketServer.getUri().getPort()), 1, Duration.ofSeconds(30))) {
+            final double restNanos = measureOperationNanos(rest);
+            final double socketNanos = measureOperationNanos(socket);
+            System.out.println("Remote overhead per write+check: REST: " + String.format("%.1fus", restNanos / 1000)
+                    + "; SOCKET: " + String.format("%.1fus", socketNanos / 1000)
+                    + "; ratio: " + String.format("%.1fx", restNanos / socketNanos));
+        }
+    }
+
+    private static double measureOperationNanos(IPadlock padlock) {
+        for (int address = 0; address < NUMPAD_SIZE; address++) {
+            padlock.writeInputBuffer(address, address);
+        }
+        // warm up, then measure
+        for (int i = 0; i < REMOTE_OPERATIONS / 10; i++) {
+            padlock.writeInputBuffer(0, 0);
+            padlock.isPasscodeCorrect();
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < REMOTE_OPERATIONS; i++) {
+            padlock.writeInputBuffer(0, 0);
+            padlock.isPasscodeCorrect();
+        }
+        return (System.nanoTime() - start) / (double) REMOTE_OPERATIONS;
+    }
+
+    /**
+     * Passcode as people tend to choose it: mostly the keypad order, sometimes reversed, with a few keys swapped.
+     */
+    private static int[] biasedPasscode(Random random, int numpadSize) {
+        final boolean reversed = random.nextInt(4) == 0;
+        final int[] passcode = new int[numpadSize];
+        for (int address = 0; address < numpadSize; address++) {
+            passcode[address] = reversed ? numpadSize - 1 - address : address;
+        }
+        final int swaps = random.nextInt(4);
+        for (int swap = 0; swap < swaps; swap++) {
+            final int address = random.nextInt(numpadSize - 1);
+            final int key = passcode[address];
+            passcode[address] = passcode[address + 1];
+            passcode[address + 1] = key;
+        }
+        return passcode;
+    }
+
+    /**
+     * Write counting padlock accepting the given passcode, or never accepting any passcode if none is given.
+     */
+    private static final class SimulatedPadlock implements IPadlock {
+        private final int numpadSize;
+        private final int[] passcode;
+        private final int[] inputBuffer;
+        private long writeCounter;
+        private long checkCounter;
+
+        SimulatedPadlock(int numpadSize, int[] passcode) {
+            this.numpadSize = numpadSize;
+            this.passcode = passcode;
+            this.inputBuffer = new int[numpadSize];
+        }
+
+        @Override
+        public int getNumpadSize() {
+            return this.numpadSize;
+        }
+
+        @Override
+        public Integer writeInputBuffer(int address, int keyIndex) {
+            this.writeCounter++;
+            final int previous = this.inputBuffer[address];
+            this.inputBuffer[address] = keyIndex;
+            return previous;
+        }
+
+        @Override
+        public boolean isPasscodeCorrect() {
+            this.checkCounter++;
+            return this.passcode != null && Arrays.equals(this.passcode, this.inputBuffer);
+        }
+
+        @Override
+        public long getWriteCounter() {
+            return this.writeCounter;
+        }
+
+        @Override
+        public long getCheckCounter() {
+            return this.checkCounter;
+        }
+
+        @Override
+        public void resetCounter() {
+            this.writeCounter = 0;
+            this.checkCounter = 0;
+        }
     }
 }
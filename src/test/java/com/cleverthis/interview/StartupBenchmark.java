@@ -0,0 +1,77 @@
+package com.cleverthis.interview;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Startup benchmark of the short-lived cracker run, not meant to run in unit test.
+ * Compares the wall-clock time of the whole process: the plain JVM, the JVM with the AppCDS archive and the native
+ * executable. The variants not built yet are skipped. Run by the runStartupBenchmark gradle task.
+ */
+public class StartupBenchmark {
+
+    private static final int WARM_UP_RUNS = 2;
+    private static final int MEASURED_RUNS = Integer.getInteger("padlock.startup.runs", 10);
+
+    public static void main(String[] argv) throws IOException, InterruptedException {
+        final String classpath = System.getProperty("padlock.startup.classpath");
+        final Path cdsArchive = Path.of(System.getProperty("padlock.startup.cdsArchive", "build/cds/padlock.jsa"));
+        final Path nativeExecutable = Path.of(System.getProperty("padlock.startup.nativeExecutable", "build/native/padlock"));
+        final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        System.out.println("Cracker arguments: " + Arrays.toString(argv));
+        System.out.println("Runs per variant: " + MEASURED_RUNS);
+
+        analyze("JVM", command(List.of(java, "-Dfast=true", "-cp", classpath, PadlockCrackerApplication.class.getName()), argv));
+        if (Files.exists(cdsArchive)) {
+            analyze("JVM + AppCDS", command(List.of(java, "-Dfast=true", "-XX:SharedArchiveFile=" + cdsArchive, "-cp", classpath,
+                    PadlockCrackerApplication.class.getName()), argv));
+        } else {
+            System.out.println("JVM + AppCDS: skipped, no archive at " + cdsArchive);
+        }
+        if (Files.isExecutable(nativeExecutable)) {
+            analyze("Native image", command(List.of(nativeExecutable.toString(), "-Dfast=true"), argv));
+        } else {
+            System.out.println("Native image: skipped, no executable at " + nativeExecutable);
+        }
+    }
+
+    private static List<String> command(List<String> launcher, String[] argv) {
+        final List<String> command = new ArrayList<>(launcher);
+        command.addAll(Arrays.asList(argv));
+        return command;
+    }
+
+    private static void analyze(String variant, List<String> command) throws IOException, InterruptedException {
+        for (int i = 0; i < WARM_UP_RUNS; i++) {
+            run(command);
+        }
+        final long[] elapsed = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            elapsed[i] = run(command);
+        }
+        Arrays.sort(elapsed);
+        System.out.printf("%s: min %.1f ms, median %.1f ms, max %.1f ms%n", variant,
+                elapsed[0] / 1e6, elapsed[elapsed.length / 2] / 1e6, elapsed[elapsed.length - 1] / 1e6);
+    }
+
+    /**
+     * @return the wall-clock time of the process from its start to its exit in nanoseconds
+     */
+    private static long run(List<String> command) throws IOException, InterruptedException {
+        final long start = System.nanoTime();
+        final Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        final int exitCode = process.waitFor();
+        final long elapsed = System.nanoTime() - start;
+        if (exitCode != 0) {
+            throw new IllegalStateException("%s exited with %d".formatted(command, exitCode));
+        }
+        return elapsed;
+    }
+}
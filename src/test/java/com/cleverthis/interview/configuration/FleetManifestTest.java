@@ -0,0 +1,61 @@
+package com.cleverthis.interview.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetManifestTest {
+
+    @Test
+    void streamManifestResource() throws IOException {
+        // given
+        int count = 0;
+        // when
+        try (FleetManifest manifest = FleetManifest.open("/test-fleet-manifest.json")) {
+            for (PadlockConfiguration configuration : manifest) {
+                // then
+                assertNotNull(configuration.accessType(), "Each configuration should be parsed");
+                count++;
+            }
+        }
+        assertEquals(4, count, "All configurations of the manifest should be streamed");
+    }
+
+    @Test
+    void configurationsDeliveredBeforeMalformedTail() throws IOException {
+        // given
+        final Path file = Files.createTempFile("fleet-manifest", ".json");
+        Files.writeString(file, "[{\"accessType\":\"JAVA\",\"padlockKeypadSize\":3},{\"accessType\":\"JAVA\",\"padlockKeypadSize\":");
+        try (FleetManifest manifest = FleetManifest.open(file.toString())) {
+            final Iterator<PadlockConfiguration> configurations = manifest.iterator();
+            // when
+            final PadlockConfiguration first = configurations.next();
+            // then
+            assertEquals(3, first.padlockKeypadSize(), "First configuration should be available before the rest is parsed");
+            assertThrows(UncheckedIOException.class, configurations::hasNext);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void manifestMustBeArray() throws IOException {
+        // given
+        final Path file = Files.createTempFile("fleet-manifest", ".json");
+        Files.writeString(file, "{\"accessType\":\"JAVA\"}");
+        try {
+            // when
+            final IOException thrown = assertThrows(IOException.class, () -> FleetManifest.open(file.toString()));
+            // then
+            assertEquals("Fleet manifest must be a JSON array of padlock configurations", thrown.getMessage());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
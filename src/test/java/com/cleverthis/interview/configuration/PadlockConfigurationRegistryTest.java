@@ -0,0 +1,73 @@
+package com.cleverthis.interview.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PadlockConfigurationRegistryTest {
+
+    @Test
+    void reloadChangedEntries() throws IOException, InterruptedException {
+        // given
+        final Path directory = Files.createTempDirectory("padlock-registry");
+        final Path front = directory.resolve("front.json");
+        Files.writeString(front, "{\"accessType\":\"JAVA\",\"padlockKeypadSize\":4}");
+        final BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+        try (PadlockConfigurationRegistry registry = PadlockConfigurationRegistry.open(directory)) {
+            registry.addListener((name, configuration) ->
+                    changes.add(name + "=" + (configuration != null ? configuration.padlockKeypadSize() : "removed")));
+            assertEquals(4, registry.get("front").orElseThrow().padlockKeypadSize(), "Existing entry should be loaded");
+            // when
+            Files.writeString(front, "{\"accessType\":\"JAVA\",\"padlockKeypadSize\":7}");
+            // then
+            assertEquals("front=7", changes.poll(10, TimeUnit.SECONDS), "Changed entry should be reloaded");
+            assertEquals(7, registry.get("front").orElseThrow().padlockKeypadSize(), "Registry should serve the new entry");
+            // when
+            Files.delete(front);
+            // then
+            assertEquals("front=removed", changes.poll(10, TimeUnit.SECONDS), "Deleted entry should be removed");
+            assertTrue(registry.get("front").isEmpty(), "Removed entry should not be served");
+        } finally {
+            Files.deleteIfExists(front);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    void rereadDirectoryRemovesDeletedEntries() throws IOException {
+        // given
+        final Path directory = Files.createTempDirectory("padlock-registry");
+        final Path front = directory.resolve("front.json");
+        final Path back = directory.resolve("back.json");
+        Files.writeString(front, "{\"accessType\":\"JAVA\",\"padlockKeypadSize\":4}");
+        Files.writeString(back, "{\"accessType\":\"JAVA\",\"padlockKeypadSize\":5}");
+        final List<String> changes = new ArrayList<>();
+        try {
+            final PadlockConfigurationRegistry registry = PadlockConfigurationRegistry.open(directory);
+            // stop the watcher, so only the directory read (done on the lost events) sees the deletion
+            registry.close();
+            registry.addListener((name, configuration) ->
+                    changes.add(name + "=" + (configuration != null ? configuration.padlockKeypadSize() : "removed")));
+            Files.delete(back);
+            // when
+            registry.reloadAll();
+            // then
+            assertEquals(List.of("back=removed"), changes, "Deleted entry should be removed and announced");
+            assertEquals(Set.of("front"), registry.getConfigurations().keySet(), "Listed entry should stay");
+        } finally {
+            Files.deleteIfExists(front);
+            Files.deleteIfExists(back);
+            Files.delete(directory);
+        }
+    }
+}
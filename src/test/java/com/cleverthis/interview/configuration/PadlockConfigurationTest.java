@@ -2,6 +2,8 @@ package com.cleverthis.interview.configuration;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class PadlockConfigurationTest {
@@ -52,4 +54,48 @@ class PadlockConfigurationTest {
         assertNotNull(cfg.instanceType(), "The custom instance type should be present");
         assertEquals("com.cleverthis.interview.domain.PadlockImplDelegate", cfg.instanceType().type(), "Only PadlockImplDelegate is supported");
     }
-}
\ No newline at end of file
+
+    @Test
+    void lockIdentityFromLockId() {
+        // Given
+        PadlockConfiguration cfg = PadlockConfiguration.from("/test-padlock-configuration-lock-id.json");
+        // Then
+        assertEquals(5, cfg.padlockKeypadSize(), "Keypad size set to 5");
+        assertEquals("front-door-0042", cfg.lockId(), "Lock id should be read");
+        assertEquals("front-door-0042", cfg.lockIdentity(), "Lock id should be the lock identity");
+    }
+
+    @Test
+    void lockIdentityDerivedWithoutLockId() {
+        // Given
+        PadlockConfiguration cfg = PadlockConfiguration.from("/test-padlock-configuration.json");
+        // Then
+        assertNull(cfg.lockId(), "No lock id is specified in this test");
+        assertEquals("JAVA-11", cfg.lockIdentity(), "Lock identity should be derived from the configuration");
+    }
+
+    @Test
+    void lockIdentityIncludesEndpoint() {
+        // Given
+        final PadlockConfiguration front = new PadlockConfiguration(PadlockAccessType.REST, 5, null, null,
+                new PadlockConfiguration.PadlockEndpoint("http://front:8080/padlock", null, null));
+        final PadlockConfiguration back = new PadlockConfiguration(PadlockAccessType.REST, 5, null, null,
+                new PadlockConfiguration.PadlockEndpoint("http://back:8080/padlock", null, null));
+        final PadlockConfiguration tool = new PadlockConfiguration(PadlockAccessType.CLI, 5, null, null,
+                new PadlockConfiguration.PadlockEndpoint(null, null, null, List.of("padlock-tool", "--serial", "7")));
+        // Then
+        assertNotEquals(front.lockIdentity(), back.lockIdentity(), "Locks at different endpoints should not share identity");
+        assertEquals("CLI-5-padlock-tool --serial 7", tool.lockIdentity(), "Tool command should be part of the identity");
+        assertTrue(front.hasPersistentIdentity(), "Remote lock should keep its identity");
+    }
+
+    @Test
+    void inProcessLockWithoutLockIdNotPersistent() {
+        // Given
+        final PadlockConfiguration derived = PadlockConfiguration.from("/test-padlock-configuration.json");
+        final PadlockConfiguration identified = PadlockConfiguration.from("/test-padlock-configuration-lock-id.json");
+        // Then
+        assertFalse(derived.hasPersistentIdentity(), "JAVA padlock gets a new passcode on every run");
+        assertTrue(identified.hasPersistentIdentity(), "Lock id should make the identity persistent");
+    }
+}
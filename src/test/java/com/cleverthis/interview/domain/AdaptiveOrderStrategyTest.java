@@ -0,0 +1,83 @@
+package com.cleverthis.interview.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveOrderStrategyTest {
+
+    @Test
+    void everyPasscodeFoundAndCheckedOnceWhileProfiling() {
+        // given
+        final PermutationSpace space = new PermutationSpace(5);
+        long maxChecks = 0;
+        long maxWrites = 0;
+        // when
+        for (long rank = 0; rank < space.size(); rank++) {
+            final int[] passcode = space.unrank(rank);
+            final FixedPasscodePadlock padlock = new FixedPasscodePadlock(passcode);
+            final int[] solution = new AdaptiveOrderStrategy(null, null, 40).crack(padlock);
+            // then
+            assertArrayEquals(passcode, solution, "Every passcode should be found");
+            maxChecks = Math.max(maxChecks, padlock.getCheckCounter());
+            maxWrites = Math.max(maxWrites, padlock.getWriteCounter());
+        }
+        assertTrue(maxChecks <= space.size(), "Candidates checked while profiling should not be checked again");
+        // rewriting the profiled candidates would cost the 40 profiling writes plus the complete minimal change walk
+        assertTrue(maxWrites < 40 + 5 + 2 * (space.size() - 1),
+                "Candidates checked while profiling should not be written again, writes: " + maxWrites);
+    }
+
+    @Test
+    void slowAddressChangesRarely() throws IOException {
+        // given
+        final Path file = Files.createTempFile("latency", ".properties");
+        Files.delete(file);
+        final LatencyProfileStore store = new LatencyProfileStore(file);
+        try {
+            // when
+            new AdaptiveOrderStrategy("slow-first", store, 16).crack(new SlowAddressPadlock(0, 3, 2, 1, 0));
+            final Optional<AddressLatencyProfile> profile = store.load("slow-first", 4);
+            final SlowAddressPadlock tuned = new SlowAddressPadlock(0, 0, 1, 2, 3);
+            new AdaptiveOrderStrategy("slow-first", store).crack(tuned);
+            // then
+            assertTrue(profile.isPresent(), "Profile should be stored");
+            assertEquals(0, profile.get().cheapestFirst()[3], "Slow address should be the most expensive one");
+            assertTrue(tuned.slowWrites <= 4, "Slow address should change only when the highest position does");
+            assertEquals(Optional.empty(), store.load("slow-first", 5), "Profile of other keypad size should be ignored");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Padlock with the write to the first address being slow.
+     */
+    private static final class SlowAddressPadlock extends FixedPasscodePadlock {
+        private final int slowAddress;
+        private int slowWrites;
+
+        SlowAddressPadlock(int slowAddress, int... passcode) {
+            super(passcode);
+            this.slowAddress = slowAddress;
+        }
+
+        @Override
+        public Integer writeInputBuffer(int address, int keyIndex) {
+            if (address == this.slowAddress) {
+                this.slowWrites++;
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.writeInputBuffer(address, keyIndex);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.cleverthis.interview.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedFirstStrategyTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        this.file = this.directory.resolve("padlock.cache");
+    }
+
+    @Test
+    void cacheHitCostsSingleCandidate() throws IOException {
+        // given
+        final FixedPasscodePadlock first = new FixedPasscodePadlock(4, 2, 0, 3, 1);
+        new CachedFirstStrategy(new MinimalChangeStrategy(), SolvedPasscodeCache.open(this.file, 8), "lock-1").crack(first);
+        final FixedPasscodePadlock reseated = new FixedPasscodePadlock(4, 2, 0, 3, 1);
+        // when
+        final int[] solution = new CachedFirstStrategy(new MinimalChangeStrategy(), SolvedPasscodeCache.open(this.file, 8), "lock-1")
+                .crack(reseated);
+        // then
+        assertArrayEquals(new int[]{4, 2, 0, 3, 1}, solution, "Cached passcode should be returned");
+        assertEquals(5, reseated.getWriteCounter(), "Cache hit should cost numpadSize writes");
+        assertEquals(1, reseated.getCheckCounter(), "Cache hit should cost one check");
+    }
+
+    @Test
+    void changedPasscodeFallsBackAndReplacesEntry() throws IOException {
+        // given
+        final SolvedPasscodeCache cache = SolvedPasscodeCache.open(this.file, 8);
+        cache.put("lock-1", new int[]{0, 1, 2, 3});
+        final FixedPasscodePadlock padlock = new FixedPasscodePadlock(3, 1, 2, 0);
+        // when
+        final int[] solution = new CachedFirstStrategy(new MinimalChangeStrategy(), cache, "lock-1").crack(padlock);
+        // then
+        assertArrayEquals(new int[]{3, 1, 2, 0}, solution, "Fallback should crack the changed passcode");
+        assertArrayEquals(new int[]{3, 1, 2, 0}, SolvedPasscodeCache.open(this.file, 8).get("lock-1").orElseThrow(),
+                "Changed passcode should be cached");
+    }
+
+    @Test
+    void cacheHitDoesNotBuildFallback() throws IOException {
+        // given
+        final SolvedPasscodeCache cache = SolvedPasscodeCache.open(this.file, 8);
+        cache.put("lock-1", new int[]{2, 0, 1});
+        final FixedPasscodePadlock padlock = new FixedPasscodePadlock(2, 0, 1);
+        // when
+        final int[] solution = new CachedFirstStrategy(() -> {
+            throw new AssertionError("Fallback should not be built on the cache hit");
+        }, cache, "lock-1").crack(padlock);
+        // then
+        assertArrayEquals(new int[]{2, 0, 1}, solution, "Cached passcode should be returned");
+        assertEquals(3, padlock.getWriteCounter(), "Only the cached passcode should be written");
+    }
+
+    @Test
+    void cacheHitPersistsRecency() throws IOException {
+        // given
+        final SolvedPasscodeCache cache = SolvedPasscodeCache.open(this.file, 2);
+        cache.put("lock-1", new int[]{1, 0});
+        cache.put("lock-2", new int[]{0, 1});
+        cache.save();
+        new CachedFirstStrategy(new MinimalChangeStrategy(), SolvedPasscodeCache.open(this.file, 2), "lock-1")
+                .crack(new FixedPasscodePadlock(1, 0));
+        // when
+        final SolvedPasscodeCache reopened = SolvedPasscodeCache.open(this.file, 2);
+        reopened.put("lock-3", new int[]{1, 0});
+        // then
+        assertTrue(reopened.get("lock-1").isPresent(), "Recently hit lock should be kept");
+        assertFalse(reopened.get("lock-2").isPresent(), "Least recently used lock should be evicted");
+    }
+
+    @Test
+    void costQueryKeepsRecencyAndLazyFallback() throws IOException {
+        // given
+        final SolvedPasscodeCache cache = SolvedPasscodeCache.open(this.file, 2);
+        cache.put("lock-1", new int[]{1, 0});
+        cache.put("lock-2", new int[]{0, 1});
+        final CachedFirstStrategy hit = new CachedFirstStrategy(() -> {
+            throw new AssertionError("Fallback should not be built by the cost query");
+        }, cache, "lock-1");
+        final CachedFirstStrategy miss = new CachedFirstStrategy(() -> {
+            throw new AssertionError("Fallback should not be built by the cost query");
+        }, cache, "lock-9");
+        // when
+        final double hitWrites = hit.expectedWrites(2);
+        final double missWrites = miss.expectedWrites(4);
+        cache.put("lock-3", new int[]{1, 0});
+        // then
+        assertEquals(2.0, hitWrites, "Cache hit should cost numpadSize writes");
+        assertEquals(new MinimalChangeStrategy().expectedWrites(4), missWrites, "Miss should be estimated as the minimal change walk");
+        assertFalse(cache.contains("lock-1"), "Cost query should not make the lock the most recently used one");
+        assertTrue(cache.contains("lock-2"), "More recently put lock should be kept");
+    }
+}
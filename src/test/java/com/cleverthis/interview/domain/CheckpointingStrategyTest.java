@@ -0,0 +1,140 @@
+package com.cleverthis.interview.domain;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckpointingStrategyTest {
+
+    private static final int[] PASSCODE = {4, 0, 6, 2, 5, 1, 3};
+
+    private Path checkpointFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.checkpointFile = Files.createTempFile("padlock", ".checkpoint");
+        Files.delete(this.checkpointFile);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(this.checkpointFile);
+    }
+
+    @Test
+    void crackWithoutInterruption() {
+        // given
+        final FixedPasscodePadlock padlock = new FixedPasscodePadlock(PASSCODE);
+        final FixedPasscodePadlock reference = new FixedPasscodePadlock(PASSCODE);
+        new MinimalChangeStrategy().crack(reference);
+        // when
+        final int[] solution = new CheckpointingStrategy(this.checkpointFile, 10).crack(padlock);
+        // then
+        assertArrayEquals(PASSCODE, solution, "Solution should match the passcode");
+        assertEquals(reference.getWriteCounter(), padlock.getWriteCounter(), "Same writes as the minimal change walk");
+    }
+
+    @Test
+    void resumeWithoutRepeatingWrites() {
+        // given
+        final FixedPasscodePadlock padlock = new FixedPasscodePadlock(PASSCODE);
+        final FixedPasscodePadlock reference = new FixedPasscodePadlock(PASSCODE);
+        new MinimalChangeStrategy().crack(reference);
+        // when
+        assertThrows(IllegalStateException.class,
+                () -> new CheckpointingStrategy(this.checkpointFile, 10).crack(new PowerCutPadlock(padlock, 1005)));
+        final int[] solution = new CheckpointingStrategy(this.checkpointFile, 10).crack(padlock);
+        // then
+        assertArrayEquals(PASSCODE, solution, "Solution should match the passcode");
+        assertEquals(reference.getWriteCounter(), padlock.getWriteCounter(), "No write should be made twice");
+    }
+
+    @Test
+    void resumeRepeatsOnlyBatchInFlight() throws IOException {
+        // given: the first candidate is a batch of 7 writes, each later candidate a batch of 2 writes
+        final FixedPasscodePadlock reference = new FixedPasscodePadlock(PASSCODE);
+        new MinimalChangeStrategy().crack(reference);
+        for (long powerCut : new long[]{0, 1, 5, 6, 7, 8, 9, 1004, 1005}) {
+            final FixedPasscodePadlock padlock = new FixedPasscodePadlock(PASSCODE);
+            final long batchStart = powerCut < PASSCODE.length ? 0 : powerCut - (powerCut - PASSCODE.length) % 2;
+            // when
+            assertThrows(IllegalStateException.class,
+                    () -> new CheckpointingStrategy(this.checkpointFile, 1000).crack(new PowerCutPadlock(padlock, powerCut)));
+            final int[] solution = new CheckpointingStrategy(this.checkpointFile, 1000).crack(padlock);
+            // then
+            assertArrayEquals(PASSCODE, solution, "Solution should match the passcode");
+            assertEquals(reference.getWriteCounter() + powerCut - batchStart, padlock.getWriteCounter(),
+                    "Only the writes of the batch interrupted at write " + powerCut + " should be made twice");
+            Files.delete(this.checkpointFile);
+        }
+    }
+
+    @Test
+    void solvedCheckpointCostsNoWrites() {
+        // given
+        final FixedPasscodePadlock padlock = new FixedPasscodePadlock(PASSCODE);
+        new CheckpointingStrategy(this.checkpointFile).crack(padlock);
+        padlock.resetCounter();
+        // when
+        final int[] solution = new CheckpointingStrategy(this.checkpointFile).crack(padlock);
+        // then
+        assertArrayEquals(PASSCODE, solution, "Solution should match the passcode");
+        assertEquals(0, padlock.getWriteCounter(), "Solved padlock should not be written again");
+    }
+
+    @Test
+    void solvedCheckpointOfReplacedPadlockRestartsWalk() {
+        // given
+        new CheckpointingStrategy(this.checkpointFile).crack(new FixedPasscodePadlock(PASSCODE));
+        final FixedPasscodePadlock padlock = new FixedPasscodePadlock(PASSCODE);
+        final FixedPasscodePadlock reference = new FixedPasscodePadlock(PASSCODE);
+        new MinimalChangeStrategy().crack(reference);
+        // when
+        final int[] solution = new CheckpointingStrategy(this.checkpointFile).crack(padlock);
+        // then
+        assertArrayEquals(PASSCODE, solution, "Solution should match the passcode");
+        assertEquals(reference.getWriteCounter(), padlock.getWriteCounter(), "Fresh padlock should be cracked from the beginning");
+    }
+
+    @Test
+    void rejectCheckpointOfDifferentKeypadSize() {
+        // given
+        new CheckpointingStrategy(this.checkpointFile).crack(new FixedPasscodePadlock(1, 0));
+        // when / then
+        assertThrows(IllegalStateException.class,
+                () -> new CheckpointingStrategy(this.checkpointFile).crack(new FixedPasscodePadlock(PASSCODE)));
+    }
+
+    /**
+     * Simulates the crash of the cracker process before the given write reaches the padlock.
+     */
+    private static final class PowerCutPadlock extends FixedPasscodePadlock {
+        private final FixedPasscodePadlock delegate;
+        private long remainingWrites;
+
+        PowerCutPadlock(FixedPasscodePadlock delegate, long remainingWrites) {
+            super(PASSCODE);
+            this.delegate = delegate;
+            this.remainingWrites = remainingWrites;
+        }
+
+        @Override
+        public Integer writeInputBuffer(int address, int keyIndex) {
+            if (this.remainingWrites-- == 0) {
+                throw new IllegalStateException("Power cut");
+            }
+            return this.delegate.writeInputBuffer(address, keyIndex);
+        }
+
+        @Override
+        public boolean isPasscodeCorrect() {
+            return this.delegate.isPasscodeCorrect();
+        }
+    }
+}
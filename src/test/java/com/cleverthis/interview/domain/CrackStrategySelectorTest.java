@@ -0,0 +1,105 @@
+package com.cleverthis.interview.domain;
+
+import com.cleverthis.interview.padlock.PadlockImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrackStrategySelectorTest {
+
+    private static final PadlockCostModel SLOW_WRITE = new PadlockCostModel(1e9, 1e3);
+    private static final PadlockCostModel SLOW_CHECK = new PadlockCostModel(1e3, 1e9);
+
+    @Test
+    void serviceLoaderRegistersBuiltInStrategies() {
+        // when
+        final CrackStrategySelector selector = CrackStrategySelector.fromServiceLoader();
+        // then
+        assertTrue(selector.getCandidates().stream().anyMatch(BruteForceStrategy.class::isInstance), "Brute force should be registered");
+        assertTrue(selector.getCandidates().stream().anyMatch(MinimalChangeStrategy.class::isInstance), "Minimal change should be registered");
+    }
+
+    @Test
+    void selectMinimalChangeForSlowWrites() {
+        // given
+        final CrackStrategySelector selector = new CrackStrategySelector(List.of(new BruteForceStrategy(), new MinimalChangeStrategy()));
+        // when
+        final CrackStrategy strategy = selector.select(9, SLOW_WRITE);
+        // then
+        assertEquals(MinimalChangeStrategy.class, strategy.getClass(), "Fewer writes should win when writes are expensive");
+    }
+
+    @Test
+    void selectCheaperCustomStrategy() {
+        // given
+        final CrackStrategy custom = new MinimalChangeStrategy() {
+            @Override
+            public double expectedWrites(int numpadSize) {
+                return 1;
+            }
+        };
+        final CrackStrategySelector selector = new CrackStrategySelector(List.of(new MinimalChangeStrategy(), custom));
+        // when
+        final CrackStrategy strategy = selector.select(9, SLOW_WRITE);
+        // then
+        assertSame(custom, strategy, "Strategy with the lowest expected cost should be selected");
+    }
+
+    @Test
+    void costModelDecidesBetweenTradeOffs() {
+        // given
+        final CrackStrategy fewWrites = new TradeOffStrategy(10, 1000);
+        final CrackStrategy fewChecks = new TradeOffStrategy(1000, 10);
+        final CrackStrategySelector selector = new CrackStrategySelector(List.of(fewWrites, fewChecks));
+        // when
+        final CrackStrategy slowWritePick = selector.select(9, SLOW_WRITE);
+        final CrackStrategy slowCheckPick = selector.select(9, SLOW_CHECK);
+        // then
+        assertSame(fewWrites, slowWritePick, "Fewer writes should win when writes are expensive");
+        assertSame(fewChecks, slowCheckPick, "Fewer checks should win when checks are expensive");
+    }
+
+    @Test
+    void selectWithoutPadlockOperationsAndCrack() {
+        // given
+        final IPadlock padlock = new PadlockImplDelegate(new PadlockImpl(6));
+        // when
+        final CrackStrategy strategy = CrackStrategySelector.fromServiceLoader().select(padlock);
+        final long selectionWrites = padlock.getWriteCounter();
+        final int[] solution = new PadlockCracker(padlock, strategy).execute();
+        // then
+        assertEquals(0, selectionWrites, "Selection should not write to the padlock");
+        assertNotNull(solution, "Solution should exists");
+        assertTrue(padlock.isPasscodeCorrect(), "Padlock should acknowledge the success");
+    }
+
+    @Test
+    void rejectEmptyCandidates() {
+        assertThrows(IllegalArgumentException.class, () -> new CrackStrategySelector(List.of()));
+    }
+
+    /**
+     * Strategy with the given expected writes and checks, never run.
+     */
+    private static final class TradeOffStrategy extends MinimalChangeStrategy {
+        private final double writes;
+        private final double checks;
+
+        TradeOffStrategy(double writes, double checks) {
+            this.writes = writes;
+            this.checks = checks;
+        }
+
+        @Override
+        public double expectedWrites(int numpadSize) {
+            return this.writes;
+        }
+
+        @Override
+        public double expectedChecks(int numpadSize) {
+            return this.checks;
+        }
+    }
+}
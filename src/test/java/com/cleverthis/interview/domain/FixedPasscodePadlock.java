@@ -0,0 +1,69 @@
+package com.cleverthis.interview.domain;
+
+import java.util.Arrays;
+
+/**
+ * Test double of the padlock with known passcode, it follows the PadlockImpl contract without the write latency.
+ */
+class FixedPasscodePadlock implements IPadlock {
+
+    private final int[] passcode;
+    private final Integer[] inputBuffer;
+    private long writeCounter;
+    private long checkCounter;
+
+    FixedPasscodePadlock(int... passcode) {
+        this.passcode = passcode.clone();
+        this.inputBuffer = new Integer[passcode.length];
+    }
+
+    @Override
+    public int getNumpadSize() {
+        return this.passcode.length;
+    }
+
+    @Override
+    public Integer writeInputBuffer(int address, int keyIndex) {
+        if (keyIndex < 0 || keyIndex >= this.passcode.length) {
+            throw new IllegalArgumentException("keyIndex out of range: " + keyIndex);
+        }
+        this.writeCounter++;
+        final Integer oldValue = this.inputBuffer[address];
+        this.inputBuffer[address] = keyIndex;
+        return oldValue;
+    }
+
+    @Override
+    public boolean isPasscodeCorrect() {
+        final boolean[] used = new boolean[this.passcode.length];
+        for (Integer key : this.inputBuffer) {
+            if (key == null || used[key]) {
+                throw new IllegalStateException("Passcode invalid: " + Arrays.toString(this.inputBuffer));
+            }
+            used[key] = true;
+        }
+        this.checkCounter++;
+        for (int address = 0; address < this.passcode.length; address++) {
+            if (this.inputBuffer[address] != this.passcode[address]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long getWriteCounter() {
+        return this.writeCounter;
+    }
+
+    @Override
+    public long getCheckCounter() {
+        return this.checkCounter;
+    }
+
+    @Override
+    public void resetCounter() {
+        this.writeCounter = 0;
+        this.checkCounter = 0;
+    }
+}
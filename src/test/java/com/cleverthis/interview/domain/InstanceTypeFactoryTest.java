@@ -0,0 +1,49 @@
+package com.cleverthis.interview.domain;
+
+import com.cleverthis.interview.configuration.PadlockConfiguration.PadlockInstanceType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstanceTypeFactoryTest {
+
+    private static final PadlockInstanceType deepChain = new PadlockInstanceType(
+            WriteBackPadlock.class.getName(), new PadlockInstanceType(
+            WriteElidingPadlock.class.getName(), new PadlockInstanceType(
+            PadlockImplDelegate.class.getName(), new PadlockInstanceType(
+            "com.cleverthis.interview.padlock.PadlockImpl", new PadlockInstanceType("int", null, "5"), null), null), null), null);
+
+    @Test
+    void deepChainBuildsNewInstanceEveryTime() {
+        // given
+        final InstanceTypeFactory factory = InstanceTypeFactory.of(deepChain).orElseThrow();
+        // when
+        final Object first = factory.newInstance();
+        final Object second = factory.newInstance();
+        // then
+        assertEquals(WriteBackPadlock.class, first.getClass(), "Outermost link should be built");
+        assertEquals(5, ((IPadlock) first).getNumpadSize(), "Int literal should reach the innermost link");
+        assertNotSame(first, second, "Every build should create a new padlock");
+    }
+
+    @Test
+    void chainCompiledOnce() {
+        // when
+        final Optional<InstanceTypeFactory> first = InstanceTypeFactory.of(deepChain);
+        final Optional<InstanceTypeFactory> second = InstanceTypeFactory.of(deepChain);
+        // then
+        assertSame(first, second, "Compiled chain should be cached");
+    }
+
+    @Test
+    void unknownClassNotCompiled() {
+        // given
+        final PadlockInstanceType unknown = new PadlockInstanceType("com.cleverthis.interview.domain.NoSuchPadlock", null, null);
+        // when
+        final Optional<InstanceTypeFactory> factory = InstanceTypeFactory.of(unknown);
+        // then
+        assertTrue(factory.isEmpty(), "Unknown class should not be compiled");
+    }
+}
@@ -1,5 +1,6 @@
 package com.cleverthis.interview.domain;
 
+import com.cleverthis.interview.configuration.PadlockAccessType;
 import com.cleverthis.interview.configuration.PadlockConfiguration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,15 +33,25 @@ class PadlockBuilderTest {
     }
 
     @Test
-    void unsupportedConfigurationTest() {
+    void cliConfigurationWithoutCommandTest() {
         // given
         this.builder.withPadlockConfiguration(unsupportedConfiguration);
         // when
-        RuntimeException thrown = assertThrows(RuntimeException.class, () -> {
+        RuntimeException thrown = assertThrows(IllegalArgumentException.class, () -> {
             this.builder.build();
         });
         // then
-        assertEquals("This Padlock type is not supported in v1.0: CLI", thrown.getMessage());
+        assertEquals("CLI padlock requires the endpoint command in the configuration", thrown.getMessage());
+    }
+
+    @Test
+    void restConfigurationWithoutEndpointTest() {
+        // given
+        this.builder.withPadlockConfiguration(new PadlockConfiguration(PadlockAccessType.REST, 4, null));
+        // when
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> this.builder.build());
+        // then
+        assertEquals("REST padlock requires the endpoint uri in the configuration", thrown.getMessage());
     }
 
     @Test
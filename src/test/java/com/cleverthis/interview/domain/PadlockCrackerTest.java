@@ -1,8 +1,15 @@
 package com.cleverthis.interview.domain;
 
+import com.cleverthis.interview.padlock.LatencyModel;
+import com.cleverthis.interview.padlock.PadlockClock;
 import com.cleverthis.interview.padlock.PadlockImpl;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class PadlockCrackerTest {
@@ -20,4 +27,90 @@ class PadlockCrackerTest {
         assertEquals(keypadSize, solution.length, "Solution length and actual keypad size should match");
         assertTrue(padlock.isPasscodeCorrect(), "Padlock should acknowledge the success");
     }
-}
\ No newline at end of file
+
+    @Test
+    void executeMinimalChange() {
+        // given
+        final int keypadSize = 9;
+        final IPadlock padlock = new PadlockImplDelegate(new PadlockImpl(keypadSize));
+        final PadlockCracker cracker = new PadlockCracker(padlock, CrackerEngine.MINIMAL_CHANGE);
+        // when
+        final int[] solution = cracker.execute();
+        // then
+        assertNotNull(solution, "Solution should exists");
+        assertEquals(keypadSize, solution.length, "Solution length and actual keypad size should match");
+        assertTrue(padlock.isPasscodeCorrect(), "Padlock should acknowledge the success");
+    }
+
+    @Test
+    void minimalChangeWritesTwicePerCandidate() {
+        for (int keypadSize = 1; keypadSize <= 7; keypadSize++) {
+            // given
+            final IPadlock padlock = new PadlockImplDelegate(new PadlockImpl(keypadSize));
+            // when
+            new PadlockCracker(padlock, CrackerEngine.MINIMAL_CHANGE).execute();
+            // then
+            assertEquals(keypadSize + 2 * (padlock.getCheckCounter() - 1), padlock.getWriteCounter(),
+                    "Every candidate after the first one should cost exactly two writes");
+        }
+    }
+
+    @Test
+    void solutionIsTheInputBuffer() {
+        // given
+        final int keypadSize = 6;
+        final IPadlock padlock = new PadlockImplDelegate(new PadlockImpl(keypadSize));
+        final int[] solution = new PadlockCracker(padlock).execute();
+        // when
+        for (int address = 0; address < keypadSize; address++) {
+            padlock.writeInputBuffer(address, solution[address]);
+        }
+        // then
+        assertTrue(padlock.isPasscodeCorrect(), "Writing the solution back should keep the padlock open");
+    }
+
+    @Test
+    void progressReported() {
+        // given
+        final FixedPasscodePadlock fixed = new FixedPasscodePadlock(4, 3, 2, 1, 0);
+        final IPadlock padlock = new PadlockImplDelegate(new PadlockImpl(5,
+                LatencyModel.fixed(TimeUnit.MILLISECONDS.toNanos(1)), PadlockClock.real())) {
+            @Override
+            public Integer writeInputBuffer(int address, int keyIndex) {
+                // slow writes of the padlock with the known passcode, so the periodic reports get a chance
+                super.writeInputBuffer(address, 0);
+                return fixed.writeInputBuffer(address, keyIndex);
+            }
+
+            @Override
+            public Integer[] writeInputBuffer(int[] addresses, int[] keyIndexes) {
+                final Integer[] oldValues = new Integer[addresses.length];
+                for (int i = 0; i < addresses.length; i++) {
+                    oldValues[i] = this.writeInputBuffer(addresses[i], keyIndexes[i]);
+                }
+                return oldValues;
+            }
+
+            @Override
+            public boolean isPasscodeCorrect() {
+                return fixed.isPasscodeCorrect();
+            }
+        };
+        final List<CrackProgress> reports = new CopyOnWriteArrayList<>();
+        // when
+        final int[] solution = new PadlockCracker(padlock, CrackerEngine.BRUTE_FORCE)
+                .withProgressListener(reports::add, Duration.ofMillis(20))
+                .execute();
+        // then
+        assertArrayEquals(new int[]{4, 3, 2, 1, 0}, solution, "Solution should match the passcode");
+        assertTrue(reports.size() > 1, "Progress should be reported while cracking");
+        final CrackProgress last = reports.get(reports.size() - 1);
+        assertTrue(last.finished(), "Last report should be the finished one");
+        assertEquals(120, last.candidateCount(), "Candidate count should be n!");
+        assertEquals(fixed.getCheckCounter(), last.candidatesTried(), "Every check should be a tried candidate");
+        assertEquals(fixed.getWriteCounter(), last.writes(), "Every write should be reported");
+        assertTrue(last.writeLatency().toNanos() >= TimeUnit.MILLISECONDS.toNanos(1), "Write latency should be observed");
+        assertTrue(reports.stream().filter(report -> !report.finished()).anyMatch(report -> report.remaining() != null),
+                "Remaining time should be projected while cracking");
+    }
+}
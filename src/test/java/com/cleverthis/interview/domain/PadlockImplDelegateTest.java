@@ -33,6 +33,28 @@ class PadlockImplDelegateTest {
         assertEquals(0, this.delegate.getCheckCounter(), "Check counter test");
     }
 
+    @Test
+    void writeInputBufferBatch() {
+        // given
+        this.delegate.writeInputBuffer(1, 4);
+        // when
+        final Integer[] oldValues = this.delegate.writeInputBuffer(new int[]{0, 1}, new int[]{1, 0});
+        // then
+        assertNull(oldValues[0], "Uninitialized address should return null");
+        assertEquals(Integer.valueOf(4), oldValues[1], "Old value should be returned");
+        assertEquals(3, this.delegate.getWriteCounter(), "Write counter check");
+    }
+
+    @Test
+    void writeInputBufferAsync() {
+        // when
+        final Integer oldValue = this.delegate.writeInputBufferAsync(0, 1).join();
+        // then
+        assertNull(oldValue, "Uninitialized address should return null");
+        assertEquals(1, this.delegate.getWriteCounter(), "Write counter check");
+        assertTrue(this.delegate.writeInputBufferAsync(0, -1).isCompletedExceptionally(), "Invalid write should fail the future");
+    }
+
     @Test
     void isPasscodeCorrect() {
         // given
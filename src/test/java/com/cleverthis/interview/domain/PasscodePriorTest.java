@@ -0,0 +1,38 @@
+package com.cleverthis.interview.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasscodePriorTest {
+
+    @Test
+    void corpusReadFromFile() throws IOException {
+        // given
+        final Path corpus = Files.createTempFile("passcodes", ".txt");
+        Files.writeString(corpus, "# recovered passcodes\n2,1,0\n0 1 2\n\n2, 1, 0\n0,0,1\n1,2\nx,1,2\n");
+        try {
+            // when
+            final PasscodePrior prior = PasscodePrior.fromFile(corpus, 3);
+            // then
+            assertEquals(2, prior.getKnownCodes().size(), "Invalid codes and duplicates should be skipped");
+            assertArrayEquals(new int[]{2, 1, 0}, prior.getKnownCodes().get(0), "The most frequent code should be first");
+            assertEquals(3.0, prior.weight(0, 2), "Key weight should be the smoothed count");
+            assertEquals(1.0, prior.weight(0, 1), "Unseen key should keep the smoothing weight");
+            assertArrayEquals(new int[]{2, 0, 1}, prior.keyOrder()[0], "Keys should be ordered by their weight");
+        } finally {
+            Files.delete(corpus);
+        }
+    }
+
+    @Test
+    void nonSquareWeightsRejected() {
+        // when, then
+        assertThrows(IllegalArgumentException.class, () -> PasscodePrior.fromWeights(new double[][]{{1, 2}, {1}}),
+                "Weights should be a square matrix");
+    }
+}
@@ -0,0 +1,80 @@
+package com.cleverthis.interview.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermutationSpaceTest {
+
+    @Test
+    void rankFollowsLexicographicOrder() {
+        // given
+        final PermutationSpace space = new PermutationSpace(6);
+        final int[] permutation = space.unrank(0);
+        // when / then
+        for (long rank = 0; rank < space.size(); rank++) {
+            assertEquals(rank, space.rank(permutation), "Rank should follow the lexicographic order");
+            assertArrayEquals(permutation, space.unrank(rank), "Unrank should be the inverse of rank");
+            PermutationSpace.next(permutation);
+        }
+        assertEquals(-1, PermutationSpace.next(permutation), "Last permutation should have no successor");
+    }
+
+    @Test
+    void largestSpaceFitsIntoLong() {
+        // given
+        final PermutationSpace space = new PermutationSpace(PermutationSpace.MAX_NUMPAD_SIZE);
+        // when
+        final int[] last = space.unrank(space.size() - 1);
+        // then
+        assertEquals(2432902008176640000L, space.size(), "20! candidates");
+        assertEquals(space.size() - 1, space.rank(last), "Rank of the last candidate");
+        assertThrows(IllegalArgumentException.class, () -> new PermutationSpace(PermutationSpace.MAX_NUMPAD_SIZE + 1));
+    }
+
+    @Test
+    void splitCoversWholeSpace() {
+        // given
+        final PermutationSpace space = new PermutationSpace(5);
+        // when
+        final List<PermutationSpace.RankRange> ranges = space.split(7);
+        // then
+        long expectedFrom = 0;
+        for (PermutationSpace.RankRange range : ranges) {
+            assertEquals(expectedFrom, range.getFromRank(), "Ranges should be consecutive");
+            assertTrue(range.estimateSize() == 17 || range.estimateSize() == 18, "Ranges should be balanced");
+            expectedFrom = range.getToRank();
+        }
+        assertEquals(space.size(), expectedFrom, "Ranges should cover the space");
+    }
+
+    @Test
+    void parallelSpliteratorVisitsEveryCandidateOnce() {
+        // given
+        final PermutationSpace space = new PermutationSpace(7);
+        // when
+        final Set<Long> ranks = new HashSet<>();
+        StreamSupport.stream(space.range(), true).mapToLong(space::rank).sequential().forEach(ranks::add);
+        // then
+        assertEquals(space.size(), ranks.size(), "Every candidate should be visited once");
+    }
+
+    @Test
+    void trySplitHalvesRemainingRange() {
+        // given
+        final PermutationSpace.RankRange range = new PermutationSpace(4).range(4, 20);
+        range.tryAdvance(permutation -> { });
+        // when
+        final PermutationSpace.RankRange prefix = range.trySplit();
+        // then
+        assertEquals(5, prefix.getFromRank(), "Prefix starts at the current position");
+        assertEquals(12, prefix.getToRank(), "Prefix ends in the middle");
+        assertEquals(12, range.getPosition(), "Remainder starts in the middle");
+        assertEquals(8, range.estimateSize(), "Remainder size");
+    }
+}
@@ -0,0 +1,69 @@
+package com.cleverthis.interview.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriorGuidedStrategyTest {
+
+    @Test
+    void knownCodeOpensWithSingleCheck() {
+        // given
+        final PasscodePrior prior = PasscodePrior.fromCodes(5, List.of(
+                new int[]{4, 3, 2, 1, 0}, new int[]{0, 1, 2, 3, 4}, new int[]{0, 1, 2, 3, 4}));
+        final FixedPasscodePadlock padlock = new FixedPasscodePadlock(4, 3, 2, 1, 0);
+        // when
+        final int[] solution = new PadlockCracker(padlock, prior).execute();
+        // then
+        assertArrayEquals(new int[]{4, 3, 2, 1, 0}, solution, "Solution should match the passcode");
+        assertEquals(2, padlock.getCheckCounter(), "The most frequent code should be tried first, then the second one");
+    }
+
+    @Test
+    void everyPasscodeFoundAndCheckedOnce() {
+        // given
+        final PasscodePrior prior = PasscodePrior.fromCodes(5, List.of(new int[]{1, 0, 2, 4, 3}, new int[]{1, 2, 0, 4, 3}));
+        final PermutationSpace space = new PermutationSpace(5);
+        long maxChecks = 0;
+        // when
+        for (long rank = 0; rank < space.size(); rank++) {
+            final int[] passcode = space.unrank(rank);
+            final FixedPasscodePadlock padlock = new FixedPasscodePadlock(passcode);
+            final int[] solution = new PriorGuidedStrategy(prior).crack(padlock);
+            // then
+            assertArrayEquals(passcode, solution, "Every passcode should be found");
+            maxChecks = Math.max(maxChecks, padlock.getCheckCounter());
+        }
+        assertEquals(space.size(), maxChecks, "No candidate should be checked twice");
+    }
+
+    @Test
+    void likelyKeysTriedFirst() {
+        // given
+        final double[][] weights = new double[4][4];
+        for (int position = 0; position < 4; position++) {
+            weights[position][3 - position] = 10;
+            for (int key = 0; key < 4; key++) {
+                weights[position][key] += 1;
+            }
+        }
+        final FixedPasscodePadlock padlock = new FixedPasscodePadlock(3, 2, 1, 0);
+        // when
+        final int[] solution = new PriorGuidedStrategy(PasscodePrior.fromWeights(weights)).crack(padlock);
+        // then
+        assertArrayEquals(new int[]{3, 2, 1, 0}, solution, "Solution should match the passcode");
+        assertEquals(1, padlock.getCheckCounter(), "The most likely candidate should be tried first");
+        assertEquals(4, padlock.getWriteCounter(), "The candidate should be written once");
+    }
+
+    @Test
+    void numpadSizeMismatchRejected() {
+        // given
+        final PriorGuidedStrategy strategy = new PriorGuidedStrategy(PasscodePrior.fromCodes(4, List.of()));
+        // when, then
+        assertThrows(IllegalArgumentException.class, () -> strategy.crack(new FixedPasscodePadlock(0, 1, 2)),
+                "Prior of other keypad size should be rejected");
+    }
+}
@@ -0,0 +1,43 @@
+package com.cleverthis.interview.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankRangeStrategyTest {
+
+    private static final int[] PASSCODE = {3, 5, 0, 4, 1, 2};
+
+    @Test
+    void passcodeFoundInItsRangeOnly() {
+        // given
+        final PermutationSpace space = new PermutationSpace(PASSCODE.length);
+        final long passcodeRank = space.rank(PASSCODE);
+        int found = 0;
+        // when
+        for (PermutationSpace.RankRange range : space.split(5)) {
+            final FixedPasscodePadlock padlock = new FixedPasscodePadlock(PASSCODE);
+            final int[] solution = new PadlockCracker(padlock, range).execute();
+            // then
+            final boolean inRange = passcodeRank >= range.getFromRank() && passcodeRank < range.getToRank();
+            assertEquals(inRange, solution != null, "Passcode should be found in its range only: " + range);
+            if (solution != null) {
+                assertArrayEquals(PASSCODE, solution, "Solution should match the passcode");
+                found++;
+            }
+        }
+        assertEquals(1, found, "Passcode should be found exactly once");
+    }
+
+    @Test
+    void unalignedRangeChecksEveryCandidateOnce() {
+        // given
+        final FixedPasscodePadlock padlock = new FixedPasscodePadlock(0, 1, 2, 3, 4, 5);
+        // when
+        final int[] solution = new RankRangeStrategy(7, 701).crack(padlock);
+        // then
+        assertNull(solution, "Passcode of rank 0 is not in the range");
+        assertEquals(694, padlock.getCheckCounter(), "Every candidate of the range should be checked");
+        assertTrue(padlock.getWriteCounter() < 3 * padlock.getCheckCounter(), "Blocks should be walked in minimal-change order");
+    }
+}
@@ -0,0 +1,131 @@
+package com.cleverthis.interview.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedPadlockCrackerTest {
+
+    private static final int[] PASSCODE = {5, 3, 1, 0, 2, 4};
+
+    @Test
+    void crackWithReplicas() throws InterruptedException {
+        // given
+        final List<IPadlock> replicas = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            replicas.add(new FixedPasscodePadlock(PASSCODE));
+        }
+        // when
+        final int[] solution = new ShardedPadlockCracker(replicas).execute();
+        // then
+        assertArrayEquals(PASSCODE, solution, "Solution should match the passcode");
+        assertEquals(1, replicas.stream().filter(ShardedPadlockCrackerTest::isOpen).count(), "Only the winning replica should be open");
+    }
+
+    @Test
+    void cancelOtherShardsOnSuccess() throws InterruptedException {
+        // given: the passcode is the first candidate of the first shard
+        final List<FixedPasscodePadlock> replicas = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            replicas.add(new SlowPadlock(0, 1, 2, 3, 4, 5));
+        }
+        // when
+        final int[] solution = new ShardedPadlockCracker(new ArrayList<>(replicas)).execute();
+        // then
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5}, solution, "Solution should match the passcode");
+        final long writes = replicas.stream().mapToLong(FixedPasscodePadlock::getWriteCounter).sum();
+        assertTrue(writes < 360, "Other shards should be cancelled, writes: " + writes);
+    }
+
+    @Test
+    void noSolutionWhenAllShardsExhausted() throws InterruptedException {
+        // given
+        final List<IPadlock> replicas = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            replicas.add(new NeverOpenPadlock(null));
+        }
+        // when
+        final int[] solution = new ShardedPadlockCracker(replicas).execute();
+        // then
+        assertNull(solution, "No solution should be found when every shard is searched");
+    }
+
+    @Test
+    void reportShardFailure() {
+        // given
+        final List<IPadlock> replicas = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            replicas.add(new NeverOpenPadlock(i == 1 ? new UncheckedIOException(new IOException("Link down")) : null));
+        }
+        // when / then
+        assertThrows(UncheckedIOException.class, () -> new ShardedPadlockCracker(replicas).execute(),
+                "Crashed shard should not be reported as exhausted");
+    }
+
+    @Test
+    void rejectMismatchingReplicas() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShardedPadlockCracker(List.of(new FixedPasscodePadlock(0, 1), new FixedPasscodePadlock(0, 1, 2))));
+    }
+
+    /**
+     * A shard cancelled before its first batch leaves the replica buffer uninitialized, which is not an open padlock.
+     */
+    private static boolean isOpen(IPadlock replica) {
+        try {
+            return replica.isPasscodeCorrect();
+        } catch (IllegalStateException invalidBuffer) {
+            return false;
+        }
+    }
+
+    /**
+     * Replica rejecting every passcode, optionally failing on the first write.
+     */
+    private static final class NeverOpenPadlock extends FixedPasscodePadlock {
+        private final RuntimeException failure;
+
+        NeverOpenPadlock(RuntimeException failure) {
+            super(PASSCODE);
+            this.failure = failure;
+        }
+
+        @Override
+        public Integer writeInputBuffer(int address, int keyIndex) {
+            if (this.failure != null) {
+                throw this.failure;
+            }
+            return super.writeInputBuffer(address, keyIndex);
+        }
+
+        @Override
+        public boolean isPasscodeCorrect() {
+            super.isPasscodeCorrect();
+            return false;
+        }
+    }
+
+    /**
+     * Replica with the write latency of 1ms.
+     */
+    private static final class SlowPadlock extends FixedPasscodePadlock {
+        SlowPadlock(int... passcode) {
+            super(passcode);
+        }
+
+        @Override
+        public synchronized Integer writeInputBuffer(int address, int keyIndex) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return super.writeInputBuffer(address, keyIndex);
+        }
+    }
+}
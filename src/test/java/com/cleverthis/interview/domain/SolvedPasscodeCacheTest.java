@@ -0,0 +1,50 @@
+package com.cleverthis.interview.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolvedPasscodeCacheTest {
+
+    @Test
+    void leastRecentlyUsedEvictedAndOrderPersisted() throws IOException {
+        // given
+        final Path file = Files.createTempFile("padlock", ".cache");
+        Files.delete(file);
+        try {
+            final SolvedPasscodeCache cache = SolvedPasscodeCache.open(file, 2);
+            cache.put("a", new int[]{0, 1});
+            cache.put("b", new int[]{1, 0});
+            cache.get("a");
+            // when
+            cache.put("c", new int[]{2, 0, 1});
+            cache.save();
+            final SolvedPasscodeCache reopened = SolvedPasscodeCache.open(file, 2);
+            reopened.put("d", new int[]{0});
+            // then
+            assertTrue(cache.get("b").isEmpty(), "Least recently used lock should be evicted");
+            assertTrue(reopened.get("a").isEmpty(), "Recency order should survive the save");
+            assertArrayEquals(new int[]{2, 0, 1}, reopened.get("c").orElseThrow(), "Passcode should survive the save");
+            assertEquals(2, reopened.size(), "Capacity should be kept");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void foreignFileRejected() throws IOException {
+        // given
+        final Path file = Files.createTempFile("padlock", ".cache");
+        Files.writeString(file, "not a cache");
+        try {
+            // when, then
+            assertThrows(IOException.class, () -> SolvedPasscodeCache.open(file, 2), "Foreign file should be rejected");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
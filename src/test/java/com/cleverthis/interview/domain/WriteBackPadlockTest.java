@@ -0,0 +1,82 @@
+package com.cleverthis.interview.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBackPadlockTest {
+
+    @Test
+    void repeatedWritesCoalescedUntilCheck() {
+        // given
+        final BatchCountingPadlock device = new BatchCountingPadlock(2, 1, 0);
+        final WriteBackPadlock padlock = new WriteBackPadlock(device);
+        padlock.writeInputBuffer(new int[]{0, 1, 2}, new int[]{0, 1, 2});
+        // when
+        final Integer first = padlock.writeInputBuffer(0, 1);
+        final Integer second = padlock.writeInputBuffer(0, 2);
+        final Integer third = padlock.writeInputBuffer(2, 0);
+        final Integer fourth = padlock.writeInputBuffer(1, 2);
+        final Integer fifth = padlock.writeInputBuffer(1, 1);
+        final long writesBeforeCheck = device.getWriteCounter();
+        final boolean correct = padlock.isPasscodeCorrect();
+        // then
+        assertEquals(Integer.valueOf(0), first, "Old value should come from the device value");
+        assertEquals(Integer.valueOf(1), second, "Old value should come from the pending write");
+        assertEquals(Integer.valueOf(2), third, "Old value should come from the device value");
+        assertEquals(Integer.valueOf(2), fifth, "Old value should come from the pending write");
+        assertEquals(Integer.valueOf(1), fourth, "Old value should come from the device value");
+        assertEquals(3, writesBeforeCheck, "Only the first writes to each address should go through");
+        assertTrue(correct, "Net changes should be flushed before the check");
+        assertEquals(5, device.getWriteCounter(), "Only the two net changes should be written");
+        assertEquals(1, device.batches, "Net changes should be flushed as one batch");
+        assertEquals(2, padlock.getWritesCoalesced(), "Overwritten pending writes should be counted");
+    }
+
+    @Test
+    void invalidKeyRejectedWithoutDeviceWrite() {
+        // given
+        final FixedPasscodePadlock device = new FixedPasscodePadlock(1, 0);
+        final WriteBackPadlock padlock = new WriteBackPadlock(device);
+        padlock.writeInputBuffer(0, 0);
+        // when
+        final IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> padlock.writeInputBuffer(0, 2), "Invalid key should be rejected");
+        // then
+        assertEquals("keyIndex out of range. Keypad size: 2, keyIndex: 2", thrown.getMessage(), "Message should match PadlockImpl");
+        assertEquals(1, device.getWriteCounter(), "Invalid write should not reach the device");
+    }
+
+    @Test
+    void bruteForceCrackedWithFewerDeviceWrites() {
+        // given
+        final int[] passcode = {5, 4, 3, 2, 1, 0};
+        final FixedPasscodePadlock direct = new FixedPasscodePadlock(passcode);
+        final FixedPasscodePadlock device = new FixedPasscodePadlock(passcode);
+        // when
+        final int[] directSolution = new PadlockCracker(direct, CrackerEngine.BRUTE_FORCE).execute();
+        final int[] solution = new PadlockCracker(new WriteBackPadlock(device), CrackerEngine.BRUTE_FORCE).execute();
+        // then
+        assertArrayEquals(directSolution, solution, "Solution should not change");
+        assertEquals(direct.getCheckCounter(), device.getCheckCounter(), "Checks should not change");
+        assertTrue(device.getWriteCounter() < direct.getWriteCounter(), "Device writes should drop, %d vs %d direct"
+                .formatted(device.getWriteCounter(), direct.getWriteCounter()));
+    }
+
+    /**
+     * Padlock counting the batched writes.
+     */
+    private static final class BatchCountingPadlock extends FixedPasscodePadlock {
+        private int batches;
+
+        BatchCountingPadlock(int... passcode) {
+            super(passcode);
+        }
+
+        @Override
+        public Integer[] writeInputBuffer(int[] addresses, int[] keyIndexes) {
+            this.batches++;
+            return super.writeInputBuffer(addresses, keyIndexes);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.cleverthis.interview.domain;
+
+import com.cleverthis.interview.configuration.PadlockConfiguration;
+import com.cleverthis.interview.padlock.PadlockImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteElidingPadlockTest {
+
+    private static final int KEYPAD_SIZE = 5;
+
+    private WriteElidingPadlock padlock;
+
+    @BeforeEach
+    void setUp() {
+        this.padlock = new WriteElidingPadlock(new PadlockImplDelegate(new PadlockImpl(KEYPAD_SIZE)));
+    }
+
+    @Test
+    void elideRepeatedWrite() {
+        // given
+        this.padlock.writeInputBuffer(0, 3);
+        // when
+        final Integer oldValue = this.padlock.writeInputBuffer(0, 3);
+        // then
+        assertEquals(Integer.valueOf(3), oldValue, "Old value should come from the shadow buffer");
+        assertEquals(1, this.padlock.getWriteCounter(), "Only the first write should reach the padlock");
+        assertEquals(1, this.padlock.getWritesIssued(), "Issued writes check");
+        assertEquals(1, this.padlock.getWritesElided(), "Elided writes check");
+    }
+
+    @Test
+    void forwardChangedWrite() {
+        // given
+        this.padlock.writeInputBuffer(0, 3);
+        // when
+        final Integer oldValue = this.padlock.writeInputBuffer(0, 4);
+        // then
+        assertEquals(Integer.valueOf(3), oldValue, "Old value should come from the padlock");
+        assertEquals(2, this.padlock.getWriteCounter(), "Both writes should reach the padlock");
+        assertEquals(0, this.padlock.getWritesElided(), "Nothing should be elided");
+    }
+
+    @Test
+    void forwardChangedWritesOfBatch() {
+        // given
+        this.padlock.writeInputBuffer(0, 3);
+        // when
+        final Integer[] oldValues = this.padlock.writeInputBuffer(new int[]{0, 1, 0, 0}, new int[]{3, 2, 4, 3});
+        // then
+        assertArrayEquals(new int[]{3, -1, 3, 4}, Arrays.stream(oldValues).mapToInt(v -> v == null ? -1 : v).toArray(),
+                "Old values should follow the write order");
+        assertEquals(4, this.padlock.getWriteCounter(), "Only the changing writes should reach the padlock");
+        assertEquals(1, this.padlock.getWritesElided(), "Unchanged write should be elided");
+    }
+
+    @Test
+    void crackerThroughDecorator() {
+        // when
+        final int[] solution = new PadlockCracker(this.padlock).execute();
+        // then
+        assertNotNull(solution, "Solution should exists");
+        assertTrue(this.padlock.isPasscodeCorrect(), "Padlock should acknowledge the success");
+        assertEquals(this.padlock.getWriteCounter(), this.padlock.getWritesIssued(), "Issued writes should match the padlock counter");
+    }
+
+    @Test
+    void customBuilderChain() {
+        // given
+        final PadlockConfiguration configuration = PadlockConfiguration.from("/test-padlock-configuration-eliding.json");
+        // when
+        final IPadlock built = PadlockBuilder.newBuilder().withPadlockConfiguration(configuration).build();
+        // then
+        assertEquals(WriteElidingPadlock.class, built.getClass(), "Should be of correct class");
+        assertEquals(KEYPAD_SIZE, built.getNumpadSize(), "Configured and actual keypad size should match");
+    }
+}
@@ -0,0 +1,89 @@
+package com.cleverthis.interview.fleet;
+
+import com.cleverthis.interview.configuration.PadlockAccessType;
+import com.cleverthis.interview.configuration.PadlockConfiguration;
+import com.cleverthis.interview.domain.IPadlock;
+import com.cleverthis.interview.domain.MinimalChangeStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PadlockFleetTest {
+
+    @Test
+    void crackManyPadlocks() throws InterruptedException {
+        // given
+        final List<PadlockConfiguration> configurations = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            configurations.add(new PadlockConfiguration(PadlockAccessType.JAVA, 1 + i % 6, null));
+        }
+        final List<FleetResult> results = new ArrayList<>();
+        // when
+        final FleetSummary summary = new PadlockFleet().crack(configurations, results::add);
+        // then
+        assertEquals(200, summary.locks(), "All padlocks should be reported");
+        assertEquals(200, summary.solved(), "All padlocks should be cracked");
+        assertEquals(200, results.size(), "Each result should be streamed");
+        final Set<Integer> indexes = new HashSet<>();
+        results.forEach(result -> indexes.add(result.index()));
+        assertEquals(200, indexes.size(), "Each padlock should be reported once");
+    }
+
+    @Test
+    void crackManifestWithFailingPadlock() throws IOException, InterruptedException {
+        // given
+        final List<PadlockConfiguration> configurations = PadlockConfiguration.fromFleetManifest("/test-fleet-manifest.json");
+        final List<FleetResult> results = new ArrayList<>();
+        // when
+        final FleetSummary summary = new PadlockFleet().crack(configurations, results::add);
+        // then
+        assertEquals(4, summary.locks(), "All padlocks should be reported");
+        assertEquals(3, summary.solved(), "Supported padlocks should be cracked");
+        assertEquals(1, summary.failed(), "Unsupported padlock should fail");
+        assertTrue(results.stream().anyMatch(result -> result.failure() != null && result.index() == 3),
+                "Failure should be reported for the unsupported padlock");
+    }
+
+    @Test
+    void manifestReadOnlyAsResultsDrain() throws InterruptedException {
+        // given
+        final AtomicInteger read = new AtomicInteger();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final Iterable<PadlockConfiguration> manifest = () -> IntStream.range(0, 50)
+                .peek(i -> read.incrementAndGet())
+                .mapToObj(i -> new PadlockConfiguration(PadlockAccessType.JAVA, 4, null))
+                .iterator();
+        final List<Integer> readAtDelivery = new ArrayList<>();
+        // when
+        final FleetSummary summary = new PadlockFleet(padlock -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            return new MinimalChangeStrategy() {
+                @Override
+                public int[] crack(IPadlock cracked) {
+                    try {
+                        return super.crack(cracked);
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                }
+            };
+        }, 3).crack(manifest, result -> readAtDelivery.add(read.get()));
+        // then
+        assertEquals(50, summary.solved(), "All padlocks should be cracked");
+        assertTrue(maxRunning.get() <= 3, "At most 3 padlocks should be cracked at once, was " + maxRunning.get());
+        for (int delivered = 0; delivered < readAtDelivery.size(); delivered++) {
+            assertTrue(readAtDelivery.get(delivered) <= delivered + 3,
+                    "Manifest should be read only as the results drain, read %d before result %d"
+                            .formatted(readAtDelivery.get(delivered), delivered));
+        }
+    }
+}
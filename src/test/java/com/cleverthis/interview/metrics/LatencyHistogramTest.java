@@ -0,0 +1,54 @@
+package com.cleverthis.interview.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void percentilesWithinBucketPrecision() {
+        // given
+        final LatencyHistogram histogram = new LatencyHistogram();
+        // when
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos * 1000);
+        }
+        // then
+        assertEquals(100_000, histogram.getCount(), "Every value should be counted");
+        assertRelativelyClose(50_000_000, histogram.getPercentile(0.5), "p50");
+        assertRelativelyClose(99_000_000, histogram.getPercentile(0.99), "p99");
+        assertRelativelyClose(99_900_000, histogram.getPercentile(0.999), "p999");
+        assertRelativelyClose(100_000_000, histogram.getPercentile(1), "max");
+    }
+
+    @Test
+    void bucketBoundsCoverValue() {
+        // given
+        final long[] values = {0, 1, 15, 16, 17, 31, 32, 1000, 1_000_000_007L, Long.MAX_VALUE};
+        for (long value : values) {
+            // when
+            final int bucket = LatencyHistogram.bucketOf(value);
+            // then
+            assertTrue(LatencyHistogram.upperBoundOf(bucket) >= value, "Bucket should contain the value " + value);
+            assertTrue(bucket == 0 || LatencyHistogram.upperBoundOf(bucket - 1) < value, "Value should be in the first covering bucket " + value);
+        }
+    }
+
+    @Test
+    void emptyAndReset() {
+        // given
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(0.99), "Empty histogram should report zero");
+        histogram.record(123);
+        // when
+        histogram.reset();
+        // then
+        assertEquals(0, histogram.getCount(), "Reset should forget the values");
+    }
+
+    private static void assertRelativelyClose(long expected, long actual, String percentile) {
+        assertTrue(actual >= expected && actual <= expected + expected / 16,
+                "%s should be within the bucket precision: %d vs %d".formatted(percentile, expected, actual));
+    }
+}
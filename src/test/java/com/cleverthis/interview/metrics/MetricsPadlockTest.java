@@ -0,0 +1,95 @@
+package com.cleverthis.interview.metrics;
+
+import com.cleverthis.interview.domain.PadlockImplDelegate;
+import com.cleverthis.interview.padlock.PadlockImpl;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsPadlockTest {
+
+    @Test
+    void recordWritesAndChecks() throws Exception {
+        // given
+        try (MetricsPadlock padlock = new MetricsPadlock(new PadlockImplDelegate(new PadlockImpl(4)), "metrics-test-lock")) {
+            // when
+            for (int address = 0; address < 4; address++) {
+                padlock.writeInputBuffer(address, address);
+            }
+            padlock.writeInputBuffer(new int[]{0, 1}, new int[]{1, 0});
+            padlock.writeInputBufferAsync(0, 0).join();
+            padlock.writeInputBufferAsync(1, 1).join();
+            padlock.isPasscodeCorrect();
+            // then
+            final PadlockMetrics metrics = padlock.getMetrics();
+            assertEquals(8, metrics.getWriteCount(), "Single, batched and asynchronous writes should be counted");
+            assertEquals(1, metrics.getCheckCount(), "Check should be counted");
+            assertEquals(0, metrics.getInFlight(), "Nothing should be in flight");
+            assertTrue(metrics.getWriteP999Micros() >= metrics.getWriteP50Micros(), "Percentiles should be ordered");
+            assertEquals(Long.valueOf(8), ManagementFactory.getPlatformMBeanServer()
+                    .getAttribute(padlock.getObjectName(), "WriteCount"), "Metrics should be published by JMX");
+        }
+    }
+
+    @Test
+    void chainConstructorRegistersUntilClosed() {
+        // given
+        final MetricsPadlock padlock = new MetricsPadlock(new PadlockImplDelegate(new PadlockImpl(3)));
+        // when
+        padlock.writeInputBuffer(0, 1);
+        final boolean registered = ManagementFactory.getPlatformMBeanServer().isRegistered(padlock.getObjectName());
+        padlock.close();
+        // then
+        assertTrue(registered, "Padlock built by the CUSTOM chain should register the MBean");
+        assertEquals(1, padlock.getMetrics().getWriteCount(), "Metrics should be recorded");
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(padlock.getObjectName()), "MBean should be unregistered");
+    }
+
+    @Test
+    void unregisteredOnClose() {
+        // given
+        final MetricsPadlock padlock = new MetricsPadlock(new PadlockImplDelegate(new PadlockImpl(3)), "metrics-close-lock");
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(padlock.getObjectName()), "MBean should be registered");
+        // when
+        padlock.close();
+        // then
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(padlock.getObjectName()), "MBean should be unregistered");
+    }
+
+    @Test
+    void emitJfrEvents() throws IOException {
+        // given
+        final Path dump = Files.createTempFile("padlock", ".jfr");
+        try (Recording recording = new Recording();
+             MetricsPadlock padlock = new MetricsPadlock(new PadlockImplDelegate(new PadlockImpl(3)), "metrics-jfr-lock")) {
+            recording.enable("com.cleverthis.interview.PadlockWrite");
+            recording.enable("com.cleverthis.interview.PadlockCheck");
+            recording.start();
+            // when
+            for (int address = 0; address < 3; address++) {
+                padlock.writeInputBuffer(address, address);
+            }
+            padlock.isPasscodeCorrect();
+            recording.stop();
+            recording.dump(dump);
+            // then
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+            assertEquals(3, events.stream().filter(event -> event.getEventType().getName().endsWith("PadlockWrite")).count(),
+                    "Each write should be recorded");
+            assertEquals(1, events.stream().filter(event -> event.getEventType().getName().endsWith("PadlockCheck")).count(),
+                    "Check should be recorded");
+            assertEquals("metrics-jfr-lock", events.get(0).getString("lockName"), "Events should name the lock");
+        } finally {
+            Files.delete(dump);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.cleverthis.interview.remote;
+
+import com.cleverthis.interview.configuration.PadlockAccessType;
+import com.cleverthis.interview.configuration.PadlockConfiguration;
+import com.cleverthis.interview.domain.IPadlock;
+import com.cleverthis.interview.domain.MinimalChangeStrategy;
+import com.cleverthis.interview.domain.PadlockBuilder;
+import com.cleverthis.interview.domain.PadlockCracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CliPadlockTest {
+
+    private IPadlock padlock;
+
+    @BeforeEach
+    void setUp() {
+        final List<String> command = List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Dfast=true", "-cp", System.getProperty("java.class.path"), PadlockCliStub.class.getName(), "5");
+        this.padlock = PadlockBuilder.newBuilder().withPadlockConfiguration(new PadlockConfiguration(PadlockAccessType.CLI, 0,
+                null, null, new PadlockConfiguration.PadlockEndpoint(null, null, null, command))).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ((CliPadlock) this.padlock).close();
+    }
+
+    @Test
+    void crackThroughCli() {
+        // when
+        final int[] solution = new PadlockCracker(this.padlock, new MinimalChangeStrategy()).execute();
+        // then
+        assertEquals(CliPadlock.class, this.padlock.getClass(), "Should be of correct class");
+        assertNotNull(solution, "Solution should be found");
+        assertTrue(this.padlock.isPasscodeCorrect(), "Padlock should hold the passcode");
+        assertEquals(0, ((CliPadlock) this.padlock).getRestarts(), "Tool should be started once");
+    }
+
+    @Test
+    void batchedWriteReturnsOldValues() {
+        // given
+        this.padlock.writeInputBuffer(1, 4);
+        // when
+        final Integer[] oldValues = this.padlock.writeInputBuffer(new int[]{0, 1, 0}, new int[]{2, 3, 1});
+        // then
+        assertArrayEquals(new Integer[]{null, 4, 2}, oldValues, "Old values should be returned in the batch order");
+        assertEquals(4, this.padlock.getWriteCounter(), "All writes should reach the padlock");
+    }
+
+    @Test
+    void inputBufferReplayedAfterToolRestart() throws InterruptedException {
+        // given
+        this.padlock.writeInputBuffer(new int[]{0, 1, 2, 3, 4}, new int[]{0, 1, 2, 3, 4});
+        ((CliPadlock) this.padlock).getProcess().destroyForcibly().waitFor();
+        // when
+        final Integer[] oldValues = this.padlock.writeInputBuffer(new int[]{0, 1}, new int[]{1, 0});
+        // then
+        assertArrayEquals(new Integer[]{0, 1}, oldValues, "Restarted tool should hold the replayed input buffer");
+        assertEquals(1, ((CliPadlock) this.padlock).getRestarts(), "Tool should be restarted once");
+        assertDoesNotThrow(() -> this.padlock.isPasscodeCorrect(), "Replayed input buffer should be complete");
+    }
+
+    @Test
+    void padlockExceptionsPropagated() {
+        // when
+        final IllegalArgumentException invalidKey = assertThrows(IllegalArgumentException.class,
+                () -> this.padlock.writeInputBuffer(0, 7), "Invalid key should be rejected");
+        final IllegalStateException invalidPasscode = assertThrows(IllegalStateException.class,
+                () -> this.padlock.isPasscodeCorrect(), "Uninitialized buffer should be rejected");
+        // then
+        assertEquals("keyIndex out of range. Keypad size: 5, keyIndex: 7", invalidKey.getMessage(), "Message should be kept");
+        assertTrue(invalidPasscode.getMessage().startsWith("Passcode invalid"), "Message should be kept");
+    }
+}
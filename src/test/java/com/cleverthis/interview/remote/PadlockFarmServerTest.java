@@ -0,0 +1,129 @@
+package com.cleverthis.interview.remote;
+
+import com.cleverthis.interview.domain.IPadlock;
+import com.cleverthis.interview.domain.MinimalChangeStrategy;
+import com.cleverthis.interview.domain.PadlockCracker;
+import com.cleverthis.interview.fleet.VirtualThreads;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PadlockFarmServerTest {
+
+    private static final Duration LATENCY = Duration.ofMillis(20);
+
+    private PadlockFarm farm;
+    private PadlockFarmServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.farm = new PadlockFarm(LATENCY);
+        this.server = PadlockFarmServer.start(this.farm, 0, 0);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        this.server.close();
+        this.farm.close();
+    }
+
+    @Test
+    void sessionsCreatedAndClosedOverHttp() throws IOException, InterruptedException {
+        // when
+        final List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            ids.add(this.send("POST", "?numpadSize=4").body());
+        }
+        final int deleted = this.send("DELETE", "/" + ids.get(0)).statusCode();
+        final int deletedAgain = this.send("DELETE", "/" + ids.get(0)).statusCode();
+        // then
+        assertEquals(2000, ids.stream().distinct().count(), "Session ids should be unique");
+        assertEquals(204, deleted, "Session should be closed");
+        assertEquals(404, deletedAgain, "Closed session should not be found");
+        assertEquals("1999", this.send("GET", "").body(), "Sessions should be counted");
+        assertEquals(400, this.send("POST", "").statusCode(), "Keypad size should be required");
+    }
+
+    @Test
+    void concurrentCracksDoNotWaitForEachOther() throws IOException, InterruptedException {
+        // given
+        final List<IPadlock> padlocks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            final long id = this.farm.createSession(3);
+            padlocks.add(i % 2 == 0
+                    ? new RestPadlock(URI.create(this.server.getUri() + "/" + id + PadlockHttpServer.BASE_PATH), 1, Duration.ofSeconds(30))
+                    : new SocketPadlock(new InetSocketAddress(this.server.getSocketUri().getHost(), this.server.getSocketUri().getPort()),
+                    1, Duration.ofSeconds(30)).attach(id));
+        }
+        // when
+        final ExecutorService clients = VirtualThreads.newThreadPerTaskExecutor();
+        final long start = System.nanoTime();
+        final List<CompletableFuture<int[]>> solutions = new ArrayList<>();
+        for (IPadlock padlock : padlocks) {
+            solutions.add(CompletableFuture.supplyAsync(() -> new PadlockCracker(padlock, new MinimalChangeStrategy()).execute(), clients));
+        }
+        CompletableFuture.allOf(solutions.toArray(new CompletableFuture[0])).join();
+        clients.shutdown();
+        final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        // then
+        for (int i = 0; i < padlocks.size(); i++) {
+            assertNotNull(solutions.get(i).join(), "Every padlock should be cracked");
+            assertTrue(padlocks.get(i).isPasscodeCorrect(), "Every padlock should hold its passcode");
+        }
+        final long maxWrites = 3 + 2 * 5;
+        assertTrue(elapsed.compareTo(LATENCY.multipliedBy(maxWrites * padlocks.size() / 4)) < 0,
+                "Cracks should overlap, took " + elapsed);
+        padlocks.stream().filter(SocketPadlock.class::isInstance).forEach(padlock -> ((SocketPadlock) padlock).close());
+    }
+
+    @Test
+    void writeLatencySimulated() {
+        // given
+        final long id = this.farm.createSession(4);
+        final RestPadlock padlock = new RestPadlock(URI.create(this.server.getUri() + "/" + id + PadlockHttpServer.BASE_PATH),
+                4, Duration.ofSeconds(30));
+        // when
+        final long start = System.nanoTime();
+        final List<CompletableFuture<Integer>> writes = new ArrayList<>();
+        for (int address = 0; address < 4; address++) {
+            writes.add(padlock.writeInputBufferAsync(address, address));
+        }
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).join();
+        final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        // then
+        assertTrue(elapsed.compareTo(LATENCY.multipliedBy(4)) >= 0, "Device should write one address at a time, took " + elapsed);
+        assertEquals(4, padlock.getWriteCounter(), "All writes should reach the padlock");
+    }
+
+    @Test
+    void unknownSessionRejected() {
+        // given
+        final SocketPadlock padlock = new SocketPadlock(new InetSocketAddress(this.server.getSocketUri().getHost(),
+                this.server.getSocketUri().getPort()), 1, Duration.ofSeconds(30));
+        // when, then
+        assertThrows(UncheckedIOException.class, () -> padlock.attach(42), "Unknown session should be rejected");
+        assertThrows(IllegalStateException.class, () -> padlock.writeInputBuffer(0, 0), "Session should be attached first");
+        padlock.close();
+    }
+
+    private HttpResponse<String> send(String method, String path) throws IOException, InterruptedException {
+        return this.client.send(HttpRequest.newBuilder(URI.create(this.server.getUri() + path))
+                .method(method, HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
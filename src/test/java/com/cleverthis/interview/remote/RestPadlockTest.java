@@ -0,0 +1,93 @@
+package com.cleverthis.interview.remote;
+
+import com.cleverthis.interview.configuration.PadlockAccessType;
+import com.cleverthis.interview.configuration.PadlockConfiguration;
+import com.cleverthis.interview.domain.IPadlock;
+import com.cleverthis.interview.domain.MinimalChangeStrategy;
+import com.cleverthis.interview.domain.PadlockBuilder;
+import com.cleverthis.interview.domain.PadlockCracker;
+import com.cleverthis.interview.domain.PadlockImplDelegate;
+import com.cleverthis.interview.padlock.PadlockImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestPadlockTest {
+
+    private IPadlock served;
+    private PadlockHttpServer server;
+    private IPadlock padlock;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.served = new PadlockImplDelegate(new PadlockImpl(5));
+        this.server = PadlockHttpServer.start(this.served, 0);
+        this.padlock = PadlockBuilder.newBuilder().withPadlockConfiguration(new PadlockConfiguration(PadlockAccessType.REST, 0,
+                null, null, new PadlockConfiguration.PadlockEndpoint(this.server.getUri().toString(), 4, 5000L))).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.server.close();
+    }
+
+    @Test
+    void crackOverRest() {
+        // when
+        final int[] solution = new PadlockCracker(this.padlock, new MinimalChangeStrategy()).execute();
+        // then
+        assertEquals(RestPadlock.class, this.padlock.getClass(), "Should be of correct class");
+        assertEquals(5, this.padlock.getNumpadSize(), "Keypad size should be served");
+        assertNotNull(solution, "Solution should be found");
+        assertTrue(this.served.isPasscodeCorrect(), "Served padlock should hold the passcode");
+        assertEquals(this.served.getWriteCounter(), this.padlock.getWriteCounter(), "Write counter should be served");
+    }
+
+    @Test
+    void batchedWriteReturnsOldValues() {
+        // given
+        this.padlock.writeInputBuffer(1, 4);
+        // when
+        final Integer[] oldValues = this.padlock.writeInputBuffer(new int[]{0, 1, 0}, new int[]{2, 3, 1});
+        // then
+        assertArrayEquals(new Integer[]{null, 4, 2}, oldValues, "Old values should be returned in the batch order");
+        assertEquals(4, this.served.getWriteCounter(), "All writes should reach the padlock");
+    }
+
+    @Test
+    void asynchronousWritesAllApplied() {
+        // given
+        final List<CompletableFuture<Integer>> writes = new ArrayList<>();
+        // when
+        for (int address = 0; address < 5; address++) {
+            writes.add(this.padlock.writeInputBufferAsync(address, 4 - address));
+        }
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).join();
+        // then
+        assertEquals(5, this.served.getWriteCounter(), "All writes should reach the padlock");
+        for (int address = 0; address < 5; address++) {
+            assertEquals(Integer.valueOf(4 - address), this.served.writeInputBuffer(address, 0), "Key should be written");
+        }
+    }
+
+    @Test
+    void padlockExceptionsPropagated() {
+        // when
+        final IllegalArgumentException invalidKey = assertThrows(IllegalArgumentException.class,
+                () -> this.padlock.writeInputBuffer(0, 7), "Invalid key should be rejected");
+        final IllegalStateException invalidPasscode = assertThrows(IllegalStateException.class,
+                () -> this.padlock.isPasscodeCorrect(), "Uninitialized buffer should be rejected");
+        this.padlock.resetCounter();
+        // then
+        assertEquals("keyIndex out of range. Keypad size: 5, keyIndex: 7", invalidKey.getMessage(), "Message should be kept");
+        assertTrue(invalidPasscode.getMessage().startsWith("Passcode invalid"), "Message should be kept");
+        assertEquals(0, this.padlock.getCheckCounter(), "Counters should be reset");
+    }
+}